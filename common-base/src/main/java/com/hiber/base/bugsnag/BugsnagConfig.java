@@ -3,7 +3,10 @@ package com.hiber.base.bugsnag;
 import brave.Tracer;
 import com.bugsnag.Bugsnag;
 import com.hiber.base.config.SupportConfig.SupportNotifier;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
@@ -17,15 +20,21 @@ import org.springframework.context.annotation.Configuration;
  * <p/>
  * As usual for Spring Boot the property (API key) may be provided via any supported mechanism (by system environment variable,
  * by properties file(s), by program argument etc.).
+ * <p/>
+ * Bugsnag is closed together with the context, delivering pending reports.
  */
 @Configuration
 @ConditionalOnProperty(value = "hiber.bugsnag.api-key")
 @EnableConfigurationProperties(BugsnagSettings.class)
 public class BugsnagConfig {
 
-	@Bean
-	public Bugsnag bugsnag(BugsnagSettings bugsnagSettings, Tracer tracer) {
-		return BugsnagFactory.create(bugsnagSettings.getApiKey(), tracer);
+	@Bean(destroyMethod = "close")
+	public Bugsnag bugsnag(BugsnagSettings bugsnagSettings, Tracer tracer, ObjectProvider<MeterRegistry> meterRegistry) {
+		return BugsnagFactory.create(
+				bugsnagSettings.getApiKey(),
+				tracer,
+				meterRegistry.getIfAvailable(() -> Metrics.globalRegistry)
+		);
 	}
 
 	@Bean
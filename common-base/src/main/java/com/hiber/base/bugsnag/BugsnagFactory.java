@@ -3,23 +3,68 @@ package com.hiber.base.bugsnag;
 
 import brave.Tracer;
 import com.bugsnag.Bugsnag;
+import com.bugsnag.delivery.HttpDelivery;
+import com.bugsnag.delivery.SyncHttpDelivery;
+import com.bugsnag.serialization.Serializer;
 import com.hiber.base.integration.EnvironmentProvider;
 import com.hiber.base.integration.ModuleMetadataFactory;
 import com.hiber.base.integration.ModuleMetadataFactory.ModuleMetadata;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import java.net.Proxy;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 
 /**
  * Creates a Bugsnag instance.
+ * <p/>
+ * Reports are delivered on a single background thread through a bounded queue. When the queue is full reports are dropped,
+ * which is counted by the <code>bugsnag_dropped_reports</code> metric. The default delivery of the instance is closed when
+ * replaced. Pending reports are delivered when the instance is closed, which is left to the caller when a registry is given
+ * (e.g. to the application context), otherwise the instance is closed when the JVM shuts down.
  */
 public class BugsnagFactory {
 	/**
-	 * Creates a Bugsnag instance with provided API key.
+	 * The max number of reports waiting to be delivered by a Bugsnag instance.
+	 */
+	public static final int MAX_PENDING_REPORTS = 100;
+
+	/**
+	 * Time to wait for pending reports to be delivered when a delivery is closed.
+	 */
+	private static final long CLOSE_TIMEOUT_MILLIS = 5000;
+
+	/**
+	 * Creates a Bugsnag instance with provided API key, closed when the JVM shuts down. Every call registers a shutdown hook,
+	 * so it is meant for instances living as long as the JVM.
 	 *
 	 * @param apiKey API key.
 	 *
 	 * @return Bugsnag instance.
 	 */
 	public static Bugsnag create(String apiKey) {
+		Bugsnag bugsnag = create(apiKey, Metrics.globalRegistry);
+		Runtime.getRuntime().addShutdownHook(new Thread(bugsnag::close, "bugsnag-shutdown"));
+		return bugsnag;
+	}
+
+	/**
+	 * Creates a Bugsnag instance with provided API key. The caller closes the instance.
+	 *
+	 * @param apiKey API key.
+	 * @param meterRegistry The registry of the <code>bugsnag_dropped_reports</code> metric.
+	 *
+	 * @return Bugsnag instance.
+	 */
+	public static Bugsnag create(String apiKey, MeterRegistry meterRegistry) {
 		Bugsnag bugsnag = new Bugsnag(apiKey);
+		bugsnag.getDelivery().close();
+		bugsnag.setDelivery(createDelivery(new SyncHttpDelivery(), meterRegistry));
 		ModuleMetadata moduleMetadata = ModuleMetadataFactory.create();
 		moduleMetadata.getVersion().ifPresent(bugsnag::setAppVersion);
 		bugsnag.setReleaseStage(EnvironmentProvider.getEnvironment());
@@ -29,7 +74,7 @@ public class BugsnagFactory {
 	}
 
 	/**
-	 * Creates a Bugsnag instance with provided API key.
+	 * Creates a Bugsnag instance with provided API key, closed when the JVM shuts down.
 	 * Additionally add tab with trace logs.
 	 *
 	 * @param apiKey Api key.
@@ -38,8 +83,24 @@ public class BugsnagFactory {
 	 * @return Bugsnag instance.
 	 */
 	public static Bugsnag create(String apiKey, Tracer tracer) {
-		Bugsnag bugsnag = create(apiKey);
+		return addTracerTab(create(apiKey), tracer);
+	}
 
+	/**
+	 * Creates a Bugsnag instance with provided API key. The caller closes the instance.
+	 * Additionally add tab with trace logs.
+	 *
+	 * @param apiKey Api key.
+	 * @param tracer Brave tracer bean.
+	 * @param meterRegistry The registry of the <code>bugsnag_dropped_reports</code> metric.
+	 *
+	 * @return Bugsnag instance.
+	 */
+	public static Bugsnag create(String apiKey, Tracer tracer, MeterRegistry meterRegistry) {
+		return addTracerTab(create(apiKey, meterRegistry), tracer);
+	}
+
+	private static Bugsnag addTracerTab(Bugsnag bugsnag, Tracer tracer) {
 		bugsnag.addCallback(
 				report -> {
 					report.addToTab("tracer", "parentSpanId", tracer.currentSpan().context().parentIdString());
@@ -50,4 +111,94 @@ public class BugsnagFactory {
 
 		return bugsnag;
 	}
+
+	/**
+	 * Creates a delivery sending reports on a single background thread through a bounded queue.
+	 *
+	 * @param baseDelivery The delivery sending reports synchronously.
+	 * @param meterRegistry The registry of the <code>bugsnag_dropped_reports</code> metric.
+	 *
+	 * @return Bounded delivery.
+	 */
+	static BoundedDelivery createDelivery(final HttpDelivery baseDelivery, final MeterRegistry meterRegistry) {
+		final Counter droppedCounter = Counter.builder("bugsnag_dropped_reports")
+				.description("Bugsnag reports dropped because too many reports were waiting to be delivered")
+				.register(meterRegistry);
+		final CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("bugsnag-delivery-");
+		threadFactory.setDaemon(true);
+
+		return new BoundedDelivery(baseDelivery, new ThreadPoolExecutor(
+				1,
+				1,
+				0,
+				TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(MAX_PENDING_REPORTS),
+				threadFactory,
+				(task, executor) -> droppedCounter.increment()
+		));
+	}
+
+	/**
+	 * Delivers reports through the base delivery on the thread of an executor. Unlike <code>AsyncHttpDelivery</code> it owns
+	 * a single executor, which is shut down when the delivery is closed.
+	 */
+	@Slf4j
+	static class BoundedDelivery implements HttpDelivery {
+		private final HttpDelivery baseDelivery;
+		private final ThreadPoolExecutor executor;
+
+		BoundedDelivery(final HttpDelivery baseDelivery, final ThreadPoolExecutor executor) {
+			this.baseDelivery = baseDelivery;
+			this.executor = executor;
+		}
+
+		@Override
+		public void deliver(final Serializer serializer, final Object object, final Map<String, String> headers) {
+			if (executor.isShutdown()) {
+				log.warn("Bugsnag delivery is closed, the report is dropped");
+				return;
+			}
+			executor.execute(() -> baseDelivery.deliver(serializer, object, headers));
+		}
+
+		@Override
+		public void setEndpoint(final String endpoint) {
+			baseDelivery.setEndpoint(endpoint);
+		}
+
+		@Override
+		public void setTimeout(final int timeout) {
+			baseDelivery.setTimeout(timeout);
+		}
+
+		@Override
+		public void setProxy(final Proxy proxy) {
+			baseDelivery.setProxy(proxy);
+		}
+
+		/**
+		 * Delivers pending reports, waiting for them up to 5 seconds.
+		 */
+		@Override
+		public void close() {
+			executor.shutdown();
+			try {
+				if (!executor.awaitTermination(CLOSE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS))
+					executor.shutdownNow();
+			}
+			catch (InterruptedException e) {
+				executor.shutdownNow();
+				Thread.currentThread().interrupt();
+			}
+			baseDelivery.close();
+		}
+
+		int getPending() {
+			return executor.getQueue().size();
+		}
+
+		boolean isClosed() {
+			return executor.isShutdown();
+		}
+	}
 }
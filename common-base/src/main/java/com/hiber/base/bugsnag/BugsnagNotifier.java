@@ -1,24 +1,58 @@
 package com.hiber.base.bugsnag;
 
 import com.bugsnag.Bugsnag;
-import com.hiber.base.config.SupportConfig.SupportNotifier;
-import com.hiber.base.domain.Support;
-import javax.management.relation.RelationSupportMBean;
+import java.util.function.Supplier;
 
 /**
  * Used to send exceptions to Bugsnag on demand.
+ * <p/>
+ * A single Bugsnag instance is shared by all notifications. It is created when the first exception is notified, if the
+ * <code>HIBER_BUGSNAG_API_KEY</code> environment variable is set, otherwise exceptions are ignored.
  */
 public class BugsnagNotifier  {
+	private static final SharedBugsnag BUGSNAG = new SharedBugsnag(BugsnagNotifier::create);
+
 	/**
 	 * Notify Bugsnag.
 	 *
 	 * @param throwable {@link Throwable}.
 	 */
 	public static void notifyBugsnag(Throwable throwable) {
-		String bugsnagApiKey = System.getenv("HIBER_BUGSNAG_API_KEY");
-		if (bugsnagApiKey != null) {
-			Bugsnag bugsnag = BugsnagFactory.create(bugsnagApiKey);
+		Bugsnag bugsnag = BUGSNAG.get();
+		if (bugsnag != null)
 			bugsnag.notify(throwable);
+	}
+
+	private static Bugsnag create() {
+		String bugsnagApiKey = System.getenv("HIBER_BUGSNAG_API_KEY");
+		return bugsnagApiKey != null ? BugsnagFactory.create(bugsnagApiKey) : null;
+	}
+
+	/**
+	 * Creates a Bugsnag instance once, when it is first requested, and returns the same instance afterwards.
+	 */
+	static class SharedBugsnag {
+		private final Supplier<Bugsnag> factory;
+		/**
+		 * The shared instance, <code>null</code> if the factory didn't create one.
+		 */
+		private volatile Bugsnag bugsnag;
+		private volatile boolean created;
+
+		SharedBugsnag(final Supplier<Bugsnag> factory) {
+			this.factory = factory;
+		}
+
+		Bugsnag get() {
+			if (!created) {
+				synchronized (this) {
+					if (!created) {
+						bugsnag = factory.get();
+						created = true;
+					}
+				}
+			}
+			return bugsnag;
 		}
 	}
 }
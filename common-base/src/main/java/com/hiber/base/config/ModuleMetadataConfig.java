@@ -0,0 +1,38 @@
+package com.hiber.base.config;
+
+import com.hiber.base.integration.EnvironmentProvider;
+import com.hiber.base.integration.ModuleMetadataFactory;
+import com.hiber.base.integration.ModuleMetadataFactory.ModuleMetadata;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.springframework.boot.actuate.info.InfoContributor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Exposes metadata of the module (see {@link ModuleMetadataFactory}) as a bean and, when Actuator is available, in the
+ * <code>module</code> section of the <code>info</code> endpoint together with the environment.
+ */
+@Configuration
+public class ModuleMetadataConfig {
+	@Bean
+	@ConditionalOnMissingBean
+	public ModuleMetadata moduleMetadata() {
+		return ModuleMetadataFactory.create();
+	}
+
+	@Configuration
+	@ConditionalOnClass(name = "org.springframework.boot.actuate.info.InfoContributor")
+	static class ModuleInfoConfiguration {
+		@Bean
+		public InfoContributor moduleInfoContributor(final ModuleMetadata moduleMetadata) {
+			final Map<String, Object> details = new LinkedHashMap<>();
+			moduleMetadata.getName().ifPresent(name -> details.put("name", name));
+			moduleMetadata.getVersion().ifPresent(version -> details.put("version", version));
+			details.put("environment", EnvironmentProvider.getEnvironment());
+			return builder -> builder.withDetail("module", details);
+		}
+	}
+}
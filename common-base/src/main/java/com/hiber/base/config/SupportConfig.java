@@ -2,12 +2,16 @@ package com.hiber.base.config;
 
 
 import com.hiber.base.domain.Support;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
 import java.util.List;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.task.TaskSchedulerCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -16,13 +20,25 @@ import org.springframework.web.servlet.HandlerExceptionResolver;
 import org.springframework.web.servlet.ModelAndView;
 
 @Configuration
+@EnableConfigurationProperties(SupportSettings.class)
 public class SupportConfig {
+	/**
+	 * Creates the support sending notifications to all notifiers. Notifications are sent asynchronously and limited per
+	 * error, see {@link SupportDispatcher}.
+	 *
+	 * @param notifiers Notifiers sending notifications.
+	 * @param supportSettings Settings of the buffer and the rate limit.
+	 * @param meterRegistry A registry of notification metrics.
+	 *
+	 * @return Created support.
+	 */
 	@Bean
-	public Support support(List<SupportNotifier> notifiers) {
-		return throwable -> {
-			for (SupportNotifier notifier : notifiers)
-				notifier.notify(throwable);
-		};
+	public Support support(
+			final List<SupportNotifier> notifiers,
+			final SupportSettings supportSettings,
+			final ObjectProvider<MeterRegistry> meterRegistry
+	) {
+		return new SupportDispatcher(notifiers, supportSettings, meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
 	}
 
 	/**
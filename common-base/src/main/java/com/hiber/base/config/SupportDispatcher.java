@@ -0,0 +1,238 @@
+package com.hiber.base.config;
+
+import com.hiber.base.config.SupportConfig.SupportNotifier;
+import com.hiber.base.domain.Support;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+/**
+ * Sends notifications about errors to all {@link SupportNotifier}s on a separate thread, so failing threads (e.g. consumers
+ * of a queue during an outage) don't wait for notifiers, and limits the number of notifications.
+ * <p/>
+ * Errors are identified by fingerprints made of classes and top stack frames of an exception and its causes. Notifications
+ * about an error are limited by a token bucket of the fingerprint: a burst of notifications is sent at once, then one more
+ * per refill interval. Notifications held back by the limit are counted and, once per aggregation window, sent as a single
+ * {@link RepeatedErrorException} with the count.
+ * <p/>
+ * Notifications wait for notifiers in a bounded buffer. When the buffer is full notifications are dropped instead of blocking
+ * the failing thread. Outcomes of notifications are counted by the <code>support_notifications</code> metric.
+ */
+@Slf4j
+public class SupportDispatcher implements Support, DisposableBean {
+	/**
+	 * The number of top stack frames of every exception included in a fingerprint.
+	 */
+	private static final int FINGERPRINT_FRAMES = 5;
+
+	/**
+	 * The max number of causes of an exception included in a fingerprint.
+	 */
+	private static final int FINGERPRINT_CAUSES = 5;
+
+	/**
+	 * The max number of tracked fingerprints, notifications about errors with other fingerprints are dropped.
+	 */
+	private static final int MAX_FINGERPRINTS = 10_000;
+
+	private final List<SupportNotifier> notifiers;
+	private final SupportSettings settings;
+	private final ThreadPoolExecutor executor;
+	private final ScheduledExecutorService scheduler;
+	private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+	private final Counter sentCounter;
+	private final Counter suppressedCounter;
+	private final Counter droppedCounter;
+	private final Counter failedCounter;
+
+	public SupportDispatcher(
+			final List<SupportNotifier> notifiers,
+			final SupportSettings settings,
+			final MeterRegistry meterRegistry
+	) {
+		this.notifiers = notifiers;
+		this.settings = settings;
+		this.sentCounter = counter("sent", meterRegistry);
+		this.suppressedCounter = counter("suppressed", meterRegistry);
+		this.droppedCounter = counter("dropped", meterRegistry);
+		this.failedCounter = counter("failed", meterRegistry);
+
+		final CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("support-notifier-");
+		threadFactory.setDaemon(true);
+		this.executor = new ThreadPoolExecutor(
+				1,
+				1,
+				0,
+				TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(settings.getBufferCapacity()),
+				threadFactory,
+				(task, executor) -> droppedCounter.increment()
+		);
+		this.scheduler = Executors.newSingleThreadScheduledExecutor(threadFactory);
+		this.scheduler.scheduleWithFixedDelay(
+				this::flushWindow,
+				settings.getAggregationWindow(),
+				settings.getAggregationWindow(),
+				TimeUnit.MILLISECONDS
+		);
+	}
+
+	@Override
+	public void notify(final Throwable throwable) {
+		final String fingerprint = fingerprint(throwable);
+		Bucket bucket = buckets.get(fingerprint);
+		if (bucket == null) {
+			if (buckets.size() >= MAX_FINGERPRINTS) {
+				droppedCounter.increment();
+				return;
+			}
+			bucket = buckets.computeIfAbsent(fingerprint, key -> new Bucket(settings.getRateLimitBurst()));
+		}
+
+		if (bucket.tryAcquire(throwable, settings.getRateLimitBurst(), settings.getRateLimitRefillInterval()))
+			dispatch(throwable);
+		else
+			suppressedCounter.increment();
+	}
+
+	@Override
+	public void destroy() throws InterruptedException {
+		scheduler.shutdownNow();
+		flushWindow();
+		executor.shutdown();
+		executor.awaitTermination(5, TimeUnit.SECONDS);
+	}
+
+	/**
+	 * Sends counts of notifications held back by the rate limit and forgets fingerprints of errors that stopped occurring.
+	 */
+	void flushWindow() {
+		final long now = System.nanoTime();
+		final long window = TimeUnit.MILLISECONDS.toNanos(settings.getAggregationWindow());
+		buckets.forEach((fingerprint, bucket) -> {
+			final RepeatedErrorException repeated = bucket.drainSuppressed(settings.getAggregationWindow());
+			if (repeated != null)
+				dispatch(repeated);
+			else if (now - bucket.lastSeen > window)
+				buckets.remove(fingerprint, bucket);
+		});
+	}
+
+	private void dispatch(final Throwable throwable) {
+		executor.execute(() -> {
+			for (final SupportNotifier notifier : notifiers) {
+				try {
+					notifier.notify(throwable);
+				}
+				catch (RuntimeException e) {
+					failedCounter.increment();
+					log.warn("Support notifier {} failed", notifier.getClass().getSimpleName(), e);
+				}
+			}
+			sentCounter.increment();
+		});
+	}
+
+	/**
+	 * @param throwable An exception.
+	 *
+	 * @return The fingerprint of the exception, made of classes and top stack frames of the exception and its causes.
+	 */
+	static String fingerprint(final Throwable throwable) {
+		final StringBuilder fingerprint = new StringBuilder();
+		Throwable current = throwable;
+		for (int causes = 0; current != null && causes <= FINGERPRINT_CAUSES; causes++) {
+			fingerprint.append(current.getClass().getName());
+			final StackTraceElement[] stackTrace = current.getStackTrace();
+			for (int i = 0; i < Math.min(FINGERPRINT_FRAMES, stackTrace.length); i++) {
+				fingerprint.append('|').append(stackTrace[i].getClassName())
+						.append('.').append(stackTrace[i].getMethodName())
+						.append(':').append(stackTrace[i].getLineNumber());
+			}
+			fingerprint.append(';');
+			current = current.getCause() != current ? current.getCause() : null;
+		}
+		return fingerprint.toString();
+	}
+
+	private static Counter counter(final String outcome, final MeterRegistry meterRegistry) {
+		return Counter.builder("support_notifications")
+				.description("Notifications about errors")
+				.tag("outcome", outcome)
+				.register(meterRegistry);
+	}
+
+	/**
+	 * The token bucket of a fingerprint, together with notifications held back in the current window.
+	 */
+	private static class Bucket {
+		private double tokens;
+		private long lastRefill = System.nanoTime();
+		private volatile long lastSeen = System.nanoTime();
+		private int suppressed;
+		private Throwable lastSuppressed;
+
+		Bucket(final int burst) {
+			this.tokens = burst;
+		}
+
+		synchronized boolean tryAcquire(final Throwable throwable, final int burst, final long refillIntervalMillis) {
+			final long now = System.nanoTime();
+			lastSeen = now;
+			final double refilled = (double) (now - lastRefill) / TimeUnit.MILLISECONDS.toNanos(refillIntervalMillis);
+			tokens = Math.min(burst, tokens + refilled);
+			lastRefill = now;
+			if (tokens >= 1) {
+				tokens--;
+				return true;
+			}
+			suppressed++;
+			lastSuppressed = throwable;
+			return false;
+		}
+
+		synchronized RepeatedErrorException drainSuppressed(final long windowMillis) {
+			if (suppressed == 0)
+				return null;
+			final RepeatedErrorException repeated = new RepeatedErrorException(lastSuppressed, suppressed, windowMillis);
+			suppressed = 0;
+			lastSuppressed = null;
+			return repeated;
+		}
+	}
+
+	/**
+	 * Reports notifications about an error held back by the rate limit. The cause is the last held back exception.
+	 */
+	public static class RepeatedErrorException extends RuntimeException {
+		private final int count;
+
+		RepeatedErrorException(final Throwable cause, final int count, final long windowMillis) {
+			super(
+					String.format("Error repeated %d more times in %d s: %s", count, windowMillis / 1000, cause.getMessage()),
+					cause,
+					false,
+					false
+			);
+			this.count = count;
+		}
+
+		/**
+		 * @return The number of notifications held back.
+		 */
+		public int getCount() {
+			return count;
+		}
+	}
+}
@@ -0,0 +1,38 @@
+package com.hiber.base.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Settings of support notifications, see {@link SupportDispatcher}.
+ */
+@Data
+@Configuration
+@NoArgsConstructor
+@AllArgsConstructor
+@ConfigurationProperties("hiber.support")
+public class SupportSettings {
+	/**
+	 * The max number of notifications waiting to be sent by notifiers. Notifications over this number are dropped.
+	 */
+	private int bufferCapacity = 1000;
+
+	/**
+	 * The number of notifications about the same error that are sent at once, before the rate limit applies.
+	 */
+	private int rateLimitBurst = 5;
+
+	/**
+	 * The time in milliseconds after which another notification about the same error may be sent once the burst is used up.
+	 */
+	private long rateLimitRefillInterval = 10_000;
+
+	/**
+	 * The time in milliseconds after which notifications about the same error held back by the rate limit are sent as a
+	 * single notification with their count.
+	 */
+	private long aggregationWindow = 60_000;
+}
@@ -3,12 +3,17 @@ package com.hiber.base.integration;
 import java.util.Optional;
 
 public class EnvironmentProvider {
+	/**
+	 * The environment, read once as environment variables don't change while the system is running.
+	 */
+	private static final String ENVIRONMENT = Optional.ofNullable(System.getenv("HIBER_ENVIRONMENT")).orElse("undefined");
+
 	/**
 	 * Provides environment that this instance of the system is running within, e.g. staging, production.
 	 *
 	 * @return Environment.
 	 */
 	public static String getEnvironment() {
-		return Optional.ofNullable(System.getenv("HIBER_ENVIRONMENT")).orElse("undefined");
+		return ENVIRONMENT;
 	}
 }
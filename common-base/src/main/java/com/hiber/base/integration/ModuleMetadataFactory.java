@@ -11,19 +11,26 @@ import org.slf4j.LoggerFactory;
 /**
  * Provides metadata about this module.
  * </p>
- * The metadata is read from <code>META-INF/build-info.properties</code> file that is normally generated during build.
+ * The metadata is read from <code>META-INF/build-info.properties</code> file that is normally generated during build. The
+ * file is read once, when the metadata is first requested, and the same metadata is returned afterwards.
  */
 public class ModuleMetadataFactory {
 	private static final Logger logger = LoggerFactory.getLogger(ModuleMetadataFactory.class);
 
+	/**
+	 * @return Metadata of this module.
+	 */
 	public static ModuleMetadata create() {
-		try {
-			Properties properties = new Properties();
-			InputStream in = ModuleMetadataFactory.class.getResourceAsStream("/META-INF/build-info.properties");
+		return ModuleMetadataHolder.MODULE_METADATA;
+	}
+
+	static ModuleMetadata load() {
+		try (InputStream in = ModuleMetadataFactory.class.getResourceAsStream("/META-INF/build-info.properties")) {
 			if (in == null) {
-				logger.warn("Module metadata requested but could not be read: /META-ING/build-info.properties is not available.");
+				logger.warn("Module metadata requested but could not be read: /META-INF/build-info.properties is not available.");
 				return new ModuleMetadata(Optional.empty(), Optional.empty());
 			}
+			Properties properties = new Properties();
 			properties.load(in);
 			return new ModuleMetadata(
 					Optional.ofNullable(properties.getProperty("build.version")),
@@ -36,6 +43,13 @@ public class ModuleMetadataFactory {
 		}
 	}
 
+	/**
+	 * Holds the metadata, loaded by the class loader on first use.
+	 */
+	private static class ModuleMetadataHolder {
+		private static final ModuleMetadata MODULE_METADATA = load();
+	}
+
 	@Value
 	public static class ModuleMetadata {
 		/**
@@ -0,0 +1,35 @@
+package com.hiber.base.integration.aws.sqs;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.cloud.aws.messaging.listener.SqsMessageDeletionPolicy;
+import org.springframework.integration.aws.support.AwsHeaders;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.support.ChannelInterceptor;
+
+/**
+ * Acknowledges (i.e. deletes from a queue) messages that were successfully processed by a channel. Deletion happens in
+ * batches, in the background, through {@link SqsAcknowledgementBuffer}.
+ * <p/>
+ * Used together with {@link SqsMessageDeletionPolicy#NEVER} it gives the same semantics as
+ * {@link SqsMessageDeletionPolicy#ON_SUCCESS}, but it also works when messages are handed over to other threads than the one
+ * that received them from SQS (e.g. by an executor channel). The interceptor should be added to a channel with a synchronous
+ * dispatcher so that sending completes only after the message has been consumed.
+ */
+@RequiredArgsConstructor
+public class AcknowledgeOnSuccessChannelInterceptor implements ChannelInterceptor {
+	/**
+	 * Buffer deleting acknowledged messages.
+	 */
+	private final SqsAcknowledgementBuffer acknowledgementBuffer;
+
+	@Override
+	public void afterSendCompletion(Message<?> message, MessageChannel channel, boolean sent, Exception ex) {
+		if (sent && ex == null) {
+			final String queueUrl = message.getHeaders().get(AwsHeaders.RECEIVED_QUEUE, String.class);
+			final String receiptHandle = message.getHeaders().get(AwsHeaders.RECEIPT_HANDLE, String.class);
+			if (queueUrl != null && receiptHandle != null)
+				acknowledgementBuffer.acknowledge(queueUrl, receiptHandle);
+		}
+	}
+}
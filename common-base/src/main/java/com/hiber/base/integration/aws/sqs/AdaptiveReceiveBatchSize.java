@@ -0,0 +1,150 @@
+package com.hiber.base.integration.aws.sqs;
+
+import com.amazonaws.services.sqs.model.ReceiveMessageRequest;
+import com.amazonaws.services.sqs.model.ReceiveMessageResult;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.util.Assert;
+
+/**
+ * Adapts the number of messages requested by a single poll of a queue to the current load.
+ * <p/>
+ * After every full batch received from the queue (which means the queue is backlogged) the batch grows by one message, up to
+ * {@link #MAX_BATCH_SIZE}. The batch is halved when consumers fall behind, i.e. when the number of in-flight messages reaches
+ * the limit or when the time needed to consume them, estimated from the average processing latency, exceeds the max drain
+ * time.
+ * <p/>
+ * The instance has to observe both sides: it should intercept receive requests of a poller (see
+ * {@link ReceiveInterceptingAmazonSqs}) and it should be added to the executor channel the poller sends messages to, so it
+ * can measure how long consumers take to process a message. In-flight messages are counted on the channel side: a message
+ * is in flight from the moment it is sent to the channel until it has been handled, or until sending it fails. So messages
+ * that were received but never reached the channel (e.g. because the poller was stopped) are not counted.
+ */
+public class AdaptiveReceiveBatchSize implements ReceiveMessageInterceptor, ExecutorChannelInterceptor {
+	/**
+	 * The min number of messages requested by a poll.
+	 */
+	public static final int MIN_BATCH_SIZE = 1;
+
+	/**
+	 * The max number of messages requested by a poll, this is the limit imposed by SQS.
+	 */
+	public static final int MAX_BATCH_SIZE = 10;
+
+	/**
+	 * The weight of the latest processing latency in the moving average.
+	 */
+	private static final double LATENCY_SMOOTHING = 0.2;
+
+	private final int workers;
+	private final int maxInFlight;
+	private final long maxDrainTimeMillis;
+
+	private final AtomicInteger inFlight = new AtomicInteger();
+	private final ThreadLocal<Long> handlingStart = new ThreadLocal<>();
+	private volatile double averageLatencyMillis;
+	private volatile int batchSize;
+
+	/**
+	 * @param initialBatchSize The number of messages requested by the first poll.
+	 * @param workers The number of threads consuming messages.
+	 * @param maxInFlight The max number of messages received and not yet consumed.
+	 * @param maxDrainTimeMillis The max time in milliseconds that consumers may need to process in-flight messages.
+	 */
+	public AdaptiveReceiveBatchSize(
+			final int initialBatchSize,
+			final int workers,
+			final int maxInFlight,
+			final long maxDrainTimeMillis
+	) {
+		Assert.isTrue(workers > 0, "At least one worker is required");
+		Assert.isTrue(maxInFlight > 0, "Max in-flight messages must be positive");
+		this.batchSize = Math.max(MIN_BATCH_SIZE, Math.min(MAX_BATCH_SIZE, initialBatchSize));
+		this.workers = workers;
+		this.maxInFlight = maxInFlight;
+		this.maxDrainTimeMillis = maxDrainTimeMillis;
+	}
+
+	/**
+	 * @return The number of messages that will be requested by the next poll.
+	 */
+	public int getBatchSize() {
+		return batchSize;
+	}
+
+	/**
+	 * @return The number of messages sent to the channel and not yet handled.
+	 */
+	public int getInFlight() {
+		return inFlight.get();
+	}
+
+	@Override
+	public ReceiveMessageRequest beforeReceive(final ReceiveMessageRequest request) {
+		return request.withMaxNumberOfMessages(batchSize);
+	}
+
+	@Override
+	public void afterReceive(final ReceiveMessageRequest request, final ReceiveMessageResult result) {
+		final int received = result.getMessages().size();
+
+		// Received messages are about to be sent to the channel, they count as in flight already.
+		if (isFallingBehind(inFlight.get() + received))
+			batchSize = Math.max(MIN_BATCH_SIZE, batchSize / 2);
+		else if (received >= request.getMaxNumberOfMessages())
+			batchSize = Math.min(MAX_BATCH_SIZE, batchSize + 1);
+	}
+
+	@Override
+	public Message<?> preSend(final Message<?> message, final MessageChannel channel) {
+		inFlight.incrementAndGet();
+		return message;
+	}
+
+	@Override
+	public void afterSendCompletion(
+			final Message<?> message,
+			final MessageChannel channel,
+			final boolean sent,
+			final Exception ex
+	) {
+		// The message was not handed over to a consumer, so it won't be handled.
+		if (!sent || ex != null)
+			inFlight.decrementAndGet();
+	}
+
+	@Override
+	public Message<?> beforeHandle(final Message<?> message, final MessageChannel channel, final MessageHandler handler) {
+		handlingStart.set(System.nanoTime());
+		return message;
+	}
+
+	@Override
+	public void afterMessageHandled(
+			final Message<?> message,
+			final MessageChannel channel,
+			final MessageHandler handler,
+			final Exception ex
+	) {
+		inFlight.decrementAndGet();
+		final Long start = handlingStart.get();
+		if (start != null) {
+			handlingStart.remove();
+			recordLatency(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+		}
+	}
+
+	synchronized void recordLatency(final double latencyMillis) {
+		averageLatencyMillis = averageLatencyMillis == 0
+				? latencyMillis
+				: averageLatencyMillis + LATENCY_SMOOTHING * (latencyMillis - averageLatencyMillis);
+	}
+
+	private boolean isFallingBehind(final int current) {
+		return current >= maxInFlight || averageLatencyMillis * current / workers > maxDrainTimeMillis;
+	}
+}
@@ -0,0 +1,32 @@
+package com.hiber.base.integration.aws.sqs;
+
+/**
+ * Describes how randomness is added to visibility timeouts of the exponential back-off policy, so messages that failed at the
+ * same time (e.g. during an outage of a dependency) don't become visible again at the same time.
+ * <p/>
+ * See https://aws.amazon.com/blogs/architecture/exponential-backoff-and-jitter/ for a comparison of the strategies.
+ */
+public enum BackoffJitter {
+	/**
+	 * No randomness, the timeout is <code>min(cap, min * 2^(attempt - 1))</code>.
+	 */
+	NONE,
+
+	/**
+	 * The timeout is random between 0 and the timeout without jitter. Spreads redeliveries the most, but a message may become
+	 * visible again immediately.
+	 */
+	FULL,
+
+	/**
+	 * The timeout is half of the timeout without jitter plus a random value up to the other half, so a message is never
+	 * redelivered sooner than half of the timeout without jitter.
+	 */
+	EQUAL,
+
+	/**
+	 * The timeout is random between the min timeout and three times the previous timeout, capped. Since SQS does not keep the
+	 * previous timeout of a message, the chain of previous timeouts is re-drawn from the number of attempts.
+	 */
+	DECORRELATED
+}
@@ -0,0 +1,126 @@
+package com.hiber.base.integration.aws.sqs;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Collection;
+import java.util.Collections;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.support.MessageBuilder;
+
+/**
+ * Precompiled changes of headers of messages sent to or received from AWS, shared by the changing headers adapter and
+ * handlers. Headers may be changed from {@link Boolean} to {@link String} values, from {@link String} to {@link Boolean}
+ * values (as SQS and SNS don't handle other types in headers) and removed.
+ * <p/>
+ * When no header needs to be changed the original message is returned, without copying its headers. Otherwise headers are
+ * copied once, for all changes. Every change is counted by the <code>aws_changed_headers</code> metric, tagged with the
+ * header and the kind of the change.
+ */
+public class ChangingHeadersRules {
+	private final String[] booleanToStringHeaders;
+	private final Counter[] booleanToStringCounters;
+	private final String[] stringToBooleanHeaders;
+	private final Counter[] stringToBooleanCounters;
+	private final String[] removeHeaders;
+	private final Counter[] removeCounters;
+
+	/**
+	 * @param booleanToStringHeaders Headers to change from boolean to string values.
+	 * @param stringToBooleanHeaders Headers to change from string to boolean values.
+	 * @param removeHeaders Headers to remove.
+	 * @param meterRegistry The registry of change metrics.
+	 */
+	public ChangingHeadersRules(
+			final Collection<String> booleanToStringHeaders,
+			final Collection<String> stringToBooleanHeaders,
+			final Collection<String> removeHeaders,
+			final MeterRegistry meterRegistry
+	) {
+		this.booleanToStringHeaders = booleanToStringHeaders.toArray(new String[0]);
+		this.booleanToStringCounters = counters(this.booleanToStringHeaders, "boolean_to_string", meterRegistry);
+		this.stringToBooleanHeaders = stringToBooleanHeaders.toArray(new String[0]);
+		this.stringToBooleanCounters = counters(this.stringToBooleanHeaders, "string_to_boolean", meterRegistry);
+		this.removeHeaders = removeHeaders.toArray(new String[0]);
+		this.removeCounters = counters(this.removeHeaders, "remove", meterRegistry);
+	}
+
+	/**
+	 * Creates rules of messages being sent.
+	 *
+	 * @param booleanToStringHeaders Headers to change from boolean to string values.
+	 * @param removeHeaders Headers to remove.
+	 * @param meterRegistry The registry of change metrics.
+	 *
+	 * @return Created rules.
+	 */
+	public static ChangingHeadersRules outbound(
+			final Collection<String> booleanToStringHeaders,
+			final Collection<String> removeHeaders,
+			final MeterRegistry meterRegistry
+	) {
+		return new ChangingHeadersRules(booleanToStringHeaders, Collections.emptyList(), removeHeaders, meterRegistry);
+	}
+
+	/**
+	 * Creates rules of received messages.
+	 *
+	 * @param stringToBooleanHeaders Headers to change from string to boolean values.
+	 * @param meterRegistry The registry of change metrics.
+	 *
+	 * @return Created rules.
+	 */
+	public static ChangingHeadersRules inbound(final Collection<String> stringToBooleanHeaders, final MeterRegistry meterRegistry) {
+		return new ChangingHeadersRules(Collections.emptyList(), stringToBooleanHeaders, Collections.emptyList(), meterRegistry);
+	}
+
+	/**
+	 * Changes headers of a message.
+	 *
+	 * @param message The message.
+	 *
+	 * @return The message with changed headers, or the same message if no header needed to be changed.
+	 */
+	public Message<?> apply(final Message<?> message) {
+		final MessageHeaders headers = message.getHeaders();
+		MessageBuilder<?> builder = null;
+
+		for (int i = 0; i < booleanToStringHeaders.length; i++) {
+			final Object value = headers.get(booleanToStringHeaders[i]);
+			if (value instanceof Boolean) {
+				builder = builder != null ? builder : MessageBuilder.fromMessage(message);
+				builder.setHeader(booleanToStringHeaders[i], value.toString());
+				booleanToStringCounters[i].increment();
+			}
+		}
+		for (int i = 0; i < stringToBooleanHeaders.length; i++) {
+			final Object value = headers.get(stringToBooleanHeaders[i]);
+			if (value instanceof String) {
+				builder = builder != null ? builder : MessageBuilder.fromMessage(message);
+				builder.setHeader(stringToBooleanHeaders[i], Boolean.valueOf((String) value));
+				stringToBooleanCounters[i].increment();
+			}
+		}
+		for (int i = 0; i < removeHeaders.length; i++) {
+			if (headers.containsKey(removeHeaders[i])) {
+				builder = builder != null ? builder : MessageBuilder.fromMessage(message);
+				builder.removeHeader(removeHeaders[i]);
+				removeCounters[i].increment();
+			}
+		}
+
+		return builder != null ? builder.build() : message;
+	}
+
+	private static Counter[] counters(final String[] headers, final String change, final MeterRegistry meterRegistry) {
+		final Counter[] counters = new Counter[headers.length];
+		for (int i = 0; i < headers.length; i++) {
+			counters[i] = Counter.builder("aws_changed_headers")
+					.description("Headers changed in messages sent to or received from AWS")
+					.tag("header", headers[i])
+					.tag("change", change)
+					.register(meterRegistry);
+		}
+		return counters;
+	}
+}
@@ -1,12 +1,11 @@
 package com.hiber.base.integration.aws.sqs;
 
 import com.amazonaws.services.sqs.AmazonSQSAsync;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
 import java.util.Collection;
-import lombok.Setter;
-import lombok.extern.slf4j.Slf4j;
 import org.springframework.integration.aws.outbound.SqsMessageHandler;
 import org.springframework.messaging.Message;
-import org.springframework.messaging.support.MessageBuilder;
 
 /**
  * Handler that additionally change headers of sending messages. This implementation can change header with {@link Boolean}
@@ -14,46 +13,64 @@ import org.springframework.messaging.support.MessageBuilder;
  * (e.g. 'nativeHeaders' in value that uses unsupported type {@link org.springframework.util.LinkedMultiValueMap}).
  * Default collection for changing from boolean to string header is {@link ChangingHeadersDefaults#DEFAULT_BOOLEAN_HEADERS}.
  * Default collection for removing headers is {@link ChangingHeadersDefaults#DEFAULT_REMOVE_HEADERS}.
+ * Changes are made by {@link ChangingHeadersRules}, messages without headers to change are sent as they are.
  *
  * @see SqsMessageHandler
  */
-@Slf4j
 public class ChangingHeadersSqsMessageHandler extends SqsMessageHandler implements ChangingHeadersDefaults {
 	/**
 	 * Collection of headers to change from boolean to string value (as sqs not handling other types in headers).
 	 * Defaults to {@link ChangingHeadersDefaults#DEFAULT_BOOLEAN_HEADERS}.
 	 */
-	@Setter
 	private Collection<String> booleanToStringHeaders = DEFAULT_BOOLEAN_HEADERS;
 
 	/**
 	 * Collection of headers that will be removed from message and will not be send.
 	 * Defaults to {@link ChangingHeadersDefaults#DEFAULT_REMOVE_HEADERS}.
 	 */
-	@Setter
 	private Collection<String> removeHeaders = DEFAULT_REMOVE_HEADERS;
 
+	/**
+	 * The registry of change metrics. Defaults to the global registry.
+	 */
+	private MeterRegistry meterRegistry = Metrics.globalRegistry;
+
+	/**
+	 * Built from the settings above by the first message, so change metrics are registered in the registry that is finally
+	 * set. Reset by setters.
+	 */
+	private volatile ChangingHeadersRules rules;
+
 	public ChangingHeadersSqsMessageHandler(AmazonSQSAsync amazonSqs) {
 		super(amazonSqs);
 	}
 
+	public void setBooleanToStringHeaders(final Collection<String> booleanToStringHeaders) {
+		this.booleanToStringHeaders = booleanToStringHeaders;
+		this.rules = null;
+	}
+
+	public void setRemoveHeaders(final Collection<String> removeHeaders) {
+		this.removeHeaders = removeHeaders;
+		this.rules = null;
+	}
+
+	public void setMeterRegistry(final MeterRegistry meterRegistry) {
+		this.meterRegistry = meterRegistry;
+		this.rules = null;
+	}
+
 	@Override
 	protected void handleMessageInternal(Message<?> message) throws Exception {
-		MessageBuilder<?> messageBuilder = MessageBuilder.fromMessage(message);
-		booleanToStringHeaders.forEach(header -> {
-			if (message.getHeaders().containsKey(header) &&
-					message.getHeaders().get(header) instanceof Boolean) {
-				log.info("Changing '{}' header from Boolean to String", header);
-				Object value = message.getHeaders().get(header);
-				messageBuilder.setHeader(header, value.toString());
-			}
-		});
-		removeHeaders.forEach(header -> {
-			if (message.getHeaders().containsKey(header)) {
-				log.info("Removing '{}' header", header);
-				messageBuilder.removeHeader(header);
-			}
-		});
-		super.handleMessageInternal(messageBuilder.build());
+		super.handleMessageInternal(getRules().apply(message));
+	}
+
+	private ChangingHeadersRules getRules() {
+		ChangingHeadersRules current = rules;
+		if (current == null) {
+			current = ChangingHeadersRules.outbound(booleanToStringHeaders, removeHeaders, meterRegistry);
+			rules = current;
+		}
+		return current;
 	}
 }
@@ -11,17 +11,50 @@ import org.springframework.messaging.support.ChannelInterceptor;
 /**
  * Exponential back-off policy.
  * Visibility timeout calculated on demand.
+ * Randomness may be added to visibility timeouts, see {@link BackoffJitter}.
+ * Visibility changes are sent in batches, in the background, through {@link SqsVisibilityChangeBuffer}.
  */
 public class ExponentialBackoffPolicySqsMessageChannelInterceptor extends VisibilityTimeoutCalculator
 		implements ChannelInterceptor {
-	private final AmazonSQS amazonSQS;
+	private final VisibilityChange visibilityChange;
 
+	public ExponentialBackoffPolicySqsMessageChannelInterceptor(
+			final SqsVisibilityChangeBuffer visibilityChangeBuffer,
+			final SqsBaseSettings sqsBaseSettings
+	) {
+		super(sqsBaseSettings.getExponentialBackOffPolicyMinVisibilityTimeout(), sqsBaseSettings.getMaxSQSVisibilityTimeout());
+		this.visibilityChange = visibilityChangeBuffer::changeVisibility;
+	}
+
+	/**
+	 * Sends every visibility change on its own, synchronously, on the thread of the failed consumer.
+	 *
+	 * @deprecated Use {@link #ExponentialBackoffPolicySqsMessageChannelInterceptor(SqsVisibilityChangeBuffer, SqsBaseSettings)}
+	 * to send visibility changes in batches.
+	 */
+	@Deprecated
 	public ExponentialBackoffPolicySqsMessageChannelInterceptor(
 			final AmazonSQS amazonSQS,
 			final SqsBaseSettings sqsBaseSettings
 	) {
 		super(sqsBaseSettings.getExponentialBackOffPolicyMinVisibilityTimeout(), sqsBaseSettings.getMaxSQSVisibilityTimeout());
-		this.amazonSQS = amazonSQS;
+		this.visibilityChange = amazonSQS::changeMessageVisibility;
+	}
+
+	/**
+	 * @param visibilityChangeBuffer Buffer sending visibility changes.
+	 * @param jitter Randomness added to visibility timeouts.
+	 * @param minVisibilityTimeout Visibility timeout in seconds after the first failed attempt, before jitter is added.
+	 * @param maxVisibilityTimeout The cap of visibility timeouts in seconds.
+	 */
+	public ExponentialBackoffPolicySqsMessageChannelInterceptor(
+			final SqsVisibilityChangeBuffer visibilityChangeBuffer,
+			final BackoffJitter jitter,
+			final int minVisibilityTimeout,
+			final int maxVisibilityTimeout
+	) {
+		super(minVisibilityTimeout, maxVisibilityTimeout, jitter);
+		this.visibilityChange = visibilityChangeBuffer::changeVisibility;
 	}
 
 	@Override
@@ -31,14 +64,25 @@ public class ExponentialBackoffPolicySqsMessageChannelInterceptor extends Visibi
 			final String receiptHandler = getReceiptHandler(message);
 			final Optional<Integer> maybeApproximateReceiveCount = getNumberOfAttempts(message);
 
-			maybeApproximateReceiveCount.ifPresent(approximateReceiveCount -> {
-				final int nextVisibilityTimeout = getNextVisibilityTimeout(approximateReceiveCount);
-
-				amazonSQS.changeMessageVisibility(queueUrl, receiptHandler, nextVisibilityTimeout);
-			});
+			maybeApproximateReceiveCount.ifPresent(approximateReceiveCount ->
+					backOff(queueUrl, receiptHandler, approximateReceiveCount)
+			);
 		}
 	}
 
+	/**
+	 * Delays the next delivery of a message that could not be consumed.
+	 *
+	 * @param queueUrl The URL of the queue the message was received from.
+	 * @param receiptHandle The receipt handle of the message.
+	 * @param approximateReceiveCount The number of times the message has been received so far.
+	 */
+	public void backOff(final String queueUrl, final String receiptHandle, final int approximateReceiveCount) {
+		final int nextVisibilityTimeout = getNextVisibilityTimeout(approximateReceiveCount);
+
+		visibilityChange.change(queueUrl, receiptHandle, nextVisibilityTimeout);
+	}
+
 	private Optional<Integer> getNumberOfAttempts(final Message<?> message) {
 		return Optional.ofNullable(message.getHeaders().get("ApproximateReceiveCount", String.class)).map(Integer::parseInt);
 	}
@@ -51,4 +95,12 @@ public class ExponentialBackoffPolicySqsMessageChannelInterceptor extends Visibi
 		return message.getHeaders().get("aws_receivedQueue", String.class);
 	}
 
+	/**
+	 * Changes the visibility timeout of a received message.
+	 */
+	@FunctionalInterface
+	private interface VisibilityChange {
+		void change(String queueUrl, String receiptHandle, int visibilityTimeout);
+	}
+
 }
\ No newline at end of file
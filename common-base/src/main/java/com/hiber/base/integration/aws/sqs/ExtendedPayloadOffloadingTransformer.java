@@ -0,0 +1,55 @@
+package com.hiber.base.integration.aws.sqs;
+
+import java.nio.charset.StandardCharsets;
+import org.springframework.integration.transformer.AbstractTransformer;
+import org.springframework.messaging.Message;
+
+/**
+ * Moves bodies of messages bigger than a threshold to a {@link SqsPayloadStore}. Such a message is sent to SQS with a
+ * pointer to the stored body as its payload and the size of the body in the
+ * {@link SqsPayloadStore#EXTENDED_PAYLOAD_SIZE_HEADER} header. Smaller messages are passed on unchanged.
+ * <p/>
+ * The transformer expects string payloads (e.g. produced by
+ * {@link com.hiber.base.integration.jackson.Jackson2ObjectToJsonTransformer}) encoded in UTF-8.
+ */
+public class ExtendedPayloadOffloadingTransformer extends AbstractTransformer {
+	/**
+	 * The max number of bytes of a single character encoded in UTF-8 (characters outside of the BMP take 4 bytes, but also
+	 * two chars of a string).
+	 */
+	private static final int MAX_BYTES_PER_CHAR = 3;
+
+	private final SqsPayloadStore payloadStore;
+
+	/**
+	 * Bodies bigger than this number of bytes are stored in the payload store.
+	 */
+	private final int threshold;
+
+	/**
+	 * @param payloadStore The store of bodies of big messages.
+	 * @param threshold Bodies bigger than this number of bytes are stored in the payload store.
+	 */
+	public ExtendedPayloadOffloadingTransformer(final SqsPayloadStore payloadStore, final int threshold) {
+		this.payloadStore = payloadStore;
+		this.threshold = threshold;
+	}
+
+	@Override
+	protected Object doTransform(final Message<?> message) {
+		final String payload = (String) message.getPayload();
+		// Most messages are far below the threshold, they are not encoded just to learn their size.
+		if ((long) payload.length() * MAX_BYTES_PER_CHAR <= threshold)
+			return message;
+
+		final byte[] bytes = payload.getBytes(StandardCharsets.UTF_8);
+		if (bytes.length <= threshold)
+			return message;
+
+		return getMessageBuilderFactory()
+				.withPayload(payloadStore.store(bytes))
+				.copyHeaders(message.getHeaders())
+				.setHeader(SqsPayloadStore.EXTENDED_PAYLOAD_SIZE_HEADER, Integer.toString(bytes.length))
+				.build();
+	}
+}
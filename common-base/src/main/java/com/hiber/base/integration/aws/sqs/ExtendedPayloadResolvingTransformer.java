@@ -0,0 +1,36 @@
+package com.hiber.base.integration.aws.sqs;
+
+import java.io.IOException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.integration.transformer.AbstractTransformer;
+import org.springframework.integration.transformer.MessageTransformationException;
+import org.springframework.messaging.Message;
+
+/**
+ * Replaces the payload of a message sent by {@link ExtendedPayloadOffloadingTransformer} with a stream of the stored body,
+ * so the body can be read by a JSON parser straight from the {@link SqsPayloadStore} instead of being loaded into a string
+ * first. Messages without the {@link SqsPayloadStore#EXTENDED_PAYLOAD_SIZE_HEADER} header are passed on unchanged.
+ * <p/>
+ * The stream is expected to be closed by the next step of a flow, e.g.
+ * {@link com.hiber.base.integration.jackson.Jackson2JsonToObjectTransformer} closes it once the JSON has been read.
+ */
+@RequiredArgsConstructor
+public class ExtendedPayloadResolvingTransformer extends AbstractTransformer {
+	private final SqsPayloadStore payloadStore;
+
+	@Override
+	protected Object doTransform(final Message<?> message) {
+		if (!message.getHeaders().containsKey(SqsPayloadStore.EXTENDED_PAYLOAD_SIZE_HEADER))
+			return message;
+
+		try {
+			return getMessageBuilderFactory()
+					.withPayload(payloadStore.open((String) message.getPayload()))
+					.copyHeaders(message.getHeaders())
+					.build();
+		}
+		catch (IOException e) {
+			throw new MessageTransformationException(message, "Failed to open stored payload", e);
+		}
+	}
+}
@@ -0,0 +1,122 @@
+package com.hiber.base.integration.aws.sqs;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decompresses message bodies with a {@link SqsPayloadCodec} and records the wall-clock time spent decompressing them.
+ * <p/>
+ * Bodies are decompressed lazily, while a JSON parser reads the returned stream, so the time spent in reads of the stream is
+ * summed up and recorded once the stream is closed. It includes reading the compressed body itself, e.g. from the payload
+ * store, but not the time the parser spends between reads.
+ */
+public class PayloadDecoder {
+	private final MeterRegistry meterRegistry;
+
+	/**
+	 * @param meterRegistry The registry of the <code>sqs_payload_decode_wall_time</code> timer.
+	 */
+	public PayloadDecoder(final MeterRegistry meterRegistry) {
+		this.meterRegistry = meterRegistry;
+	}
+
+	/**
+	 * Wraps a compressed message body with a stream decompressing it.
+	 *
+	 * @param codec The codec the body was compressed with.
+	 * @param encoded The stream of the compressed body encoded in base64.
+	 *
+	 * @return The stream of the body.
+	 *
+	 * @throws IOException If the stream could not be read.
+	 */
+	public InputStream decode(final SqsPayloadCodec codec, final InputStream encoded) throws IOException {
+		final long start = System.nanoTime();
+		final InputStream decoded = codec.decode(encoded);
+		return new TimedInputStream(decoded, timer(codec), System.nanoTime() - start);
+	}
+
+	/**
+	 * Wraps a compressed message body with a stream decompressing it.
+	 *
+	 * @param codec The codec the body was compressed with.
+	 * @param encoded The compressed body encoded in base64.
+	 *
+	 * @return The stream of the body.
+	 *
+	 * @throws IOException If the body could not be read.
+	 */
+	public InputStream decode(final SqsPayloadCodec codec, final String encoded) throws IOException {
+		final long start = System.nanoTime();
+		final InputStream decoded = codec.decode(encoded);
+		return new TimedInputStream(decoded, timer(codec), System.nanoTime() - start);
+	}
+
+	private Timer timer(final SqsPayloadCodec codec) {
+		return Timer.builder("sqs_payload_decode_wall_time")
+				.description("Wall-clock time spent reading decompressed message bodies")
+				.tag("codec", codec.name().toLowerCase())
+				.register(meterRegistry);
+	}
+
+	/**
+	 * Sums up the time spent in reads and records it when closed.
+	 */
+	private static class TimedInputStream extends FilterInputStream {
+		private final Timer timer;
+		private long elapsed;
+		private boolean closed;
+
+		TimedInputStream(final InputStream in, final Timer timer, final long elapsed) {
+			super(in);
+			this.timer = timer;
+			this.elapsed = elapsed;
+		}
+
+		@Override
+		public int read() throws IOException {
+			final long start = System.nanoTime();
+			try {
+				return super.read();
+			}
+			finally {
+				elapsed += System.nanoTime() - start;
+			}
+		}
+
+		@Override
+		public int read(final byte[] b, final int off, final int len) throws IOException {
+			final long start = System.nanoTime();
+			try {
+				return super.read(b, off, len);
+			}
+			finally {
+				elapsed += System.nanoTime() - start;
+			}
+		}
+
+		@Override
+		public long skip(final long n) throws IOException {
+			final long start = System.nanoTime();
+			try {
+				return super.skip(n);
+			}
+			finally {
+				elapsed += System.nanoTime() - start;
+			}
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (!closed) {
+				closed = true;
+				timer.record(elapsed, TimeUnit.NANOSECONDS);
+			}
+			super.close();
+		}
+	}
+}
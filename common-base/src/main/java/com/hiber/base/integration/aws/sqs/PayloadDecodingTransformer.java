@@ -0,0 +1,52 @@
+package com.hiber.base.integration.aws.sqs;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.io.InputStream;
+import org.springframework.integration.transformer.AbstractTransformer;
+import org.springframework.integration.transformer.MessageTransformationException;
+import org.springframework.messaging.Message;
+
+/**
+ * Replaces the payload of a message compressed by {@link PayloadEncodingTransformer} with a stream decompressing it, so the
+ * body is decompressed while a JSON parser reads it. Messages without the {@link SqsPayloadCodec#PAYLOAD_CODEC_HEADER} header
+ * are passed on unchanged.
+ * <p/>
+ * Both string payloads and streams (e.g. opened by {@link ExtendedPayloadResolvingTransformer}) are supported. The stream is
+ * expected to be closed by the next step of a flow, e.g. by
+ * {@link com.hiber.base.integration.jackson.Jackson2JsonToObjectTransformer}. Time spent decompressing is recorded by
+ * {@link PayloadDecoder}.
+ */
+public class PayloadDecodingTransformer extends AbstractTransformer {
+	private final PayloadDecoder decoder;
+
+	/**
+	 * @param meterRegistry The registry of decompression metrics.
+	 */
+	public PayloadDecodingTransformer(final MeterRegistry meterRegistry) {
+		this.decoder = new PayloadDecoder(meterRegistry);
+	}
+
+	@Override
+	protected Object doTransform(final Message<?> message) {
+		final String codecName = message.getHeaders().get(SqsPayloadCodec.PAYLOAD_CODEC_HEADER, String.class);
+		if (codecName == null)
+			return message;
+
+		final Object payload = message.getPayload();
+		try {
+			final SqsPayloadCodec codec = SqsPayloadCodec.forHeaderValue(codecName);
+			final InputStream decoded = payload instanceof InputStream
+					? decoder.decode(codec, (InputStream) payload)
+					: decoder.decode(codec, (String) payload);
+
+			return getMessageBuilderFactory()
+					.withPayload(decoded)
+					.copyHeaders(message.getHeaders())
+					.build();
+		}
+		catch (IOException | IllegalArgumentException e) {
+			throw new MessageTransformationException(message, "Failed to decode payload", e);
+		}
+	}
+}
@@ -0,0 +1,70 @@
+package com.hiber.base.integration.aws.sqs;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.springframework.integration.transformer.AbstractTransformer;
+import org.springframework.messaging.Message;
+
+/**
+ * Compresses bodies of messages with a {@link SqsPayloadCodec} and names the codec in the
+ * {@link SqsPayloadCodec#PAYLOAD_CODEC_HEADER} header. Bodies smaller than the min size are passed on unchanged, as the
+ * base64 encoding of such bodies would often make them bigger.
+ * <p/>
+ * The transformer expects string payloads (e.g. produced by
+ * {@link com.hiber.base.integration.jackson.Jackson2ObjectToJsonTransformer}). It records the wall-clock time spent
+ * compressing and the ratio of the size of sent bodies to the size of original bodies, both in UTF-8 bytes.
+ */
+public class PayloadEncodingTransformer extends AbstractTransformer {
+	private final SqsPayloadCodec codec;
+
+	/**
+	 * Bodies smaller than this number of characters are not compressed.
+	 */
+	private final int minSize;
+
+	private final Timer encodeTimer;
+	private final DistributionSummary compressionRatio;
+
+	/**
+	 * @param codec The codec compressing bodies.
+	 * @param minSize Bodies smaller than this number of characters are not compressed.
+	 * @param meterRegistry The registry of compression metrics.
+	 */
+	public PayloadEncodingTransformer(final SqsPayloadCodec codec, final int minSize, final MeterRegistry meterRegistry) {
+		this.codec = codec;
+		this.minSize = minSize;
+		this.encodeTimer = Timer.builder("sqs_payload_encode_wall_time")
+				.description("Wall-clock time spent compressing message bodies")
+				.tag("codec", codec.name().toLowerCase())
+				.register(meterRegistry);
+		this.compressionRatio = DistributionSummary.builder("sqs_payload_compression_ratio")
+				.description("Size of compressed message bodies relative to original bodies")
+				.tag("codec", codec.name().toLowerCase())
+				.scale(100)
+				.baseUnit("percent")
+				.register(meterRegistry);
+	}
+
+	@Override
+	protected Object doTransform(final Message<?> message) {
+		final String payload = (String) message.getPayload();
+		if (payload.length() < minSize)
+			return message;
+
+		final long start = System.nanoTime();
+		final byte[] bytes = payload.getBytes(StandardCharsets.UTF_8);
+		final String encoded = codec.encode(bytes);
+		encodeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+		// The encoded body is base64, so its length in characters equals its length in UTF-8 bytes.
+		compressionRatio.record((double) encoded.length() / bytes.length);
+
+		return getMessageBuilderFactory()
+				.withPayload(encoded)
+				.copyHeaders(message.getHeaders())
+				.setHeader(SqsPayloadCodec.PAYLOAD_CODEC_HEADER, codec.getHeaderValue())
+				.build();
+	}
+}
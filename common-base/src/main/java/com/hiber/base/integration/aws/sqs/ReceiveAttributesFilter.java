@@ -0,0 +1,68 @@
+package com.hiber.base.integration.aws.sqs;
+
+import com.amazonaws.services.sqs.model.MessageSystemAttributeName;
+import com.amazonaws.services.sqs.model.ReceiveMessageRequest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Limits attributes received with messages to the ones a consumer needs, instead of all attributes requested by the poller.
+ * SQS then sends less data, and fewer headers are built for every received message.
+ * <p/>
+ * Names are split into system attributes (e.g. <code>ApproximateReceiveCount</code>, see {@link MessageSystemAttributeName})
+ * and message attributes (e.g. headers of sent messages), so a consumer declares both in a single collection.
+ */
+public class ReceiveAttributesFilter implements ReceiveMessageInterceptor {
+	/**
+	 * Headers of the B3 propagation used by Sleuth to trace messages.
+	 */
+	public static final Set<String> TRACING_ATTRIBUTES = Set.of(
+			"b3",
+			"X-B3-TraceId",
+			"X-B3-SpanId",
+			"X-B3-ParentSpanId",
+			"X-B3-Sampled",
+			"X-B3-Flags"
+	);
+
+	private static final Set<String> SYSTEM_ATTRIBUTES = Arrays.stream(MessageSystemAttributeName.values())
+			.map(MessageSystemAttributeName::toString)
+			.collect(Collectors.toUnmodifiableSet());
+
+	private final List<String> attributeNames = new ArrayList<>();
+	private final List<String> messageAttributeNames = new ArrayList<>();
+
+	/**
+	 * @param names Names of system attributes and message attributes to receive.
+	 */
+	public ReceiveAttributesFilter(final Collection<String> names) {
+		for (final String name : names)
+			(SYSTEM_ATTRIBUTES.contains(name) ? attributeNames : messageAttributeNames).add(name);
+	}
+
+	/**
+	 * @return Names of system attributes to receive.
+	 */
+	public List<String> getAttributeNames() {
+		return Collections.unmodifiableList(attributeNames);
+	}
+
+	/**
+	 * @return Names of message attributes to receive.
+	 */
+	public List<String> getMessageAttributeNames() {
+		return Collections.unmodifiableList(messageAttributeNames);
+	}
+
+	@Override
+	public ReceiveMessageRequest beforeReceive(final ReceiveMessageRequest request) {
+		request.setAttributeNames(attributeNames);
+		request.setMessageAttributeNames(messageAttributeNames);
+		return request;
+	}
+}
@@ -0,0 +1,76 @@
+package com.hiber.base.integration.aws.sqs;
+
+import com.amazonaws.services.sqs.AmazonSQSAsync;
+import com.amazonaws.services.sqs.model.ReceiveMessageRequest;
+import com.amazonaws.services.sqs.model.ReceiveMessageResult;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Decorates a SQS client so synchronous receive requests pass through {@link ReceiveMessageInterceptor}s, in order. All other
+ * calls are delegated to the decorated client unchanged.
+ * <p/>
+ * This is the only way to influence requests made by {@link org.springframework.integration.aws.inbound.SqsMessageDrivenChannelAdapter}
+ * at runtime, as its listener container prepares a single receive request when it is started and reuses it for every poll.
+ */
+@RequiredArgsConstructor
+public class ReceiveInterceptingAmazonSqs implements InvocationHandler {
+	private final AmazonSQSAsync amazonSqs;
+	private final List<ReceiveMessageInterceptor> interceptors;
+
+	/**
+	 * Creates a decorated SQS client.
+	 *
+	 * @param amazonSqs The client to decorate.
+	 * @param interceptor The interceptor applied to receive requests.
+	 *
+	 * @return Decorated client.
+	 */
+	public static AmazonSQSAsync create(final AmazonSQSAsync amazonSqs, final ReceiveMessageInterceptor interceptor) {
+		return create(amazonSqs, List.of(interceptor));
+	}
+
+	/**
+	 * Creates a decorated SQS client.
+	 *
+	 * @param amazonSqs The client to decorate.
+	 * @param interceptors The interceptors applied to receive requests, in order.
+	 *
+	 * @return Decorated client.
+	 */
+	public static AmazonSQSAsync create(final AmazonSQSAsync amazonSqs, final List<ReceiveMessageInterceptor> interceptors) {
+		return (AmazonSQSAsync) Proxy.newProxyInstance(
+				AmazonSQSAsync.class.getClassLoader(),
+				new Class<?>[]{AmazonSQSAsync.class},
+				new ReceiveInterceptingAmazonSqs(amazonSqs, List.copyOf(interceptors))
+		);
+	}
+
+	@Override
+	public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+		if (isReceiveMessage(method, args)) {
+			ReceiveMessageRequest request = ((ReceiveMessageRequest) args[0]).clone();
+			for (final ReceiveMessageInterceptor interceptor : interceptors)
+				request = interceptor.beforeReceive(request);
+			final ReceiveMessageResult result = amazonSqs.receiveMessage(request);
+			for (final ReceiveMessageInterceptor interceptor : interceptors)
+				interceptor.afterReceive(request, result);
+			return result;
+		}
+
+		try {
+			return method.invoke(amazonSqs, args);
+		}
+		catch (InvocationTargetException e) {
+			throw e.getCause();
+		}
+	}
+
+	private static boolean isReceiveMessage(final Method method, final Object[] args) {
+		return "receiveMessage".equals(method.getName()) && args.length == 1 && args[0] instanceof ReceiveMessageRequest;
+	}
+}
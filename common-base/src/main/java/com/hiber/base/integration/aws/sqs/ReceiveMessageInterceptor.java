@@ -0,0 +1,31 @@
+package com.hiber.base.integration.aws.sqs;
+
+import com.amazonaws.services.sqs.model.ReceiveMessageRequest;
+import com.amazonaws.services.sqs.model.ReceiveMessageResult;
+
+/**
+ * Allows to adjust receive requests made by a queue poller and to observe their results.
+ *
+ * @see ReceiveInterceptingAmazonSqs
+ */
+public interface ReceiveMessageInterceptor {
+	/**
+	 * Invoked before messages are received from a queue.
+	 *
+	 * @param request A copy of the request prepared by the poller, it can be freely modified.
+	 *
+	 * @return The request that should be sent to SQS.
+	 */
+	default ReceiveMessageRequest beforeReceive(final ReceiveMessageRequest request) {
+		return request;
+	}
+
+	/**
+	 * Invoked after messages were received from a queue.
+	 *
+	 * @param request The request sent to SQS.
+	 * @param result Received messages.
+	 */
+	default void afterReceive(final ReceiveMessageRequest request, final ReceiveMessageResult result) {
+	}
+}
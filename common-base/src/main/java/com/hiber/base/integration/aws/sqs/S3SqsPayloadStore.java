@@ -0,0 +1,58 @@
+package com.hiber.base.integration.aws.sqs;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.AmazonS3URI;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Stores bodies of SQS messages as objects of a S3 bucket. Pointers are <code>s3://bucket/key</code> URIs.
+ * <p/>
+ * Pointers arrive with messages, so only pointers to objects stored by this store, i.e. within its bucket and key prefix, are
+ * opened. Otherwise whoever can send to a queue could make consumers read any object they have access to.
+ */
+@RequiredArgsConstructor
+public class S3SqsPayloadStore implements SqsPayloadStore {
+	private final AmazonS3 amazonS3;
+
+	/**
+	 * The bucket where bodies are stored.
+	 */
+	private final String bucket;
+
+	/**
+	 * The prefix of keys of stored bodies, e.g. <code>sqs-payloads/</code>.
+	 */
+	private final String keyPrefix;
+
+	@Override
+	public String store(final byte[] payload) {
+		final String key = keyPrefix + UUID.randomUUID() + ".json";
+
+		final ObjectMetadata metadata = new ObjectMetadata();
+		metadata.setContentLength(payload.length);
+		metadata.setContentType("application/json");
+		amazonS3.putObject(bucket, key, new ByteArrayInputStream(payload), metadata);
+
+		return "s3://" + bucket + "/" + key;
+	}
+
+	@Override
+	public InputStream open(final String pointer) throws IOException {
+		final AmazonS3URI uri;
+		try {
+			uri = new AmazonS3URI(pointer);
+		}
+		catch (IllegalArgumentException e) {
+			throw new IOException("Invalid pointer to a stored body: " + pointer, e);
+		}
+		if (!bucket.equals(uri.getBucket()) || uri.getKey() == null || !uri.getKey().startsWith(keyPrefix))
+			throw new IOException("Pointer " + pointer + " is outside of s3://" + bucket + "/" + keyPrefix);
+
+		return amazonS3.getObject(uri.getBucket(), uri.getKey()).getObjectContent();
+	}
+}
@@ -0,0 +1,95 @@
+package com.hiber.base.integration.aws.sqs;
+
+import com.amazonaws.handlers.AsyncHandler;
+import com.amazonaws.services.sqs.AmazonSQSAsync;
+import com.amazonaws.services.sqs.model.DeleteMessageBatchRequest;
+import com.amazonaws.services.sqs.model.DeleteMessageBatchRequestEntry;
+import com.amazonaws.services.sqs.model.DeleteMessageBatchResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Collects receipt handles of consumed messages and deletes them from queues in batches.
+ * <p/>
+ * Handles are buffered per queue and flushed with a single asynchronous <code>DeleteMessageBatch</code> request as soon as
+ * {@link #MAX_BATCH_SIZE} handles of a queue are collected, or when the max delay passes. Consumer threads never wait for
+ * SQS. Remaining handles are flushed when the buffer is destroyed.
+ * <p/>
+ * Messages that could not be deleted will be received again once their visibility timeout passes.
+ */
+@Slf4j
+public class SqsAcknowledgementBuffer extends SqsBatchingBuffer<String> {
+	private final AmazonSQSAsync amazonSqs;
+	private final Timer flushTimer;
+	private final Counter failedCounter;
+
+	/**
+	 * @param amazonSqs The client used to delete messages.
+	 * @param maxDelayMillis The max time in milliseconds a receipt handle waits in the buffer.
+	 * @param meterRegistry The registry of buffer metrics.
+	 */
+	public SqsAcknowledgementBuffer(final AmazonSQSAsync amazonSqs, final long maxDelayMillis, final MeterRegistry meterRegistry) {
+		super("sqs-acknowledgements-", maxDelayMillis);
+		this.amazonSqs = amazonSqs;
+		this.flushTimer = Timer.builder("sqs_acknowledgements_flush")
+				.description("Time of deleting a batch of consumed messages")
+				.register(meterRegistry);
+		this.failedCounter = Counter.builder("sqs_acknowledgements_failed")
+				.description("Consumed messages that could not be deleted")
+				.register(meterRegistry);
+		Gauge.builder("sqs_acknowledgements_pending", this, SqsAcknowledgementBuffer::getPending)
+				.description("Consumed messages waiting to be deleted")
+				.register(meterRegistry);
+	}
+
+	/**
+	 * Schedules deletion of a consumed message.
+	 *
+	 * @param queueUrl The URL of the queue the message was received from.
+	 * @param receiptHandle The receipt handle of the message.
+	 */
+	public void acknowledge(final String queueUrl, final String receiptHandle) {
+		add(queueUrl, receiptHandle);
+	}
+
+	@Override
+	void send(final String queueUrl, final List<String> receiptHandles) {
+		final List<DeleteMessageBatchRequestEntry> entries = IntStream.range(0, receiptHandles.size())
+				.mapToObj(i -> new DeleteMessageBatchRequestEntry(Integer.toString(i), receiptHandles.get(i)))
+				.collect(Collectors.toList());
+		final long start = System.nanoTime();
+
+		final AsyncHandler<DeleteMessageBatchRequest, DeleteMessageBatchResult> handler = new AsyncHandler<>() {
+			@Override
+			public void onError(final Exception exception) {
+				failedCounter.increment(entries.size());
+				log.warn("Deleting {} consumed message(s) from queue {} failed", entries.size(), queueUrl, exception);
+				sent(queueUrl, entries.size());
+			}
+
+			@Override
+			public void onSuccess(final DeleteMessageBatchRequest request, final DeleteMessageBatchResult result) {
+				flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+				if (!result.getFailed().isEmpty()) {
+					failedCounter.increment(result.getFailed().size());
+					log.warn("Deleting consumed messages from queue {} failed: {}", queueUrl, result.getFailed());
+				}
+				sent(queueUrl, entries.size());
+			}
+		};
+		try {
+			amazonSqs.deleteMessageBatchAsync(new DeleteMessageBatchRequest(queueUrl, entries), handler);
+		}
+		catch (RuntimeException e) {
+			// The client may reject a request before sending it, e.g. once its executor has been shut down.
+			handler.onError(e);
+		}
+	}
+}
@@ -0,0 +1,240 @@
+package com.hiber.base.integration.aws.sqs;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+/**
+ * Base class for buffers that collect entries per queue and send them to SQS in batches.
+ * <p/>
+ * A batch of a queue is sent as soon as {@link #MAX_BATCH_SIZE} entries are collected, or when the max delay passes.
+ * Subclasses may limit batches further by {@link #fits(List, Object)}. Remaining entries are sent when the buffer is
+ * destroyed, which waits up to {@link #DEFAULT_DESTROY_TIMEOUT_MILLIS} for requests being sent to complete, so they are not
+ * cut off by the SQS client being shut down next.
+ * <p/>
+ * Batches of queues marked by {@link #isOrdered(String)} are sent one at a time, in the order they were collected: the next
+ * batch waits until the previous one completes, so requests can't overtake each other.
+ *
+ * @param <E> The class of buffered entries.
+ */
+@Slf4j
+abstract class SqsBatchingBuffer<E> implements DisposableBean {
+	/**
+	 * The max number of entries of a single batch request, this is the limit imposed by SQS.
+	 */
+	public static final int MAX_BATCH_SIZE = 10;
+
+	/**
+	 * The default max time in milliseconds to wait for pending entries to be sent when the buffer is destroyed.
+	 */
+	public static final long DEFAULT_DESTROY_TIMEOUT_MILLIS = 10_000;
+
+	private final ConcurrentMap<String, QueueBatches<E>> batches = new ConcurrentHashMap<>();
+	private final AtomicInteger pending = new AtomicInteger();
+	/**
+	 * Notified when no entries are pending anymore.
+	 */
+	private final Object drained = new Object();
+	private final ScheduledExecutorService scheduler;
+	private volatile long destroyTimeoutMillis = DEFAULT_DESTROY_TIMEOUT_MILLIS;
+
+	/**
+	 * @param threadNamePrefix The name prefix of the thread sending batches when the max delay passes.
+	 * @param maxDelayMillis The max time in milliseconds an entry waits in the buffer.
+	 */
+	SqsBatchingBuffer(final String threadNamePrefix, final long maxDelayMillis) {
+		this.scheduler = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory(threadNamePrefix));
+		this.scheduler.scheduleAtFixedRate(this::flush, maxDelayMillis, maxDelayMillis, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Sends all buffered entries. Batches of ordered queues are only queued if a batch of the queue is being sent.
+	 */
+	public void flush() {
+		batches.forEach((queueUrl, queue) -> {
+			final List<E> entries;
+			synchronized (queue) {
+				entries = queue.drain();
+			}
+			if (entries != null)
+				send(queueUrl, entries);
+		});
+	}
+
+	/**
+	 * @return The number of entries buffered or being sent.
+	 */
+	public int getPending() {
+		return pending.get();
+	}
+
+	/**
+	 * @param destroyTimeoutMillis The max time in milliseconds to wait for pending entries to be sent when the buffer is
+	 * destroyed.
+	 */
+	public void setDestroyTimeoutMillis(final long destroyTimeoutMillis) {
+		this.destroyTimeoutMillis = destroyTimeoutMillis;
+	}
+
+	/**
+	 * Sends all buffered entries and waits until all of them are sent, at most the destroy timeout.
+	 */
+	@Override
+	public void destroy() {
+		scheduler.shutdown();
+		flush();
+
+		final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(destroyTimeoutMillis);
+		try {
+			synchronized (drained) {
+				long remaining;
+				while (pending.get() > 0 && (remaining = deadline - System.nanoTime()) > 0)
+					TimeUnit.NANOSECONDS.timedWait(drained, remaining);
+			}
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		if (pending.get() > 0)
+			log.warn("{} entries of {} were not sent before it was destroyed", pending.get(), getClass().getSimpleName());
+	}
+
+	/**
+	 * Adds an entry to the buffer of a queue, sending the buffer if it is full.
+	 *
+	 * @param queueUrl The URL of the queue.
+	 * @param entry The entry.
+	 */
+	void add(final String queueUrl, final E entry) {
+		pending.incrementAndGet();
+
+		final QueueBatches<E> queue = batches.computeIfAbsent(queueUrl, url -> new QueueBatches<>(isOrdered(url)));
+		final List<E> overflown;
+		final List<E> full;
+		synchronized (queue) {
+			overflown = queue.buffer.isEmpty() || fits(queue.buffer, entry) ? null : queue.drain();
+			queue.buffer.add(entry);
+			full = queue.buffer.size() >= MAX_BATCH_SIZE ? queue.drain() : null;
+		}
+		if (overflown != null)
+			send(queueUrl, overflown);
+		if (full != null)
+			send(queueUrl, full);
+	}
+
+	/**
+	 * Checks whether an entry can be added to a batch, called with the batch locked. Batches are limited only by
+	 * {@link #MAX_BATCH_SIZE} by default.
+	 *
+	 * @param batch Entries already buffered, at least one.
+	 * @param entry The entry.
+	 *
+	 * @return <code>false</code> if the batch has to be sent before the entry is added.
+	 */
+	boolean fits(final List<E> batch, final E entry) {
+		return true;
+	}
+
+	/**
+	 * Checks whether batches of a queue have to be sent one at a time, in order. Batches of all queues may be sent
+	 * concurrently by default.
+	 *
+	 * @param queueUrl The URL of the queue.
+	 *
+	 * @return <code>true</code> if a batch of the queue may be sent only once the previous one completes.
+	 */
+	boolean isOrdered(final String queueUrl) {
+		return false;
+	}
+
+	/**
+	 * Sends a batch of entries. Implementations should not block and must call {@link #sent(String, int)} once the batch has
+	 * been sent, whether successfully or not.
+	 *
+	 * @param queueUrl The URL of the queue.
+	 * @param entries Up to {@link #MAX_BATCH_SIZE} entries.
+	 */
+	abstract void send(String queueUrl, List<E> entries);
+
+	/**
+	 * Marks entries of a batch as no longer pending and, for ordered queues, sends the next batch waiting for this one.
+	 *
+	 * @param queueUrl The URL of the queue.
+	 * @param count The number of entries of the batch.
+	 */
+	void sent(final String queueUrl, final int count) {
+		if (pending.addAndGet(-count) == 0) {
+			synchronized (drained) {
+				drained.notifyAll();
+			}
+		}
+
+		final QueueBatches<E> queue = batches.get(queueUrl);
+		final List<E> next;
+		synchronized (queue) {
+			next = queue.next();
+		}
+		if (next != null)
+			send(queueUrl, next);
+	}
+
+	/**
+	 * Entries of a queue collected into the next batch and, for ordered queues, batches waiting for the batch being sent.
+	 * Guarded by its own monitor.
+	 */
+	private static class QueueBatches<E> {
+		private final boolean ordered;
+		private final List<E> buffer = new ArrayList<>(MAX_BATCH_SIZE);
+		private final Deque<List<E>> waiting = new ArrayDeque<>();
+		private boolean sending;
+
+		QueueBatches(final boolean ordered) {
+			this.ordered = ordered;
+		}
+
+		/**
+		 * Turns buffered entries into a batch.
+		 *
+		 * @return The batch to be sent right away, <code>null</code> if there is nothing to send or the batch has to wait.
+		 */
+		List<E> drain() {
+			if (buffer.isEmpty())
+				return null;
+
+			final List<E> batch = new ArrayList<>(buffer);
+			buffer.clear();
+			if (!ordered)
+				return batch;
+			if (sending) {
+				waiting.add(batch);
+				return null;
+			}
+			sending = true;
+			return batch;
+		}
+
+		/**
+		 * Completes sending of a batch.
+		 *
+		 * @return The next batch to be sent, <code>null</code> if none is waiting.
+		 */
+		List<E> next() {
+			if (!ordered)
+				return null;
+
+			final List<E> batch = waiting.poll();
+			sending = batch != null;
+			return batch;
+		}
+	}
+}
@@ -0,0 +1,291 @@
+package com.hiber.base.integration.aws.sqs;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.integration.aws.support.AwsHeaders;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.MessageHandlingException;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.ErrorHandler;
+
+/**
+ * Hands messages received from a FIFO queue over to ordered lanes, each consuming its messages one by one on its own thread.
+ * <p/>
+ * The lane of a message is chosen by the hash of its message group id (the <code>MessageGroupId</code> header), so messages
+ * of a group are always consumed by the same lane, in the order they were received, and never at the same time. Messages of
+ * different groups are consumed in parallel, unless their groups share a lane. Messages without a group id (e.g. received
+ * from a standard queue) are spread over lanes by their ids.
+ * <p/>
+ * Every lane holds a limited number of messages waiting or being consumed. When the lane of a message is full the sender
+ * (the poller of the queue) waits for it instead of consuming the message itself, which would break the order of the group.
+ * The number of messages held by every lane is exposed by the <code>sqs_fifo_lane_depth</code> metric.
+ * <p/>
+ * When consuming of a message fails its exception is passed to the error handler (e.g. publishing it to the
+ * <code>errorChannel</code>) and the lane stops consuming the group of the message: later messages of the group it holds, or
+ * is handed over afterwards, are made visible again instead of being consumed, so none of them is deleted before the failed
+ * message is redelivered. SQS doesn't deliver them again before the failed message, which is in flight until its back-off
+ * ends. The group is resumed once the failed message, or any of the messages made visible again, is redelivered. The number
+ * of messages made visible again is exposed by the <code>sqs_fifo_lane_skipped</code> metric.
+ * <p/>
+ * A failed group is forgotten when none of its messages is redelivered to the lane before the failed group timeout, e.g. the
+ * failed message was received by another instance or moved to a dead letter queue. Every lane remembers at most
+ * {@link #MAX_FAILED_GROUPS_PER_LANE} failed groups, forgetting the oldest failures first.
+ */
+public class SqsFifoLanes implements MessageHandler, DisposableBean {
+	/**
+	 * The header with the message group id, a system attribute of messages received from FIFO queues.
+	 */
+	public static final String MESSAGE_GROUP_ID_HEADER = "MessageGroupId";
+	/**
+	 * The max number of failed groups remembered by a lane.
+	 */
+	public static final int MAX_FAILED_GROUPS_PER_LANE = 10_000;
+
+	private final String queueUrl;
+	private final MessageChannel outputChannel;
+	private final SqsVisibilityChangeBuffer visibilityChangeBuffer;
+	private final ErrorHandler errorHandler;
+	private final List<ExecutorChannelInterceptor> interceptors;
+	private final Lane[] lanes;
+	private final Counter skipped;
+
+	/**
+	 * @param queueUrl The URL of the queue.
+	 * @param name The name of the consumer, used as the prefix of names of lane threads.
+	 * @param lanes The number of lanes.
+	 * @param maxInFlight The max number of messages waiting or being consumed by all lanes, split evenly between them.
+	 * @param outputChannel The channel messages are sent to by lanes.
+	 * @param visibilityChangeBuffer Buffer making messages of failed groups visible again.
+	 * @param failedGroupTimeoutMillis The time after which a failed group is forgotten if none of its messages has been
+	 * redelivered, at least the max visibility timeout of failed messages.
+	 * @param errorHandler The handler of exceptions thrown while consuming messages.
+	 * @param interceptors Interceptors called around handing over and consuming of every message, like interceptors of an
+	 * executor channel.
+	 * @param meterRegistry The registry of lane metrics.
+	 */
+	public SqsFifoLanes(
+			final String queueUrl,
+			final String name,
+			final int lanes,
+			final int maxInFlight,
+			final MessageChannel outputChannel,
+			final SqsVisibilityChangeBuffer visibilityChangeBuffer,
+			final long failedGroupTimeoutMillis,
+			final ErrorHandler errorHandler,
+			final List<ExecutorChannelInterceptor> interceptors,
+			final MeterRegistry meterRegistry
+	) {
+		this.queueUrl = queueUrl;
+		this.outputChannel = outputChannel;
+		this.visibilityChangeBuffer = visibilityChangeBuffer;
+		this.errorHandler = errorHandler;
+		this.interceptors = interceptors;
+		this.lanes = new Lane[lanes];
+		this.skipped = Counter.builder("sqs_fifo_lane_skipped")
+				.description("Messages of failed groups made visible again instead of being consumed")
+				.tag("queue", queueUrl)
+				.register(meterRegistry);
+
+		final int laneCapacity = Math.max(1, maxInFlight / lanes);
+		for (int i = 0; i < lanes; i++) {
+			final Lane lane = new Lane(
+					new CustomizableThreadFactory(name + "-lane-" + i + "-"),
+					laneCapacity,
+					TimeUnit.MILLISECONDS.toNanos(failedGroupTimeoutMillis)
+			);
+			this.lanes[i] = lane;
+			Gauge.builder("sqs_fifo_lane_depth", lane, Lane::getDepth)
+					.description("Messages waiting or being consumed by a lane")
+					.tag("queue", queueUrl)
+					.tag("lane", Integer.toString(i))
+					.register(meterRegistry);
+		}
+	}
+
+	@Override
+	public void handleMessage(final Message<?> message) {
+		Message<?> current = message;
+		for (int i = 0; i < interceptors.size(); i++) {
+			current = interceptors.get(i).preSend(current, null);
+			if (current == null) {
+				afterSendCompletion(message, i, false, null);
+				return;
+			}
+		}
+
+		try {
+			dispatch(current);
+		}
+		catch (MessageHandlingException e) {
+			afterSendCompletion(current, interceptors.size(), false, e);
+			throw e;
+		}
+		afterSendCompletion(current, interceptors.size(), true, null);
+	}
+
+	@Override
+	public void destroy() {
+		for (final Lane lane : lanes)
+			lane.executor.shutdown();
+	}
+
+	private void dispatch(final Message<?> message) {
+		final Object groupId = message.getHeaders().get(MESSAGE_GROUP_ID_HEADER);
+		final Object key = groupId != null ? groupId : message.getHeaders().getId();
+		final Lane lane = lanes[Math.floorMod(key != null ? key.hashCode() : 0, lanes.length)];
+
+		try {
+			lane.permits.acquire();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new MessageHandlingException(message, "Interrupted while waiting for a lane of queue " + queueUrl, e);
+		}
+
+		try {
+			lane.executor.execute(() -> consume(lane, message));
+		}
+		catch (RejectedExecutionException e) {
+			lane.permits.release();
+			throw new MessageHandlingException(message, "Lanes of queue " + queueUrl + " are shut down", e);
+		}
+	}
+
+	/**
+	 * Completes sending of a message to lanes for interceptors that were called before it.
+	 */
+	private void afterSendCompletion(final Message<?> message, final int count, final boolean sent, final Exception ex) {
+		for (int i = count - 1; i >= 0; i--)
+			interceptors.get(i).afterSendCompletion(message, null, sent, ex);
+	}
+
+	private void consume(final Lane lane, final Message<?> message) {
+		final Object groupId = message.getHeaders().get(MESSAGE_GROUP_ID_HEADER);
+		final String messageId = message.getHeaders().get(AwsHeaders.MESSAGE_ID, String.class);
+		Message<?> current = message;
+		Exception exception = null;
+		try {
+			for (final ExecutorChannelInterceptor interceptor : interceptors) {
+				current = interceptor.beforeHandle(current, null, this);
+				if (current == null)
+					return;
+			}
+			if (groupId != null && lane.skip(groupId, messageId)) {
+				final String receiptHandle = message.getHeaders().get(AwsHeaders.RECEIPT_HANDLE, String.class);
+				visibilityChangeBuffer.changeVisibility(queueUrl, receiptHandle, 0);
+				skipped.increment();
+				return;
+			}
+			outputChannel.send(current);
+		}
+		catch (RuntimeException e) {
+			exception = e;
+			if (groupId != null)
+				lane.fail(groupId, messageId);
+			errorHandler.handleError(e instanceof MessagingException
+					? e
+					: new MessageHandlingException(message, "Consuming message from queue " + queueUrl + " failed", e));
+		}
+		finally {
+			for (final ExecutorChannelInterceptor interceptor : interceptors)
+				interceptor.afterMessageHandled(message, null, this, exception);
+			lane.permits.release();
+		}
+	}
+
+	/**
+	 * A single-threaded executor together with the limit of messages it holds and the groups it stopped consuming. The groups
+	 * are only accessed by the thread of the lane.
+	 */
+	private static class Lane {
+		private final ExecutorService executor;
+		private final Semaphore permits;
+		private final int capacity;
+		private final long failedGroupTimeoutNanos;
+		/**
+		 * Failed groups in the order of their failures.
+		 */
+		private final Map<Object, FailedGroup> failedGroups = new LinkedHashMap<>() {
+			@Override
+			protected boolean removeEldestEntry(final Map.Entry<Object, FailedGroup> eldest) {
+				return size() > MAX_FAILED_GROUPS_PER_LANE;
+			}
+		};
+
+		Lane(final CustomizableThreadFactory threadFactory, final int capacity, final long failedGroupTimeoutNanos) {
+			this.executor = Executors.newSingleThreadExecutor(threadFactory);
+			this.permits = new Semaphore(capacity);
+			this.capacity = capacity;
+			this.failedGroupTimeoutNanos = failedGroupTimeoutNanos;
+		}
+
+		int getDepth() {
+			return capacity - permits.availablePermits();
+		}
+
+		void fail(final Object groupId, final String messageId) {
+			final long now = System.nanoTime();
+			final Iterator<FailedGroup> groups = failedGroups.values().iterator();
+			while (groups.hasNext() && groups.next().isExpired(now, failedGroupTimeoutNanos))
+				groups.remove();
+
+			// Removed first, so the group moves to the end of the failure order.
+			failedGroups.remove(groupId);
+			failedGroups.put(groupId, new FailedGroup(messageId, now));
+		}
+
+		/**
+		 * Tells whether a message should be skipped because its group failed, resuming the group once one of its messages
+		 * seen since the failure is redelivered.
+		 */
+		boolean skip(final Object groupId, final String messageId) {
+			final FailedGroup group = failedGroups.get(groupId);
+			if (group == null)
+				return false;
+			if (group.isExpired(System.nanoTime(), failedGroupTimeoutNanos)
+					|| Objects.equals(group.failedMessageId, messageId)
+					|| group.skippedMessageIds.contains(messageId)) {
+				failedGroups.remove(groupId);
+				return false;
+			}
+			group.skippedMessageIds.add(messageId);
+			return true;
+		}
+	}
+
+	/**
+	 * The failed message of a group and messages of the group skipped since.
+	 */
+	private static class FailedGroup {
+		private final String failedMessageId;
+		private final long failedAt;
+		private final Set<String> skippedMessageIds = new HashSet<>();
+
+		FailedGroup(final String failedMessageId, final long failedAt) {
+			this.failedMessageId = failedMessageId;
+			this.failedAt = failedAt;
+		}
+
+		boolean isExpired(final long now, final long timeoutNanos) {
+			return now - failedAt > timeoutNanos;
+		}
+	}
+}
@@ -0,0 +1,129 @@
+package com.hiber.base.integration.aws.sqs;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Codecs compressing bodies of SQS messages. A compressed body is encoded in base64, as SQS accepts only text, and the codec
+ * is named by the {@link #PAYLOAD_CODEC_HEADER} header (a SQS message attribute), so consumers know how to decompress it.
+ *
+ * @see PayloadEncodingTransformer
+ * @see PayloadDecodingTransformer
+ */
+public enum SqsPayloadCodec {
+	/**
+	 * Bodies are sent as they are.
+	 */
+	NONE(null) {
+		@Override
+		public String encode(final byte[] payload) {
+			return new String(payload, StandardCharsets.UTF_8);
+		}
+
+		@Override
+		public InputStream decode(final InputStream encoded) {
+			return encoded;
+		}
+	},
+
+	/**
+	 * Bodies are compressed by gzip.
+	 */
+	GZIP("gzip") {
+		@Override
+		public String encode(final byte[] payload) {
+			final ByteArrayOutputStream bytes = new ByteArrayOutputStream(payload.length / 2);
+			try (OutputStream out = new GZIPOutputStream(Base64.getEncoder().wrap(bytes))) {
+				out.write(payload);
+			}
+			catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			return bytes.toString(StandardCharsets.US_ASCII);
+		}
+
+		@Override
+		public InputStream decode(final InputStream encoded) throws IOException {
+			return new GZIPInputStream(Base64.getDecoder().wrap(encoded));
+		}
+	};
+
+	/**
+	 * The name of a header (a SQS message attribute) naming the codec of a compressed message body.
+	 */
+	public static final String PAYLOAD_CODEC_HEADER = "PayloadCodec";
+
+	/**
+	 * The name of the codec sent in the {@link #PAYLOAD_CODEC_HEADER} header, <code>null</code> if bodies are not compressed.
+	 */
+	private final String headerValue;
+
+	SqsPayloadCodec(final String headerValue) {
+		this.headerValue = headerValue;
+	}
+
+	/**
+	 * @return The name of the codec sent in the {@link #PAYLOAD_CODEC_HEADER} header.
+	 */
+	public String getHeaderValue() {
+		return headerValue;
+	}
+
+	/**
+	 * Compresses a message body.
+	 *
+	 * @param payload The body encoded in UTF-8.
+	 *
+	 * @return The compressed body encoded in base64.
+	 */
+	public abstract String encode(byte[] payload);
+
+	/**
+	 * Wraps a stream of a compressed message body with a stream decompressing it.
+	 *
+	 * @param encoded The stream of the compressed body encoded in base64.
+	 *
+	 * @return The stream of the body.
+	 *
+	 * @throws IOException If the stream could not be read.
+	 */
+	public abstract InputStream decode(InputStream encoded) throws IOException;
+
+	/**
+	 * Wraps a compressed message body with a stream decompressing it.
+	 *
+	 * @param encoded The compressed body encoded in base64.
+	 *
+	 * @return The stream of the body.
+	 *
+	 * @throws IOException If the body could not be read.
+	 */
+	public InputStream decode(final String encoded) throws IOException {
+		return decode(new ByteArrayInputStream(encoded.getBytes(StandardCharsets.UTF_8)));
+	}
+
+	/**
+	 * Finds a codec by the value of the {@link #PAYLOAD_CODEC_HEADER} header.
+	 *
+	 * @param headerValue The value of the header.
+	 *
+	 * @return The codec.
+	 *
+	 * @throws IllegalArgumentException If the codec is not known.
+	 */
+	public static SqsPayloadCodec forHeaderValue(final String headerValue) {
+		for (final SqsPayloadCodec codec : values()) {
+			if (codec.headerValue != null && codec.headerValue.equals(headerValue))
+				return codec;
+		}
+		throw new IllegalArgumentException("Unknown payload codec " + headerValue);
+	}
+}
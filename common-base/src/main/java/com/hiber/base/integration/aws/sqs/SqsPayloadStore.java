@@ -0,0 +1,42 @@
+package com.hiber.base.integration.aws.sqs;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Stores bodies of SQS messages that are too large to be sent through SQS itself (the limit is 256 KB). A message then
+ * carries only a pointer to the stored body and the {@link #EXTENDED_PAYLOAD_SIZE_HEADER} header.
+ * <p/>
+ * Stored bodies are not removed when messages are consumed, as a message may be received more than once. Stores are expected
+ * to expire them instead (e.g. by a lifecycle rule of a S3 bucket) after a time longer than the retention period of queues.
+ *
+ * @see ExtendedPayloadOffloadingTransformer
+ * @see ExtendedPayloadResolvingTransformer
+ */
+public interface SqsPayloadStore {
+	/**
+	 * The name of a header (a SQS message attribute) marking a message whose body is a pointer to a stored body. The value is
+	 * the size of the stored body in bytes.
+	 */
+	String EXTENDED_PAYLOAD_SIZE_HEADER = "ExtendedPayloadSize";
+
+	/**
+	 * Stores a message body.
+	 *
+	 * @param payload The body.
+	 *
+	 * @return A pointer to the stored body, sent to SQS instead of the body.
+	 */
+	String store(byte[] payload);
+
+	/**
+	 * Opens a stored message body for reading. The caller is responsible for closing the stream.
+	 *
+	 * @param pointer A pointer returned by {@link #store(byte[])}.
+	 *
+	 * @return A stream of the stored body.
+	 *
+	 * @throws IOException If the body could not be opened.
+	 */
+	InputStream open(String pointer) throws IOException;
+}
@@ -0,0 +1,51 @@
+package com.hiber.base.integration.aws.sqs;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.integration.aws.support.AwsHeaders;
+import org.springframework.integration.router.AbstractMessageRouter;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+
+/**
+ * Routes messages received from SQS to channels by the URL of the queue they were received from (the
+ * {@link AwsHeaders#RECEIVED_QUEUE} header).
+ * <p/>
+ * Routes are resolved with a single lookup in a map built up-front, without evaluating expressions and without allocating
+ * per message. A message received from a queue without a route is counted by the <code>sqs_router_unknown_queue</code>
+ * metric and rejected with {@link MessageDeliveryException}.
+ */
+public class SqsReceivedQueueRouter extends AbstractMessageRouter {
+	private final Map<String, List<MessageChannel>> routes = new HashMap<>();
+	private final MeterRegistry meterRegistry;
+
+	/**
+	 * @param channels Channels by URLs of queues.
+	 * @param meterRegistry The registry of the unknown queue metric.
+	 */
+	public SqsReceivedQueueRouter(final Map<String, ? extends MessageChannel> channels, final MeterRegistry meterRegistry) {
+		channels.forEach((queueUrl, channel) -> routes.put(queueUrl, Collections.singletonList(channel)));
+		this.meterRegistry = meterRegistry;
+	}
+
+	@Override
+	protected Collection<MessageChannel> determineTargetChannels(final Message<?> message) {
+		final String queueUrl = message.getHeaders().get(AwsHeaders.RECEIVED_QUEUE, String.class);
+		final List<MessageChannel> channels = queueUrl != null ? routes.get(queueUrl) : null;
+		if (channels == null) {
+			Counter.builder("sqs_router_unknown_queue")
+					.description("Messages received from queues without a consumer")
+					.tag("queue", String.valueOf(queueUrl))
+					.register(meterRegistry)
+					.increment();
+			throw new MessageDeliveryException(message, "No consumer of queue " + queueUrl + " in router '" + getComponentName() + "'");
+		}
+		return channels;
+	}
+}
@@ -0,0 +1,194 @@
+package com.hiber.base.integration.aws.sqs;
+
+import com.amazonaws.handlers.AsyncHandler;
+import com.amazonaws.services.sqs.AmazonSQSAsync;
+import com.amazonaws.services.sqs.model.AmazonSQSException;
+import com.amazonaws.services.sqs.model.BatchResultErrorEntry;
+import com.amazonaws.services.sqs.model.MessageAttributeValue;
+import com.amazonaws.services.sqs.model.SendMessageBatchRequest;
+import com.amazonaws.services.sqs.model.SendMessageBatchRequestEntry;
+import com.amazonaws.services.sqs.model.SendMessageBatchResult;
+import com.amazonaws.services.sqs.model.SendMessageBatchResultEntry;
+import com.amazonaws.services.sqs.model.SendMessageResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Collects messages to be sent and sends them to queues in batches.
+ * <p/>
+ * Messages are buffered per queue and sent with a single asynchronous <code>SendMessageBatch</code> request as soon as
+ * {@link #MAX_BATCH_SIZE} messages of a queue are collected, when the next message would make the batch exceed
+ * {@link #MAX_BATCH_BYTES}, or when the linger time passes. Remaining messages are sent when the buffer is destroyed.
+ * <p/>
+ * Every message gets a future completed once SQS confirms or rejects the message, so senders may wait for confirmation when
+ * they need it.
+ * <p/>
+ * Batches of a FIFO queue are sent one at a time, in order, so messages keep the order in which they were enqueued. This
+ * limits the throughput of a FIFO queue to one batch per round trip to SQS.
+ */
+@Slf4j
+public class SqsSendBuffer extends SqsBatchingBuffer<SqsSendBuffer.PendingMessage> {
+	/**
+	 * The max total size in bytes of messages of a single batch request, this is the limit imposed by SQS.
+	 */
+	public static final int MAX_BATCH_BYTES = 256 * 1024;
+
+	private final AmazonSQSAsync amazonSqs;
+	private final Timer sendTimer;
+	private final DistributionSummary batchSize;
+	private final Counter failedCounter;
+
+	/**
+	 * @param amazonSqs The client used to send messages.
+	 * @param lingerMillis The max time in milliseconds a message waits in the buffer.
+	 * @param meterRegistry The registry of buffer metrics.
+	 */
+	public SqsSendBuffer(final AmazonSQSAsync amazonSqs, final long lingerMillis, final MeterRegistry meterRegistry) {
+		super("sqs-send-", lingerMillis);
+		this.amazonSqs = amazonSqs;
+		this.sendTimer = Timer.builder("sqs_send_batch")
+				.description("Time of sending a batch of messages")
+				.register(meterRegistry);
+		this.batchSize = DistributionSummary.builder("sqs_send_batch_size")
+				.description("Number of messages sent by a single batch request")
+				.register(meterRegistry);
+		this.failedCounter = Counter.builder("sqs_send_failed")
+				.description("Messages that could not be sent")
+				.register(meterRegistry);
+		Gauge.builder("sqs_send_pending", this, SqsSendBuffer::getPending)
+				.description("Messages waiting to be sent")
+				.register(meterRegistry);
+	}
+
+	/**
+	 * Schedules sending of a message.
+	 *
+	 * @param queueUrl The URL of the queue.
+	 * @param entry The message, its id is assigned by the buffer.
+	 *
+	 * @return A future completed once the message has been sent, or completed exceptionally if it could not be sent.
+	 */
+	public CompletableFuture<SendMessageResult> enqueue(final String queueUrl, final SendMessageBatchRequestEntry entry) {
+		final PendingMessage message = new PendingMessage(entry);
+		add(queueUrl, message);
+		return message.future;
+	}
+
+	@Override
+	boolean fits(final List<PendingMessage> batch, final PendingMessage message) {
+		int size = message.size;
+		for (final PendingMessage buffered : batch)
+			size += buffered.size;
+		return size <= MAX_BATCH_BYTES;
+	}
+
+	/**
+	 * Batches of FIFO queues are sent one at a time, otherwise concurrent requests could reorder messages of a group.
+	 */
+	@Override
+	boolean isOrdered(final String queueUrl) {
+		return queueUrl.endsWith(".fifo");
+	}
+
+	@Override
+	void send(final String queueUrl, final List<PendingMessage> messages) {
+		final List<SendMessageBatchRequestEntry> entries = IntStream.range(0, messages.size())
+				.mapToObj(i -> messages.get(i).entry.clone().withId(Integer.toString(i)))
+				.collect(Collectors.toList());
+		final long start = System.nanoTime();
+		batchSize.record(entries.size());
+
+		final AsyncHandler<SendMessageBatchRequest, SendMessageBatchResult> handler = new AsyncHandler<>() {
+			@Override
+			public void onError(final Exception exception) {
+				failedCounter.increment(messages.size());
+				log.warn("Sending {} message(s) to queue {} failed", messages.size(), queueUrl, exception);
+				messages.forEach(message -> message.future.completeExceptionally(exception));
+				sent(queueUrl, messages.size());
+			}
+
+			@Override
+			public void onSuccess(final SendMessageBatchRequest request, final SendMessageBatchResult result) {
+				sendTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+				for (final SendMessageBatchResultEntry entry : result.getSuccessful())
+					messages.get(Integer.parseInt(entry.getId())).future.complete(toResult(entry));
+				for (final BatchResultErrorEntry entry : result.getFailed())
+					messages.get(Integer.parseInt(entry.getId())).future.completeExceptionally(toException(entry));
+				if (!result.getFailed().isEmpty()) {
+					failedCounter.increment(result.getFailed().size());
+					log.warn("Sending messages to queue {} failed: {}", queueUrl, result.getFailed());
+				}
+				// Futures of a batch are completed before the next batch of a FIFO queue is sent.
+				sent(queueUrl, messages.size());
+			}
+		};
+		try {
+			amazonSqs.sendMessageBatchAsync(new SendMessageBatchRequest(queueUrl, entries), handler);
+		}
+		catch (RuntimeException e) {
+			// The client may reject a request before sending it, e.g. once its executor has been shut down.
+			handler.onError(e);
+		}
+	}
+
+	private static SendMessageResult toResult(final SendMessageBatchResultEntry entry) {
+		return new SendMessageResult()
+				.withMessageId(entry.getMessageId())
+				.withMD5OfMessageBody(entry.getMD5OfMessageBody())
+				.withMD5OfMessageAttributes(entry.getMD5OfMessageAttributes())
+				.withSequenceNumber(entry.getSequenceNumber());
+	}
+
+	private static AmazonSQSException toException(final BatchResultErrorEntry entry) {
+		final AmazonSQSException exception = new AmazonSQSException(entry.getMessage());
+		exception.setErrorCode(entry.getCode());
+		exception.setErrorType(Boolean.TRUE.equals(entry.getSenderFault())
+				? AmazonSQSException.ErrorType.Client
+				: AmazonSQSException.ErrorType.Service);
+		return exception;
+	}
+
+	/**
+	 * A buffered message together with its future.
+	 */
+	static class PendingMessage {
+		private final SendMessageBatchRequestEntry entry;
+		private final CompletableFuture<SendMessageResult> future = new CompletableFuture<>();
+
+		/**
+		 * The size of the message as counted by SQS, i.e. the body and names, types and values of attributes.
+		 */
+		private final int size;
+
+		PendingMessage(final SendMessageBatchRequestEntry entry) {
+			this.entry = entry;
+			this.size = sizeOf(entry);
+		}
+
+		private static int sizeOf(final SendMessageBatchRequestEntry entry) {
+			int size = utf8Length(entry.getMessageBody());
+			for (final Map.Entry<String, MessageAttributeValue> attribute : entry.getMessageAttributes().entrySet()) {
+				final MessageAttributeValue value = attribute.getValue();
+				size += utf8Length(attribute.getKey()) + utf8Length(value.getDataType()) + utf8Length(value.getStringValue());
+				if (value.getBinaryValue() != null)
+					size += value.getBinaryValue().remaining();
+			}
+			return size;
+		}
+
+		private static int utf8Length(final String value) {
+			return value == null ? 0 : value.getBytes(StandardCharsets.UTF_8).length;
+		}
+	}
+}
@@ -0,0 +1,97 @@
+package com.hiber.base.integration.aws.sqs;
+
+import com.amazonaws.handlers.AsyncHandler;
+import com.amazonaws.services.sqs.AmazonSQSAsync;
+import com.amazonaws.services.sqs.model.ChangeMessageVisibilityBatchRequest;
+import com.amazonaws.services.sqs.model.ChangeMessageVisibilityBatchRequestEntry;
+import com.amazonaws.services.sqs.model.ChangeMessageVisibilityBatchResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Collects visibility changes of messages and sends them to SQS in batches.
+ * <p/>
+ * Changes are buffered per queue and sent with a single asynchronous <code>ChangeMessageVisibilityBatch</code> request as
+ * soon as {@link #MAX_BATCH_SIZE} changes of a queue are collected, or when the max delay passes. Consumer threads never wait
+ * for SQS, which matters most when many messages fail, e.g. during an outage of a dependency.
+ * <p/>
+ * If a change could not be sent the message becomes visible again after the visibility timeout of its queue.
+ */
+@Slf4j
+public class SqsVisibilityChangeBuffer extends SqsBatchingBuffer<ChangeMessageVisibilityBatchRequestEntry> {
+	private final AmazonSQSAsync amazonSqs;
+	private final Counter queuedCounter;
+	private final Counter flushedCounter;
+	private final Counter failedCounter;
+
+	/**
+	 * @param amazonSqs The client used to change visibility of messages.
+	 * @param maxDelayMillis The max time in milliseconds a change waits in the buffer.
+	 * @param meterRegistry The registry of buffer metrics.
+	 */
+	public SqsVisibilityChangeBuffer(final AmazonSQSAsync amazonSqs, final long maxDelayMillis, final MeterRegistry meterRegistry) {
+		super("sqs-visibility-changes-", maxDelayMillis);
+		this.amazonSqs = amazonSqs;
+		this.queuedCounter = Counter.builder("sqs_visibility_changes_queued")
+				.description("Visibility changes queued to be sent")
+				.register(meterRegistry);
+		this.flushedCounter = Counter.builder("sqs_visibility_changes_flushed")
+				.description("Visibility changes sent successfully")
+				.register(meterRegistry);
+		this.failedCounter = Counter.builder("sqs_visibility_changes_failed")
+				.description("Visibility changes that could not be sent")
+				.register(meterRegistry);
+	}
+
+	/**
+	 * Schedules a visibility change of a message.
+	 *
+	 * @param queueUrl The URL of the queue the message was received from.
+	 * @param receiptHandle The receipt handle of the message.
+	 * @param visibilityTimeout New visibility timeout of the message in seconds.
+	 */
+	public void changeVisibility(final String queueUrl, final String receiptHandle, final int visibilityTimeout) {
+		queuedCounter.increment();
+		add(queueUrl, new ChangeMessageVisibilityBatchRequestEntry(null, receiptHandle).withVisibilityTimeout(visibilityTimeout));
+	}
+
+	@Override
+	void send(final String queueUrl, final List<ChangeMessageVisibilityBatchRequestEntry> changes) {
+		final List<ChangeMessageVisibilityBatchRequestEntry> entries = IntStream.range(0, changes.size())
+				.mapToObj(i -> changes.get(i).clone().withId(Integer.toString(i)))
+				.collect(Collectors.toList());
+
+		final AsyncHandler<ChangeMessageVisibilityBatchRequest, ChangeMessageVisibilityBatchResult> handler = new AsyncHandler<>() {
+			@Override
+			public void onError(final Exception exception) {
+				failedCounter.increment(entries.size());
+				log.warn("Changing visibility of {} message(s) from queue {} failed", entries.size(), queueUrl, exception);
+				sent(queueUrl, entries.size());
+			}
+
+			@Override
+			public void onSuccess(
+					final ChangeMessageVisibilityBatchRequest request,
+					final ChangeMessageVisibilityBatchResult result
+			) {
+				flushedCounter.increment(result.getSuccessful().size());
+				if (!result.getFailed().isEmpty()) {
+					failedCounter.increment(result.getFailed().size());
+					log.warn("Changing visibility of messages from queue {} failed: {}", queueUrl, result.getFailed());
+				}
+				sent(queueUrl, entries.size());
+			}
+		};
+		try {
+			amazonSqs.changeMessageVisibilityBatchAsync(new ChangeMessageVisibilityBatchRequest(queueUrl, entries), handler);
+		}
+		catch (RuntimeException e) {
+			// The client may reject a request before sending it, e.g. once its executor has been shut down.
+			handler.onError(e);
+		}
+	}
+}
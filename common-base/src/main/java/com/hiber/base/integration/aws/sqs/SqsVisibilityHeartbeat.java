@@ -0,0 +1,162 @@
+package com.hiber.base.integration.aws.sqs;
+
+import com.amazonaws.handlers.AsyncHandler;
+import com.amazonaws.services.sqs.AmazonSQSAsync;
+import com.amazonaws.services.sqs.model.ChangeMessageVisibilityBatchRequest;
+import com.amazonaws.services.sqs.model.ChangeMessageVisibilityBatchRequestEntry;
+import com.amazonaws.services.sqs.model.ChangeMessageVisibilityBatchResult;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.integration.aws.support.AwsHeaders;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+/**
+ * Keeps messages invisible to other consumers for as long as they are being consumed.
+ * <p/>
+ * Interceptors created by {@link #forQueue(String, int)} track messages sent to a consumer channel. Visibility of a tracked
+ * message is extended with the next tick of the heartbeat after it has been sent, since how much of the visibility timeout
+ * of its queue is left is unknown, and then again every half of the heartbeat visibility timeout. Messages of a queue due
+ * for extension in the same tick are extended with <code>ChangeMessageVisibilityBatch</code> requests. A message stops
+ * being tracked as soon as the consumer channel completes sending it, i.e. once it has been consumed or has failed.
+ * <p/>
+ * Only messages sent to the consumer channel are tracked. Messages received but still waiting for a worker are not
+ * extended, so the visibility timeout of the queue has to cover the time they wait. A failure of a request doesn't stop
+ * the heartbeat, messages it didn't extend are extended again with the next period.
+ */
+@Slf4j
+public class SqsVisibilityHeartbeat implements DisposableBean {
+	/**
+	 * The max number of entries of a single batch request, this is the limit imposed by SQS.
+	 */
+	private static final int MAX_BATCH_SIZE = 10;
+	/**
+	 * The default time between checks for messages due for extension.
+	 */
+	private static final long DEFAULT_TICK_MILLIS = 1000;
+
+	private final AmazonSQSAsync amazonSqs;
+	private final long tickMillis;
+	private final ConcurrentHashMap<String, ConcurrentHashMap<String, Long>> inFlightByQueue = new ConcurrentHashMap<>();
+	private ScheduledExecutorService scheduler;
+
+	public SqsVisibilityHeartbeat(final AmazonSQSAsync amazonSqs) {
+		this(amazonSqs, DEFAULT_TICK_MILLIS);
+	}
+
+	/**
+	 * @param amazonSqs The client used to extend visibility of messages.
+	 * @param tickMillis The time in milliseconds between checks for messages due for extension, this is the max time a
+	 * message waits for its first extension.
+	 */
+	public SqsVisibilityHeartbeat(final AmazonSQSAsync amazonSqs, final long tickMillis) {
+		this.amazonSqs = amazonSqs;
+		this.tickMillis = tickMillis;
+	}
+
+	/**
+	 * Starts heartbeat for a queue.
+	 *
+	 * @param queueUrl The URL of the queue.
+	 * @param visibilityTimeout Visibility timeout in seconds set by each heartbeat.
+	 *
+	 * @return An interceptor that should be added to the channel of the queue consumer.
+	 */
+	public synchronized ChannelInterceptor forQueue(final String queueUrl, final int visibilityTimeout) {
+		// Receipt handles of messages being consumed, mapped to the time of their next extension.
+		final ConcurrentHashMap<String, Long> inFlight = inFlightByQueue.computeIfAbsent(queueUrl, url -> new ConcurrentHashMap<>());
+
+		if (scheduler == null)
+			scheduler = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("sqs-visibility-heartbeat-"));
+		final long period = TimeUnit.SECONDS.toNanos(Math.max(1, visibilityTimeout / 2));
+		scheduler.scheduleAtFixedRate(
+				() -> beat(queueUrl, inFlight, visibilityTimeout, period),
+				tickMillis,
+				tickMillis,
+				TimeUnit.MILLISECONDS
+		);
+
+		return new ChannelInterceptor() {
+			@Override
+			public Message<?> preSend(final Message<?> message, final MessageChannel channel) {
+				final String receiptHandle = message.getHeaders().get(AwsHeaders.RECEIPT_HANDLE, String.class);
+				if (receiptHandle != null)
+					inFlight.put(receiptHandle, System.nanoTime());
+				return message;
+			}
+
+			@Override
+			public void afterSendCompletion(Message<?> message, MessageChannel channel, boolean sent, Exception ex) {
+				final String receiptHandle = message.getHeaders().get(AwsHeaders.RECEIPT_HANDLE, String.class);
+				if (receiptHandle != null)
+					inFlight.remove(receiptHandle);
+			}
+		};
+	}
+
+	@Override
+	public synchronized void destroy() {
+		if (scheduler != null)
+			scheduler.shutdownNow();
+	}
+
+	private void beat(
+			final String queueUrl,
+			final ConcurrentHashMap<String, Long> inFlight,
+			final int visibilityTimeout,
+			final long period
+	) {
+		final long now = System.nanoTime();
+		final List<ChangeMessageVisibilityBatchRequestEntry> entries = new ArrayList<>(MAX_BATCH_SIZE);
+		for (final Map.Entry<String, Long> message : inFlight.entrySet()) {
+			final String receiptHandle = message.getKey();
+			// Skips messages that are not due yet or stopped being tracked in the meantime.
+			if (now - message.getValue() < 0 || !inFlight.replace(receiptHandle, message.getValue(), now + period))
+				continue;
+			entries.add(new ChangeMessageVisibilityBatchRequestEntry(Integer.toString(entries.size()), receiptHandle)
+					.withVisibilityTimeout(visibilityTimeout));
+			if (entries.size() == MAX_BATCH_SIZE) {
+				extend(queueUrl, new ArrayList<>(entries));
+				entries.clear();
+			}
+		}
+		if (!entries.isEmpty())
+			extend(queueUrl, entries);
+	}
+
+	private void extend(final String queueUrl, final List<ChangeMessageVisibilityBatchRequestEntry> entries) {
+		final AsyncHandler<ChangeMessageVisibilityBatchRequest, ChangeMessageVisibilityBatchResult> handler = new AsyncHandler<>() {
+			@Override
+			public void onError(final Exception exception) {
+				log.warn("Extending visibility of {} message(s) from queue {} failed", entries.size(), queueUrl, exception);
+			}
+
+			@Override
+			public void onSuccess(
+					final ChangeMessageVisibilityBatchRequest request,
+					final ChangeMessageVisibilityBatchResult result
+			) {
+				// Failures are expected for messages that were consumed in the meantime.
+				if (!result.getFailed().isEmpty())
+					log.debug("Extending visibility of messages from queue {} failed: {}", queueUrl, result.getFailed());
+			}
+		};
+		try {
+			amazonSqs.changeMessageVisibilityBatchAsync(new ChangeMessageVisibilityBatchRequest(queueUrl, entries), handler);
+		}
+		catch (RuntimeException e) {
+			// The client may reject a request before sending it. An exception escaping the tick would cancel the heartbeat of
+			// the queue for good.
+			handler.onError(e);
+		}
+	}
+}
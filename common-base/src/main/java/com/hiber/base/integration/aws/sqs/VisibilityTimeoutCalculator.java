@@ -1,5 +1,6 @@
 package com.hiber.base.integration.aws.sqs;
 
+import java.util.concurrent.ThreadLocalRandom;
 import lombok.AllArgsConstructor;
 
 @AllArgsConstructor
@@ -15,6 +16,15 @@ class VisibilityTimeoutCalculator {
 	 */
 	private final int maxVisibilityTimeout;
 
+	/**
+	 * Randomness added to calculated visibility timeouts.
+	 */
+	private final BackoffJitter jitter;
+
+	VisibilityTimeoutCalculator(final int minVisibilityTimeout, final int maxVisibilityTimeout) {
+		this(minVisibilityTimeout, maxVisibilityTimeout, BackoffJitter.NONE);
+	}
+
 	/**
 	 * Return visibility timeout depending on number of attempts of consuming message.
 	 *
@@ -23,7 +33,17 @@ class VisibilityTimeoutCalculator {
 	 * @return calculated value of visibility timeout in seconds.
 	 */
 	public int getNextVisibilityTimeout(final int numberOfAttempts) {
-		return exponentialBackoffPolicy(minVisibilityTimeout, numberOfAttempts, maxVisibilityTimeout);
+		switch (jitter) {
+			case FULL:
+				return random(0, exponentialBackoffPolicy(minVisibilityTimeout, numberOfAttempts, maxVisibilityTimeout));
+			case EQUAL:
+				final int timeout = exponentialBackoffPolicy(minVisibilityTimeout, numberOfAttempts, maxVisibilityTimeout);
+				return timeout / 2 + random(0, timeout - timeout / 2);
+			case DECORRELATED:
+				return decorrelatedBackoffPolicy(minVisibilityTimeout, numberOfAttempts, maxVisibilityTimeout);
+			default:
+				return exponentialBackoffPolicy(minVisibilityTimeout, numberOfAttempts, maxVisibilityTimeout);
+		}
 	}
 
 	private int exponentialBackoffPolicy(final int initialInterval, final int numberOfAttempts, final int maxInterval) {
@@ -31,4 +51,18 @@ class VisibilityTimeoutCalculator {
 
 		return (int) Math.min(exponentialBackoffResult, maxInterval);
 	}
+
+	private int decorrelatedBackoffPolicy(final int initialInterval, final int numberOfAttempts, final int maxInterval) {
+		// The distribution of the chain settles after a few dozen steps, no need to go further for messages received many times.
+		final int steps = Math.min(numberOfAttempts, 32);
+		int interval = Math.min(initialInterval, maxInterval);
+		for (int attempt = 1; attempt < steps; attempt++)
+			interval = Math.min(random(initialInterval, (int) Math.min(3L * interval, Integer.MAX_VALUE)), maxInterval);
+
+		return interval;
+	}
+
+	private static int random(final int from, final int to) {
+		return from >= to ? from : ThreadLocalRandom.current().nextInt(from, to + 1);
+	}
 }
@@ -1,18 +1,55 @@
 package com.hiber.base.integration.jackson;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import org.springframework.integration.json.JsonToObjectTransformer;
-import org.springframework.integration.support.json.Jackson2JsonObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import org.springframework.integration.transformer.AbstractTransformer;
+import org.springframework.integration.transformer.MessageTransformationException;
+import org.springframework.messaging.Message;
 
 /**
  * Transforms json string to object using jackson 2.
+ * <p/>
+ * The transformer uses an {@link ObjectReader} created once for the target class, so the type is not resolved for every
+ * message. Apart from strings, payloads of bytes, streams, readers and files are read directly, without an intermediate
+ * string. Unlike {@link org.springframework.integration.json.JsonToObjectTransformer} the target class is not overridden by
+ * JSON type headers of a message.
  */
-public class Jackson2JsonToObjectTransformer extends JsonToObjectTransformer {
+public class Jackson2JsonToObjectTransformer extends AbstractTransformer {
+	/**
+	 * Reader of objects of the target class.
+	 */
+	private final ObjectReader reader;
+
 	/**
 	 * @param targetClass Target class.
 	 * @param objectMapper Jackson object mapper.
 	 */
 	public Jackson2JsonToObjectTransformer(Class<?> targetClass, ObjectMapper objectMapper) {
-		super(targetClass, new Jackson2JsonObjectMapper(objectMapper));
+		this.reader = objectMapper.readerFor(targetClass);
+	}
+
+	@Override
+	protected Object doTransform(final Message<?> message) {
+		final Object payload = message.getPayload();
+		try {
+			if (payload instanceof String)
+				return reader.readValue((String) payload);
+			if (payload instanceof byte[])
+				return reader.readValue((byte[]) payload);
+			if (payload instanceof InputStream)
+				return reader.readValue((InputStream) payload);
+			if (payload instanceof Reader)
+				return reader.readValue((Reader) payload);
+			if (payload instanceof File)
+				return reader.readValue((File) payload);
+		}
+		catch (IOException e) {
+			throw new MessageTransformationException(message, "Failed to read JSON payload", e);
+		}
+		throw new MessageTransformationException(message, "Unsupported JSON payload type " + payload.getClass().getName());
 	}
 }
@@ -1,17 +1,53 @@
 package com.hiber.base.integration.jackson;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import org.springframework.integration.json.ObjectToJsonTransformer;
-import org.springframework.integration.support.json.Jackson2JsonObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.integration.transformer.AbstractTransformer;
+import org.springframework.integration.transformer.MessageTransformationException;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
 
 /**
  * Transforms object to json string using jackson 2.
+ * <p/>
+ * The transformer caches an {@link ObjectWriter} per payload class, so serializers are not looked up for every message.
+ * Just like {@link org.springframework.integration.json.ObjectToJsonTransformer} it sets the content type header, unless a
+ * message has one. JSON type headers are not added, they are not sent to queues anyway.
  */
-public class Jackson2ObjectToJsonTransformer extends ObjectToJsonTransformer {
+public class Jackson2ObjectToJsonTransformer extends AbstractTransformer {
+	/**
+	 * Content type of produced messages.
+	 */
+	private static final String CONTENT_TYPE = "application/json";
+
+	private final ObjectMapper objectMapper;
+	private final Map<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<>();
+
 	/**
 	 * @param objectMapper Jackson object mapper.
 	 */
 	public Jackson2ObjectToJsonTransformer(ObjectMapper objectMapper) {
-		super(new Jackson2JsonObjectMapper(objectMapper));
+		this.objectMapper = objectMapper;
+	}
+
+	@Override
+	protected Object doTransform(final Message<?> message) {
+		final Object payload = message.getPayload();
+		final String json;
+		try {
+			json = writers.computeIfAbsent(payload.getClass(), objectMapper::writerFor).writeValueAsString(payload);
+		}
+		catch (JsonProcessingException e) {
+			throw new MessageTransformationException(message, "Failed to write JSON payload", e);
+		}
+
+		return getMessageBuilderFactory()
+				.withPayload(json)
+				.copyHeaders(message.getHeaders())
+				.setHeaderIfAbsent(MessageHeaders.CONTENT_TYPE, CONTENT_TYPE)
+				.build();
 	}
 }
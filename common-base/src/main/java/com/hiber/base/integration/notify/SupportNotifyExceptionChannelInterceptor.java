@@ -1,16 +1,18 @@
 package com.hiber.base.integration.notify;
 
 import com.hiber.base.domain.Support;
+import java.util.Collection;
+import java.util.List;
 import java.util.Set;
-import lombok.RequiredArgsConstructor;
+import org.springframework.integration.aws.support.AwsHeaders;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHeaders;
 import org.springframework.messaging.support.ChannelInterceptor;
 
 /**
  * Class allows to notify support about queue processing errors.
  */
-@RequiredArgsConstructor
 public class SupportNotifyExceptionChannelInterceptor implements ChannelInterceptor {
 	/**
 	 * Channels that should have additional exception notifying.
@@ -20,18 +22,65 @@ public class SupportNotifyExceptionChannelInterceptor implements ChannelIntercep
 	 * Allows to send notification about error occurred while processing message.
 	 */
 	private final Support support;
+	/**
+	 * The max number of characters of a payload included in the message of a notification.
+	 */
+	private final int maxPayloadLength;
+	/**
+	 * Headers included in the message of a notification, besides the message id and the queue.
+	 */
+	private final Collection<String> headers;
+
+	public SupportNotifyExceptionChannelInterceptor(final Set<MessageChannel> notifyChannels, final Support support) {
+		this(
+				notifyChannels,
+				support,
+				QueueMessageProcessingException.DEFAULT_MAX_PAYLOAD_LENGTH,
+				QueueMessageProcessingException.DEFAULT_HEADERS
+		);
+	}
+
+	public SupportNotifyExceptionChannelInterceptor(
+			final Set<MessageChannel> notifyChannels,
+			final Support support,
+			final int maxPayloadLength,
+			final Collection<String> headers
+	) {
+		this.notifyChannels = notifyChannels;
+		this.support = support;
+		this.maxPayloadLength = maxPayloadLength;
+		this.headers = headers;
+	}
 
 	@Override
 	public void afterSendCompletion(Message<?> message, MessageChannel channel, boolean sent, Exception ex) {
 		if (ex != null && notifyChannels.contains(channel)) {
-			support.notify(new QueueMessageProcessingException(message, ex));
+			support.notify(new QueueMessageProcessingException(message, ex, maxPayloadLength, headers));
 		}
 	}
 
 	/**
 	 * Class that wraps messaging exceptions.
+	 * <p/>
+	 * The exception message describes the message that caused the exception by its id, the queue, selected headers and the
+	 * beginning of its payload. The description is built once, when the exception message is first requested. The text of
+	 * the wrapped exception is truncated like the payload, as messaging exceptions include whole failed messages in it.
 	 */
 	public static class QueueMessageProcessingException extends RuntimeException {
+		/**
+		 * The default max number of characters of a payload included in the exception message.
+		 */
+		public static final int DEFAULT_MAX_PAYLOAD_LENGTH = 1024;
+
+		/**
+		 * Headers included in the exception message by default, besides the message id and the queue.
+		 */
+		public static final List<String> DEFAULT_HEADERS = List.of(
+				"ApproximateReceiveCount",
+				"MessageGroupId",
+				"SentTimestamp"
+		);
+
 		/**
 		 * Exception thrown while processing the queue message.
 		 */
@@ -40,20 +89,81 @@ public class SupportNotifyExceptionChannelInterceptor implements ChannelIntercep
 		 * Message that caused the processing exception.
 		 */
 		private final Message<?> message;
+		/**
+		 * The max number of characters of the payload, and of the text of the wrapped exception, included in the exception
+		 * message.
+		 */
+		private final int maxPayloadLength;
+		/**
+		 * Headers included in the exception message, besides the message id and the queue.
+		 */
+		private final Collection<String> headers;
+		/**
+		 * The exception message, <code>null</code> until first requested.
+		 */
+		private volatile String renderedMessage;
 
 		public QueueMessageProcessingException(Message<?> message, Exception exception) {
+			this(message, exception, DEFAULT_MAX_PAYLOAD_LENGTH, DEFAULT_HEADERS);
+		}
+
+		public QueueMessageProcessingException(
+				final Message<?> message,
+				final Exception exception,
+				final int maxPayloadLength,
+				final Collection<String> headers
+		) {
 			super(exception);
 			this.exception = exception;
 			this.message = message;
+			this.maxPayloadLength = maxPayloadLength;
+			this.headers = headers;
 		}
 
 		@Override
 		public String getMessage() {
-			return String.format(
-					"Queue message processing exception: %s; Message: %s",
-					exception.getMessage(),
-					message.toString()
-			);
+			String rendered = renderedMessage;
+			if (rendered == null) {
+				rendered = render();
+				renderedMessage = rendered;
+			}
+			return rendered;
+		}
+
+		private String render() {
+			final MessageHeaders messageHeaders = message.getHeaders();
+			final StringBuilder builder = new StringBuilder("Queue message processing exception: ");
+			appendTruncated(builder, String.valueOf(exception.getMessage()));
+			builder.append("; Message: id=").append(messageHeaders.get(AwsHeaders.MESSAGE_ID))
+					.append(", queue=").append(messageHeaders.get(AwsHeaders.RECEIVED_QUEUE));
+			for (final String header : headers) {
+				final Object value = messageHeaders.get(header);
+				if (value != null)
+					builder.append(", ").append(header).append('=').append(value);
+			}
+			builder.append(", payload=");
+			appendPayload(builder, message.getPayload());
+			return builder.toString();
+		}
+
+		private void appendPayload(final StringBuilder builder, final Object payload) {
+			if (payload instanceof byte[]) {
+				builder.append("byte[").append(((byte[]) payload).length).append(']');
+				return;
+			}
+
+			appendTruncated(builder, String.valueOf(payload));
+		}
+
+		private void appendTruncated(final StringBuilder builder, final String text) {
+			if (text.length() <= maxPayloadLength) {
+				builder.append(text);
+				return;
+			}
+			builder.append(text, 0, maxPayloadLength)
+					.append("... (")
+					.append(text.length())
+					.append(" characters)");
 		}
 	}
 }
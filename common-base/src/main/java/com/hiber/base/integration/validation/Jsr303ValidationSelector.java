@@ -1,30 +1,111 @@
 package com.hiber.base.integration.validation;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 import javax.validation.ConstraintViolation;
 import javax.validation.ConstraintViolationException;
 import javax.validation.Validator;
-import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
 import org.springframework.integration.core.GenericSelector;
 
 /**
  * Selector that checks if object validates jsr 303 constraints on {@code object}.
+ * <p/>
+ * Whether a class has any constraints is looked up once per class (see
+ * {@link javax.validation.metadata.BeanDescriptor#isBeanConstrained()}), objects of classes without constraints are accepted
+ * without being validated. Validation of other objects is timed by the <code>validation</code> metric.
  */
-@Slf4j
-@RequiredArgsConstructor
 public class Jsr303ValidationSelector implements GenericSelector<Object> {
+	/**
+	 * The max number of violations described in the message of a thrown exception, all violations are still available from
+	 * the exception.
+	 */
+	private static final int MAX_DESCRIBED_VIOLATIONS = 5;
+
 	/**
 	 * Validator used to validate beans.
 	 */
 	private final Validator validator;
 
+	/**
+	 * Validation groups of checked constraints, the default group if empty.
+	 */
+	private final Class<?>[] groups;
+
+	private final Timer timer;
+
+	/**
+	 * Whether classes of validated objects have any constraints.
+	 */
+	private final ConcurrentMap<Class<?>, Boolean> constrained = new ConcurrentHashMap<>();
+
+	public Jsr303ValidationSelector(final Validator validator) {
+		this(validator, null, Set.of(), "default", new SimpleMeterRegistry());
+	}
+
+	/**
+	 * @param validator Validator used to validate beans.
+	 * @param clazz The expected class of objects, looked up up-front, optional.
+	 * @param groups Validation groups of checked constraints, the default group if empty.
+	 * @param name The name of the selector used to tag the validation metric, e.g. the name of a consumer.
+	 * @param meterRegistry The registry of the validation metric.
+	 */
+	public Jsr303ValidationSelector(
+			final Validator validator,
+			final Class<?> clazz,
+			final Collection<Class<?>> groups,
+			final String name,
+			final MeterRegistry meterRegistry
+	) {
+		this.validator = validator;
+		this.groups = groups.toArray(new Class<?>[0]);
+		this.timer = Timer.builder("validation")
+				.description("Validation of objects with constraints")
+				.tag("name", name)
+				.register(meterRegistry);
+		if (clazz != null)
+			isConstrained(clazz);
+	}
+
 	@Override
 	public boolean accept(Object source) {
-		Set<ConstraintViolation<Object>> constraintViolations = validator.validate(source);
+		if (!isConstrained(source.getClass()))
+			return true;
+
+		final long start = System.nanoTime();
+		final Set<ConstraintViolation<Object>> constraintViolations;
+		try {
+			constraintViolations = validator.validate(source, groups);
+		}
+		finally {
+			timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+		}
 		if (!constraintViolations.isEmpty())
-			throw new ConstraintViolationException("Bean validation violations: " + constraintViolations,
-					constraintViolations);
+			throw new ConstraintViolationException(describe(constraintViolations), constraintViolations);
 		return true;
 	}
+
+	private boolean isConstrained(final Class<?> clazz) {
+		return constrained.computeIfAbsent(clazz, c -> validator.getConstraintsForClass(c).isBeanConstrained());
+	}
+
+	private static String describe(final Set<ConstraintViolation<Object>> constraintViolations) {
+		final StringBuilder description = new StringBuilder("Bean validation violations: ");
+		final Iterator<ConstraintViolation<Object>> iterator = constraintViolations.iterator();
+		for (int i = 0; i < MAX_DESCRIBED_VIOLATIONS && iterator.hasNext(); i++) {
+			final ConstraintViolation<Object> violation = iterator.next();
+			if (i > 0)
+				description.append(", ");
+			description.append(violation.getPropertyPath()).append(' ').append(violation.getMessage());
+		}
+		if (constraintViolations.size() > MAX_DESCRIBED_VIOLATIONS)
+			description.append(" and ").append(constraintViolations.size() - MAX_DESCRIBED_VIOLATIONS).append(" more");
+		return description.toString();
+	}
 }
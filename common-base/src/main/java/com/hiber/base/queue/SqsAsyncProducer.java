@@ -0,0 +1,182 @@
+package com.hiber.base.queue;
+
+import com.amazonaws.handlers.AsyncHandler;
+import com.amazonaws.services.sqs.AmazonSQSAsync;
+import com.amazonaws.services.sqs.model.MessageAttributeValue;
+import com.amazonaws.services.sqs.model.SendMessageRequest;
+import com.amazonaws.services.sqs.model.SendMessageResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import org.springframework.integration.transformer.Transformer;
+
+/**
+ * Sends every message to a SQS queue with its own asynchronous request, so senders (e.g. request threads of a web server) don't
+ * wait for SQS, a future of every message is returned instead.
+ * <p/>
+ * The number of messages being sent at the same time is limited by the in-flight window. When the window is full, sending
+ * waits for a message to complete, up to the max wait time, after which the returned future fails with
+ * {@link RejectedExecutionException}. This keeps a slow or unavailable SQS from piling up an unbounded number of requests.
+ * <p/>
+ * Messages of the same message group of a FIFO queue are sent one at a time, in the order they were sent to the producer, as
+ * concurrent requests could reorder them. Messages waiting for their group count towards the in-flight window.
+ */
+public class SqsAsyncProducer extends SqsProducer {
+	private final AmazonSQSAsync amazonSqs;
+	private final int maxInFlight;
+	private final long maxWaitMillis;
+	private final Semaphore window;
+	private final Counter rejectedCounter;
+	private final Gauge inFlightGauge;
+	private final MeterRegistry meterRegistry;
+
+	/**
+	 * Messages waiting for the message of their group being sent, by message group id. A group is present as long as one of
+	 * its messages is being sent.
+	 */
+	private final Map<String, Queue<Runnable>> waitingByGroup = new HashMap<>();
+
+	/**
+	 * @param queueUrl The URL of the queue.
+	 * @param messageGroupId Message group id of messages sent to a FIFO queue, <code>null</code> for standard queues.
+	 * @param fifoKeys Computes ids of messages sent to a FIFO queue from their payloads, <code>null</code> if not used.
+	 * @param transformers Transformers applied to messages before they are sent, in order.
+	 * @param amazonSqs The client used to send messages.
+	 * @param maxInFlight The max number of messages being sent at the same time.
+	 * @param maxWaitMillis The max time in milliseconds sending waits when the in-flight window is full.
+	 * @param meterRegistry The registry of producer metrics and header changes.
+	 */
+	SqsAsyncProducer(
+			final String queueUrl,
+			final String messageGroupId,
+			final SqsFifoKeys<?> fifoKeys,
+			final List<Transformer> transformers,
+			final AmazonSQSAsync amazonSqs,
+			final int maxInFlight,
+			final long maxWaitMillis,
+			final MeterRegistry meterRegistry
+	) {
+		super(queueUrl, messageGroupId, fifoKeys, transformers, meterRegistry);
+		this.amazonSqs = amazonSqs;
+		this.maxInFlight = maxInFlight;
+		this.maxWaitMillis = maxWaitMillis;
+		this.window = new Semaphore(maxInFlight);
+		this.rejectedCounter = Counter.builder("sqs_producer_rejected")
+				.description("Messages rejected because the in-flight window stayed full")
+				.tag("queue", queueUrl)
+				.register(meterRegistry);
+		this.inFlightGauge = Gauge.builder("sqs_producer_in_flight", this, SqsAsyncProducer::getInFlight)
+				.description("Messages being sent")
+				.tag("queue", queueUrl)
+				.register(meterRegistry);
+		this.meterRegistry = meterRegistry;
+	}
+
+	/**
+	 * @return The number of messages being sent.
+	 */
+	public int getInFlight() {
+		return maxInFlight - window.availablePermits();
+	}
+
+	/**
+	 * Removes the in-flight gauge, called once the producer has been evicted by {@link SqsProducerFactory}, so a producer
+	 * created for the queue later registers its own gauge.
+	 */
+	void close() {
+		meterRegistry.remove(inFlightGauge);
+	}
+
+	@Override
+	CompletableFuture<SendMessageResult> send(
+			final String body,
+			final Map<String, MessageAttributeValue> attributes,
+			final String messageGroupId,
+			final String deduplicationId
+	) {
+		try {
+			if (!window.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS)) {
+				rejectedCounter.increment();
+				return CompletableFuture.failedFuture(new RejectedExecutionException(
+						"In-flight window of queue " + getQueueUrl() + " is full"
+				));
+			}
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return CompletableFuture.failedFuture(e);
+		}
+
+		final SendMessageRequest request = new SendMessageRequest(getQueueUrl(), body)
+				.withMessageAttributes(attributes)
+				.withMessageGroupId(messageGroupId)
+				.withMessageDeduplicationId(deduplicationId);
+		final CompletableFuture<SendMessageResult> future = new CompletableFuture<>();
+		if (messageGroupId != null) {
+			synchronized (waitingByGroup) {
+				final Queue<Runnable> waiting = waitingByGroup.get(messageGroupId);
+				if (waiting != null) {
+					waiting.add(() -> sendNow(request, future));
+					return future;
+				}
+				waitingByGroup.put(messageGroupId, new ArrayDeque<>());
+			}
+		}
+		sendNow(request, future);
+		return future;
+	}
+
+	private void sendNow(final SendMessageRequest request, final CompletableFuture<SendMessageResult> future) {
+		try {
+			amazonSqs.sendMessageAsync(request, new AsyncHandler<SendMessageRequest, SendMessageResult>() {
+				@Override
+				public void onError(final Exception exception) {
+					window.release();
+					future.completeExceptionally(exception);
+					sendNext(request.getMessageGroupId());
+				}
+
+				@Override
+				public void onSuccess(final SendMessageRequest request, final SendMessageResult result) {
+					window.release();
+					future.complete(result);
+					sendNext(request.getMessageGroupId());
+				}
+			});
+		}
+		catch (RuntimeException e) {
+			// E.g. the executor of the client rejected the request, the handler won't be called.
+			window.release();
+			future.completeExceptionally(e);
+			sendNext(request.getMessageGroupId());
+		}
+	}
+
+	/**
+	 * Sends the next message waiting for a message of the same group that has just completed.
+	 *
+	 * @param messageGroupId The message group id, <code>null</code> for standard queues.
+	 */
+	private void sendNext(final String messageGroupId) {
+		if (messageGroupId == null)
+			return;
+
+		final Runnable next;
+		synchronized (waitingByGroup) {
+			next = waitingByGroup.get(messageGroupId).poll();
+			if (next == null)
+				waitingByGroup.remove(messageGroupId);
+		}
+		if (next != null)
+			next.run();
+	}
+}
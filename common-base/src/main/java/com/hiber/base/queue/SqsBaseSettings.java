@@ -1,5 +1,9 @@
 package com.hiber.base.queue;
 
+import com.hiber.base.integration.aws.sqs.SqsPayloadCodec;
+import com.hiber.base.integration.notify.SupportNotifyExceptionChannelInterceptor.QueueMessageProcessingException;
+import java.util.ArrayList;
+import java.util.List;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -31,4 +35,97 @@ public class SqsBaseSettings {
 	 * Parameter used in calculations in exponential back-off policy.
 	 */
 	private int exponentialBackOffPolicyMinVisibilityTimeout = 60;
-}
\ No newline at end of file
+
+	/**
+	 * The max number of messages received by a single poll of a queue (1 to 10), used for queue consumers that don't define
+	 * their own value.
+	 */
+	private int maxNumberOfMessages = 2;
+
+	/**
+	 * The max time in milliseconds that consumers of a queue may need to process in-flight messages before the adaptive mode
+	 * starts reducing the number of messages received by a single poll.
+	 */
+	private long adaptiveMaxNumberOfMessagesMaxDrainTime = 5000;
+
+	/**
+	 * The max time in milliseconds a consumed message waits before it is deleted from a queue. Deletes are sent in batches of
+	 * up to 10 messages, a batch is sent earlier once it is full.
+	 */
+	private long acknowledgementMaxDelay = 100;
+
+	/**
+	 * The max time in milliseconds a visibility change made by the exponential back-off policy waits before it is sent to SQS.
+	 * Changes are sent in batches of up to 10 messages, a batch is sent earlier once it is full.
+	 */
+	private long visibilityChangeMaxDelay = 100;
+
+	/**
+	 * Replaces the SQS client with an in-memory stand-in provided by common-test, meant for tests only.
+	 */
+	private boolean inMemory = false;
+
+	/**
+	 * The S3 bucket where producers store bodies of messages bigger than <code>extended-payload-threshold</code>, messages
+	 * then carry only pointers to the stored bodies. If not set then big messages are sent as they are, unless a
+	 * {@link com.hiber.base.integration.aws.sqs.SqsPayloadStore} bean is defined.
+	 */
+	private String extendedPayloadBucket;
+
+	/**
+	 * The prefix of keys of message bodies stored in <code>extended-payload-bucket</code>.
+	 */
+	private String extendedPayloadKeyPrefix = "sqs-payloads/";
+
+	/**
+	 * Bodies of messages bigger than this number of bytes are stored in the payload store. SQS limits the size of a message,
+	 * including its attributes, to 256 KB, so the default leaves room for attributes.
+	 */
+	private int extendedPayloadThreshold = 240 * 1024;
+
+	/**
+	 * The codec compressing bodies of messages sent by producers. Consumers decompress messages whatever this setting is.
+	 */
+	private SqsPayloadCodec payloadCodec = SqsPayloadCodec.NONE;
+
+	/**
+	 * Bodies of messages smaller than this number of characters are not compressed.
+	 */
+	private int payloadCompressionMinSize = 1024;
+
+	/**
+	 * The max time in milliseconds a message sent by a batching producer waits before it is sent to SQS. Messages are sent in
+	 * batches of up to 10 messages and 256 KB, a batch is sent earlier once it is full.
+	 */
+	private long producerBatchLinger = 20;
+
+	/**
+	 * The max number of messages being sent at the same time by a single asynchronous producer.
+	 */
+	private int producerMaxInFlight = 64;
+
+	/**
+	 * The max time in milliseconds an asynchronous producer waits for a message to complete when it already sends
+	 * <code>producer-max-in-flight</code> messages. Sending fails once the time passes.
+	 */
+	private long producerMaxInFlightWait = 1000;
+
+	/**
+	 * The time in milliseconds after which channels and producers created by the producer factory that were not used are
+	 * evicted, i.e. removed from the factory together with integration flows of channels. If <code>0</code> then channels and
+	 * producers are never evicted.
+	 */
+	private long producerIdleTimeout = 0;
+
+	/**
+	 * The max number of characters of the payload of a message that could not be consumed included in a support
+	 * notification.
+	 */
+	private int supportPayloadLength = QueueMessageProcessingException.DEFAULT_MAX_PAYLOAD_LENGTH;
+
+	/**
+	 * Headers of a message that could not be consumed included in a support notification, besides the message id and the
+	 * queue.
+	 */
+	private List<String> supportHeaders = new ArrayList<>(QueueMessageProcessingException.DEFAULT_HEADERS);
+}
@@ -0,0 +1,173 @@
+package com.hiber.base.queue;
+
+import com.amazonaws.services.sqs.AmazonSQS;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hiber.base.domain.Support;
+import com.hiber.base.integration.aws.sqs.SqsPayloadStore;
+import com.hiber.base.integration.aws.sqs.SqsVisibilityChangeBuffer;
+import com.hiber.base.queue.SqsBatchQueueConsumersAutoConfiguration.BatchQueueConsumer;
+import com.hiber.base.queue.SqsQueueConsumersAutoConfiguration.QueueConsumer.BackoffPolicy;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import java.util.Collection;
+import java.util.List;
+import javax.validation.Validator;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Value;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+/**
+ * Auto-configuration that polls SQS queues consumed in batches, i.e. by consumers receiving all messages obtained by a single
+ * poll at once.
+ * <p/>
+ * The auto-configuration is activated by one or more beans of the <code>BatchQueueConsumer</code> class. Just like
+ * {@link SqsQueueConsumersAutoConfiguration} it can be explicitly disabled by setting <code>hiber.sqs.consumer-enabled</code>
+ * to <code>false</code>.
+ * <p/>
+ * Messages of batch consumers don't go through Spring Integration, so they don't obtain its support for metrics and
+ * distributed tracing.
+ */
+@Configuration
+@Import({SqsClientConfiguration.class, SqsConsumerBuffersConfiguration.class, SqsPayloadStoreConfiguration.class})
+@ConditionalOnBean(BatchQueueConsumer.class)
+@EnableConfigurationProperties(SqsBaseSettings.class)
+@ConditionalOnProperty(value = "hiber.sqs.consumer-enabled", havingValue = "true", matchIfMissing = true)
+public class SqsBatchQueueConsumersAutoConfiguration {
+	/**
+	 * Creates a component that will be polling queues of batch consumers.
+	 *
+	 * @param batchQueueConsumers Consumers defining which queues should be polled.
+	 * @param amazonSqs A SQS client.
+	 * @param objectMapper A configured Jackson object mapper instance that will be used to convert JSON to DTO.
+	 * @param validator A configured JSR 303 validator.
+	 * @param support Notified about messages that could not be consumed.
+	 * @param sqsVisibilityChangeBuffer A buffer sending visibility changes of the exponential back-off policy.
+	 * @param sqsPayloadStore The store of bodies of big messages, optional.
+	 * @param meterRegistry A registry of poller metrics.
+	 *
+	 * @return Polling component.
+	 */
+	@Bean
+	public SqsBatchQueuePollers sqsBatchQueuePollers(
+			final List<BatchQueueConsumer<?>> batchQueueConsumers,
+			final AmazonSQS amazonSqs,
+			final ObjectMapper objectMapper,
+			final Validator validator,
+			final Support support,
+			final SqsBaseSettings sqsBaseSettings,
+			final SqsVisibilityChangeBuffer sqsVisibilityChangeBuffer,
+			final ObjectProvider<SqsPayloadStore> sqsPayloadStore,
+			final ObjectProvider<MeterRegistry> meterRegistry
+	) {
+		return new SqsBatchQueuePollers(
+				batchQueueConsumers,
+				amazonSqs,
+				objectMapper,
+				validator,
+				support,
+				sqsBaseSettings,
+				sqsVisibilityChangeBuffer,
+				sqsPayloadStore.getIfAvailable(),
+				meterRegistry.getIfAvailable(() -> Metrics.globalRegistry)
+		);
+	}
+
+	/**
+	 * Describes a SQS queue consumer that receives all messages obtained by a single poll at once.
+	 * <p/>
+	 * Messages that were consumed are deleted from the queue with a single batch request. Messages that could not be
+	 * de-serialised or validated, messages reported by the consumer as failed and all messages of a batch for which the
+	 * consumer thrown an exception are left in the queue and handled by the back-off policy one by one.
+	 *
+	 * @param <T> The class of objects accepted by the consumer.
+	 */
+	@Value
+	@AllArgsConstructor
+	@Builder(toBuilder = true)
+	public static class BatchQueueConsumer<T> {
+		/**
+		 * The URL of the queue available in SQS.
+		 */
+		String url;
+
+		/**
+		 * Provides a consumer for batches of objects that were received from the queue.
+		 */
+		BatchConsumer<T> consumer;
+
+		/**
+		 * The class of objects accepted by the consumer.
+		 */
+		Class<T> clazz;
+
+		/**
+		 * A text representation for the queue, used to name threads polling the queue.
+		 */
+		String name;
+
+		/**
+		 * Back-off strategy that should be applied to messages that could not be consumed.
+		 */
+		@Builder.Default
+		BackoffPolicy backoffPolicy = BackoffPolicy.CONFIGURED;
+
+		/**
+		 * The number of threads polling the queue, each of them consumes its own batches.
+		 */
+		@Builder.Default
+		int workers = 1;
+
+		/**
+		 * The max number of messages received by a single poll of the queue (1 to 10).
+		 */
+		@Builder.Default
+		int maxNumberOfMessages = 10;
+
+		/**
+		 * The cap in seconds of visibility timeouts set by the back-off policy. If not set then
+		 * <code>hiber.sqs.max-sqs-visibility-timeout</code> is used.
+		 */
+		Integer maxBackoffVisibilityTimeout;
+
+		/**
+		 * Validation groups of constraints checked on received objects. If not set then the default group is checked.
+		 */
+		List<Class<?>> validationGroups;
+
+		public BatchQueueConsumer(
+				final String url,
+				final BatchConsumer<T> consumer,
+				final Class<T> clazz,
+				final String name
+		) {
+			this(url, consumer, clazz, name, BackoffPolicy.CONFIGURED, 1, 10, null, null);
+		}
+	}
+
+	/**
+	 * Consumes batches of objects received from a queue.
+	 *
+	 * @param <T> The class of consumed objects.
+	 */
+	@FunctionalInterface
+	public interface BatchConsumer<T> {
+		/**
+		 * Consumes a batch of objects. Throwing an exception means that none of the objects has been consumed.
+		 *
+		 * @param batch Objects received by a single poll, in order of receiving.
+		 *
+		 * @return Objects from the batch that could not be consumed, or an empty collection if all of them were consumed.
+		 * Objects are matched by identity, so they must be the same instances as in the batch, not equal copies. If any
+		 * returned object is not an instance from the batch, none of the batch is considered consumed, as if an exception
+		 * was thrown.
+		 */
+		Collection<T> accept(List<T> batch);
+	}
+}
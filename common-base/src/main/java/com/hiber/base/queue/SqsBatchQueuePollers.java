@@ -0,0 +1,321 @@
+package com.hiber.base.queue;
+
+import com.amazonaws.services.sqs.AmazonSQS;
+import com.amazonaws.services.sqs.model.DeleteMessageBatchRequest;
+import com.amazonaws.services.sqs.model.DeleteMessageBatchRequestEntry;
+import com.amazonaws.services.sqs.model.DeleteMessageBatchResult;
+import com.amazonaws.services.sqs.model.Message;
+import com.amazonaws.services.sqs.model.MessageAttributeValue;
+import com.amazonaws.services.sqs.model.ReceiveMessageRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.hiber.base.domain.Support;
+import com.hiber.base.integration.aws.sqs.ExponentialBackoffPolicySqsMessageChannelInterceptor;
+import com.hiber.base.integration.aws.sqs.PayloadDecoder;
+import com.hiber.base.integration.aws.sqs.SqsPayloadCodec;
+import com.hiber.base.integration.aws.sqs.SqsPayloadStore;
+import com.hiber.base.integration.aws.sqs.SqsVisibilityChangeBuffer;
+import com.hiber.base.integration.notify.SupportNotifyExceptionChannelInterceptor.QueueMessageProcessingException;
+import com.hiber.base.integration.validation.Jsr303ValidationSelector;
+import com.hiber.base.queue.SqsBatchQueueConsumersAutoConfiguration.BatchQueueConsumer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import javax.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.integration.aws.support.AwsHeaders;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+/**
+ * Polls queues of batch consumers. Every worker of a consumer repeatedly receives a batch of messages, de-serialises and
+ * validates them, passes valid objects to the consumer, deletes consumed messages and applies the back-off policy to the
+ * rest.
+ * <p/>
+ * Bodies of messages sent with pointers to a {@link SqsPayloadStore} are streamed from the store into the JSON parser,
+ * compressed bodies (see {@link SqsPayloadCodec}) are decompressed on the way.
+ * <p/>
+ * Consumed messages that could not be deleted will be received and consumed again, they are counted by the
+ * <code>sqs_batch_deletes_failed</code> metric.
+ */
+@Slf4j
+public class SqsBatchQueuePollers implements SmartLifecycle {
+	/**
+	 * Time to wait before polling again after a poll failed, e.g. because SQS was not available.
+	 */
+	private static final long POLL_ERROR_BACKOFF_MILLIS = 10_000;
+
+	private final List<BatchQueueConsumer<?>> consumers;
+	private final AmazonSQS amazonSqs;
+	private final ObjectMapper objectMapper;
+	private final Validator validator;
+	private final Support support;
+	private final SqsBaseSettings sqsBaseSettings;
+	private final SqsVisibilityChangeBuffer visibilityChangeBuffer;
+	private final MeterRegistry meterRegistry;
+
+	/**
+	 * The store of bodies of big messages, <code>null</code> if not available.
+	 */
+	private final SqsPayloadStore payloadStore;
+
+	private final PayloadDecoder payloadDecoder;
+	private final List<ExecutorService> executors = new ArrayList<>();
+	private volatile boolean running;
+
+	public SqsBatchQueuePollers(
+			final List<BatchQueueConsumer<?>> consumers,
+			final AmazonSQS amazonSqs,
+			final ObjectMapper objectMapper,
+			final Validator validator,
+			final Support support,
+			final SqsBaseSettings sqsBaseSettings,
+			final SqsVisibilityChangeBuffer visibilityChangeBuffer,
+			final SqsPayloadStore payloadStore,
+			final MeterRegistry meterRegistry
+	) {
+		this.consumers = consumers;
+		this.amazonSqs = amazonSqs;
+		this.objectMapper = objectMapper;
+		this.validator = validator;
+		this.support = support;
+		this.sqsBaseSettings = sqsBaseSettings;
+		this.visibilityChangeBuffer = visibilityChangeBuffer;
+		this.payloadStore = payloadStore;
+		this.meterRegistry = meterRegistry;
+		this.payloadDecoder = new PayloadDecoder(meterRegistry);
+	}
+
+	@Override
+	public synchronized void start() {
+		if (running)
+			return;
+		running = true;
+
+		for (final BatchQueueConsumer<?> consumer : consumers) {
+			final Jsr303ValidationSelector validationSelector = createValidationSelector(consumer);
+			final ExecutorService executor = Executors.newFixedThreadPool(
+					consumer.getWorkers(),
+					new CustomizableThreadFactory(consumer.getName() + "-")
+			);
+			for (int i = 0; i < consumer.getWorkers(); i++)
+				executor.execute(() -> poll(consumer, validationSelector));
+			executors.add(executor);
+		}
+	}
+
+	@Override
+	public synchronized void stop() {
+		running = false;
+
+		executors.forEach(ExecutorService::shutdown);
+		// A worker may be in the middle of a long poll, give workers of all queues a chance to finish consuming received
+		// messages at the same time.
+		final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(sqsBaseSettings.getWaitTimeOut() + 10);
+		try {
+			for (final ExecutorService executor : executors) {
+				if (!executor.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS))
+					executor.shutdownNow();
+			}
+		}
+		catch (InterruptedException e) {
+			executors.forEach(ExecutorService::shutdownNow);
+			Thread.currentThread().interrupt();
+		}
+		executors.clear();
+	}
+
+	@Override
+	public boolean isRunning() {
+		return running;
+	}
+
+	@Override
+	public boolean isAutoStartup() {
+		return true;
+	}
+
+	@Override
+	public int getPhase() {
+		return Integer.MAX_VALUE;
+	}
+
+	/**
+	 * Creates a selector validating objects received by a consumer against its validation groups, shared by its workers.
+	 */
+	Jsr303ValidationSelector createValidationSelector(final BatchQueueConsumer<?> consumer) {
+		return new Jsr303ValidationSelector(
+				validator,
+				consumer.getClazz(),
+				Optional.ofNullable(consumer.getValidationGroups()).orElse(List.of()),
+				consumer.getName(),
+				meterRegistry
+		);
+	}
+
+	private <T> void poll(final BatchQueueConsumer<T> consumer, final Jsr303ValidationSelector validationSelector) {
+		final ObjectReader reader = objectMapper.readerFor(consumer.getClazz());
+		final ExponentialBackoffPolicySqsMessageChannelInterceptor backoffPolicy = consumer.getBackoffPolicy().createInterceptor(
+				visibilityChangeBuffer,
+				sqsBaseSettings,
+				consumer.getMaxBackoffVisibilityTimeout()
+		);
+
+		while (running) {
+			try {
+				pollOnce(consumer, reader, validationSelector, backoffPolicy);
+			}
+			catch (RuntimeException e) {
+				log.warn("Polling queue {} failed", consumer.getUrl(), e);
+				try {
+					Thread.sleep(POLL_ERROR_BACKOFF_MILLIS);
+				}
+				catch (InterruptedException ie) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+			}
+		}
+	}
+
+	<T> void pollOnce(
+			final BatchQueueConsumer<T> consumer,
+			final ObjectReader reader,
+			final Jsr303ValidationSelector validationSelector,
+			final ExponentialBackoffPolicySqsMessageChannelInterceptor backoffPolicy
+	) {
+		final ReceiveMessageRequest request = new ReceiveMessageRequest(consumer.getUrl())
+				.withMaxNumberOfMessages(consumer.getMaxNumberOfMessages())
+				.withWaitTimeSeconds(sqsBaseSettings.getWaitTimeOut())
+				.withAttributeNames("All")
+				.withMessageAttributeNames("All");
+		final List<Message> messages = amazonSqs.receiveMessage(request).getMessages();
+		if (messages.isEmpty())
+			return;
+
+		final List<Message> valid = new ArrayList<>(messages.size());
+		final List<T> batch = new ArrayList<>(messages.size());
+		final List<Message> failed = new ArrayList<>();
+		for (final Message message : messages) {
+			try {
+				final T item = read(reader, message);
+				validationSelector.accept(item);
+				valid.add(message);
+				batch.add(item);
+			}
+			catch (IOException | RuntimeException e) {
+				notifySupport(consumer, message.getMessageId(), message.getBody(), e);
+				failed.add(message);
+			}
+		}
+
+		final List<Message> consumed = new ArrayList<>(valid.size());
+		if (!batch.isEmpty()) {
+			try {
+				final Set<T> notConsumed = Collections.newSetFromMap(new IdentityHashMap<>());
+				notConsumed.addAll(Optional.ofNullable(consumer.getConsumer().accept(batch)).orElse(Collections.emptyList()));
+				final Set<T> batchItems = Collections.newSetFromMap(new IdentityHashMap<>());
+				batchItems.addAll(batch);
+				if (!batchItems.containsAll(notConsumed))
+					throw new IllegalStateException("Consumer of queue " + consumer.getUrl() + " reported objects that are not "
+							+ "instances from the batch as not consumed, none of the batch is considered consumed");
+				for (int i = 0; i < batch.size(); i++)
+					(notConsumed.contains(batch.get(i)) ? failed : consumed).add(valid.get(i));
+			}
+			catch (RuntimeException e) {
+				notifySupport(consumer, null, batch, e);
+				failed.addAll(valid);
+			}
+		}
+
+		delete(consumer.getUrl(), consumed);
+		if (backoffPolicy != null)
+			failed.forEach(message -> backOff(backoffPolicy, consumer.getUrl(), message));
+	}
+
+	private <T> T read(final ObjectReader reader, final Message message) throws IOException {
+		final boolean extended = payloadStore != null
+				&& message.getMessageAttributes().containsKey(SqsPayloadStore.EXTENDED_PAYLOAD_SIZE_HEADER);
+		final MessageAttributeValue codec = message.getMessageAttributes().get(SqsPayloadCodec.PAYLOAD_CODEC_HEADER);
+		if (!extended && codec == null)
+			return reader.readValue(message.getBody());
+
+		if (codec == null)
+			return reader.readValue(payloadStore.open(message.getBody()));
+
+		final SqsPayloadCodec payloadCodec = SqsPayloadCodec.forHeaderValue(codec.getStringValue());
+		final InputStream body = extended
+				? payloadDecoder.decode(payloadCodec, payloadStore.open(message.getBody()))
+				: payloadDecoder.decode(payloadCodec, message.getBody());
+		return reader.readValue(body);
+	}
+
+	private void delete(final String queueUrl, final List<Message> messages) {
+		if (messages.isEmpty())
+			return;
+
+		final List<DeleteMessageBatchRequestEntry> entries = IntStream.range(0, messages.size())
+				.mapToObj(i -> new DeleteMessageBatchRequestEntry(Integer.toString(i), messages.get(i).getReceiptHandle()))
+				.collect(Collectors.toList());
+		try {
+			final DeleteMessageBatchResult result = amazonSqs.deleteMessageBatch(new DeleteMessageBatchRequest(queueUrl, entries));
+			if (!result.getFailed().isEmpty()) {
+				deletesFailed(queueUrl, result.getFailed().size());
+				log.warn("Deleting {} message(s) from queue {} failed: {}", result.getFailed().size(), queueUrl, result.getFailed());
+			}
+		}
+		catch (RuntimeException e) {
+			deletesFailed(queueUrl, entries.size());
+			log.warn("Deleting {} message(s) from queue {} failed", entries.size(), queueUrl, e);
+		}
+	}
+
+	private void deletesFailed(final String queueUrl, final int count) {
+		Counter.builder("sqs_batch_deletes_failed")
+				.description("Consumed messages that could not be deleted and will be consumed again")
+				.tag("queue", queueUrl)
+				.register(meterRegistry)
+				.increment(count);
+	}
+
+	private void backOff(
+			final ExponentialBackoffPolicySqsMessageChannelInterceptor backoffPolicy,
+			final String queueUrl,
+			final Message message
+	) {
+		Optional.ofNullable(message.getAttributes().get("ApproximateReceiveCount"))
+				.map(Integer::parseInt)
+				.ifPresent(count -> backoffPolicy.backOff(queueUrl, message.getReceiptHandle(), count));
+	}
+
+	private void notifySupport(
+			final BatchQueueConsumer<?> consumer,
+			final String messageId,
+			final Object payload,
+			final Exception exception
+	) {
+		final org.springframework.messaging.Message<?> message = MessageBuilder.withPayload(payload)
+				.setHeader(AwsHeaders.RECEIVED_QUEUE, consumer.getUrl())
+				.setHeader(AwsHeaders.MESSAGE_ID, messageId)
+				.build();
+		support.notify(new QueueMessageProcessingException(
+				message,
+				exception,
+				sqsBaseSettings.getSupportPayloadLength(),
+				sqsBaseSettings.getSupportHeaders()
+		));
+	}
+}
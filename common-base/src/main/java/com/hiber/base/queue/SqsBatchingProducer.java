@@ -0,0 +1,46 @@
+package com.hiber.base.queue;
+
+import com.amazonaws.services.sqs.model.MessageAttributeValue;
+import com.amazonaws.services.sqs.model.SendMessageBatchRequestEntry;
+import com.amazonaws.services.sqs.model.SendMessageResult;
+import com.hiber.base.integration.aws.sqs.SqsSendBuffer;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import org.springframework.integration.transformer.Transformer;
+
+/**
+ * Sends messages to a SQS queue in batches, through a {@link SqsSendBuffer}. Unlike channels created by
+ * {@link SqsProducerFactory#create(String)} sending does not wait for SQS, a future of every message is returned instead.
+ */
+public class SqsBatchingProducer extends SqsProducer {
+	private final SqsSendBuffer sendBuffer;
+
+	SqsBatchingProducer(
+			final String queueUrl,
+			final String messageGroupId,
+			final SqsFifoKeys<?> fifoKeys,
+			final List<Transformer> transformers,
+			final SqsSendBuffer sendBuffer,
+			final MeterRegistry meterRegistry
+	) {
+		super(queueUrl, messageGroupId, fifoKeys, transformers, meterRegistry);
+		this.sendBuffer = sendBuffer;
+	}
+
+	@Override
+	CompletableFuture<SendMessageResult> send(
+			final String body,
+			final Map<String, MessageAttributeValue> attributes,
+			final String messageGroupId,
+			final String deduplicationId
+	) {
+		final SendMessageBatchRequestEntry entry = new SendMessageBatchRequestEntry()
+				.withMessageBody(body)
+				.withMessageAttributes(attributes)
+				.withMessageGroupId(messageGroupId)
+				.withMessageDeduplicationId(deduplicationId);
+		return sendBuffer.enqueue(getQueueUrl(), entry);
+	}
+}
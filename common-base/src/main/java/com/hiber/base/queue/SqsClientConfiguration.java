@@ -3,6 +3,7 @@ package com.hiber.base.queue;
 import com.amazonaws.auth.AWSCredentialsProvider;
 import com.amazonaws.services.sqs.AmazonSQSAsyncClient;
 import com.amazonaws.services.sqs.buffered.AmazonSQSBufferedAsyncClient;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.cloud.aws.core.config.AmazonWebserviceClientFactoryBean;
 import org.springframework.cloud.aws.core.region.RegionProvider;
 import org.springframework.context.annotation.Bean;
@@ -18,11 +19,15 @@ import org.springframework.context.annotation.Primary;
  * plays nicely with the synchronous mode (see {@link org.springframework.integration.aws.outbound.SqsMessageHandler#setSync(boolean)}.
  * When the synchronous mode is enabled then that buffering client won't have a chance to batch messages and will incur a fixed
  * (200 ms by default) delay per each message.
+ *
+ * The client is not created when <code>hiber.sqs.in-memory</code> is set to <code>true</code>, then an in-memory stand-in
+ * (<code>com.hiber.test.sqs.InMemoryAmazonSqs</code> from common-test) is expected to be provided instead.
  */
 @Configuration
 public class SqsClientConfiguration {
 	@Lazy
 	@Primary
+	@ConditionalOnProperty(value = "hiber.sqs.in-memory", havingValue = "false", matchIfMissing = true)
 	@Bean(destroyMethod = "shutdown")
 	public AmazonSQSAsyncClient nonBufferedAmazonSqs(
 			final AWSCredentialsProvider awsCredentialsProvider,
@@ -0,0 +1,64 @@
+package com.hiber.base.queue;
+
+import com.amazonaws.services.sqs.AmazonSQSAsync;
+import com.hiber.base.integration.aws.sqs.SqsAcknowledgementBuffer;
+import com.hiber.base.integration.aws.sqs.SqsVisibilityChangeBuffer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Provides buffers that send requests made on behalf of queue consumers (deletes and visibility changes) in batches, in the
+ * background. Shared by {@link SqsQueueConsumersAutoConfiguration} and {@link SqsBatchQueueConsumersAutoConfiguration}.
+ * <p/>
+ * Buffer metrics are registered in the application's {@link MeterRegistry}. Without one they go to
+ * {@link Metrics#globalRegistry}, which only exports them once a registry is added to it.
+ */
+@Configuration
+public class SqsConsumerBuffersConfiguration {
+	/**
+	 * Creates a buffer that deletes consumed messages from SQS queues in batches, so consumers don't wait for a delete request
+	 * per message. A batch is sent as soon as it is full or after <code>hiber.sqs.acknowledgement-max-delay</code>.
+	 *
+	 * @param amazonSqs A SQS client.
+	 * @param meterRegistry A registry of metrics describing pending and flushed acknowledgements.
+	 *
+	 * @return Acknowledgements buffer.
+	 */
+	@Bean
+	public SqsAcknowledgementBuffer sqsAcknowledgementBuffer(
+			final AmazonSQSAsync amazonSqs,
+			final SqsBaseSettings sqsBaseSettings,
+			final ObjectProvider<MeterRegistry> meterRegistry
+	) {
+		return new SqsAcknowledgementBuffer(
+				amazonSqs,
+				sqsBaseSettings.getAcknowledgementMaxDelay(),
+				meterRegistry.getIfAvailable(() -> Metrics.globalRegistry)
+		);
+	}
+
+	/**
+	 * Creates a buffer that changes visibility of messages that could not be consumed in batches, so consumers don't wait for
+	 * SQS when backing off. A batch is sent as soon as it is full or after <code>hiber.sqs.visibility-change-max-delay</code>.
+	 *
+	 * @param amazonSqs A SQS client.
+	 * @param meterRegistry A registry of metrics describing queued, flushed and failed visibility changes.
+	 *
+	 * @return Visibility changes buffer.
+	 */
+	@Bean
+	public SqsVisibilityChangeBuffer sqsVisibilityChangeBuffer(
+			final AmazonSQSAsync amazonSqs,
+			final SqsBaseSettings sqsBaseSettings,
+			final ObjectProvider<MeterRegistry> meterRegistry
+	) {
+		return new SqsVisibilityChangeBuffer(
+				amazonSqs,
+				sqsBaseSettings.getVisibilityChangeMaxDelay(),
+				meterRegistry.getIfAvailable(() -> Metrics.globalRegistry)
+		);
+	}
+}
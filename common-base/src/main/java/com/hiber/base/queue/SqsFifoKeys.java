@@ -0,0 +1,82 @@
+package com.hiber.base.queue;
+
+import java.util.function.Function;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+/**
+ * Computes the message group id and the deduplication id of every message sent to a FIFO queue from its payload. Unlike a
+ * single message group id of a producer, this lets consumers process messages of different groups (e.g. of different
+ * devices) in parallel, while messages of a group stay ordered.
+ * <p/>
+ * Producers are reused by {@link SqsProducerFactory} only for equal keys, i.e. for the same functions, so keys should be
+ * kept in constants rather than created for every call.
+ *
+ * @param <T> The class of payloads.
+ */
+@Value
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class SqsFifoKeys<T> {
+	/**
+	 * Computes the message group id of a payload.
+	 */
+	Function<? super T, String> messageGroupId;
+
+	/**
+	 * Computes the deduplication id of a payload, <code>null</code> if the queue uses content-based deduplication.
+	 */
+	Function<? super T, String> deduplicationId;
+
+	/**
+	 * Creates keys of a queue with content-based deduplication.
+	 *
+	 * @param messageGroupId Computes the message group id of a payload.
+	 * @param <T> The class of payloads.
+	 *
+	 * @return Created keys.
+	 */
+	public static <T> SqsFifoKeys<T> of(final Function<? super T, String> messageGroupId) {
+		return new SqsFifoKeys<>(messageGroupId, null);
+	}
+
+	/**
+	 * Creates keys.
+	 *
+	 * @param messageGroupId Computes the message group id of a payload.
+	 * @param deduplicationId Computes the deduplication id of a payload.
+	 * @param <T> The class of payloads.
+	 *
+	 * @return Created keys.
+	 */
+	public static <T> SqsFifoKeys<T> of(
+			final Function<? super T, String> messageGroupId,
+			final Function<? super T, String> deduplicationId
+	) {
+		return new SqsFifoKeys<>(messageGroupId, deduplicationId);
+	}
+
+	/**
+	 * @param payload A payload of a message.
+	 *
+	 * @return The message group id of the payload.
+	 *
+	 * @throws ClassCastException If the payload is not of the expected class.
+	 */
+	@SuppressWarnings("unchecked")
+	String messageGroupIdOf(final Object payload) {
+		return messageGroupId.apply((T) payload);
+	}
+
+	/**
+	 * @param payload A payload of a message.
+	 *
+	 * @return The deduplication id of the payload, <code>null</code> if the queue uses content-based deduplication.
+	 *
+	 * @throws ClassCastException If the payload is not of the expected class.
+	 */
+	@SuppressWarnings("unchecked")
+	String deduplicationIdOf(final Object payload) {
+		return deduplicationId == null ? null : deduplicationId.apply((T) payload);
+	}
+}
@@ -0,0 +1,55 @@
+package com.hiber.base.queue;
+
+import com.amazonaws.auth.AWSCredentialsProvider;
+import com.amazonaws.services.s3.AmazonS3Client;
+import com.hiber.base.integration.aws.sqs.S3SqsPayloadStore;
+import com.hiber.base.integration.aws.sqs.SqsPayloadStore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.aws.core.config.AmazonWebserviceClientFactoryBean;
+import org.springframework.cloud.aws.core.region.RegionProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Provides a S3 backed {@link SqsPayloadStore} when <code>hiber.sqs.extended-payload-bucket</code> is set. Shared by producers
+ * and consumers, so both sides of a queue agree on where bodies of big messages are stored.
+ * <p/>
+ * Applications (and tests) can define their own {@link SqsPayloadStore} bean instead.
+ */
+@Configuration
+@ConditionalOnProperty("hiber.sqs.extended-payload-bucket")
+public class SqsPayloadStoreConfiguration {
+	/**
+	 * Creates the S3 client of the payload store. It is not an autowire candidate, so it does not clash with S3 clients of the
+	 * application, and it is shut down with the context.
+	 */
+	@ConditionalOnMissingBean(SqsPayloadStore.class)
+	@Bean(destroyMethod = "shutdown", autowireCandidate = false)
+	public AmazonS3Client sqsPayloadAmazonS3(
+			final AWSCredentialsProvider awsCredentialsProvider,
+			final RegionProvider regionProvider
+	) throws Exception {
+		final AmazonWebserviceClientFactoryBean<AmazonS3Client> factoryBean = new AmazonWebserviceClientFactoryBean<>(
+				AmazonS3Client.class,
+				awsCredentialsProvider,
+				regionProvider
+		);
+		factoryBean.afterPropertiesSet();
+		return factoryBean.getObject();
+	}
+
+	@Bean
+	@ConditionalOnMissingBean(SqsPayloadStore.class)
+	public SqsPayloadStore sqsPayloadStore(
+			final AWSCredentialsProvider awsCredentialsProvider,
+			final RegionProvider regionProvider,
+			final SqsBaseSettings sqsBaseSettings
+	) throws Exception {
+		return new S3SqsPayloadStore(
+				sqsPayloadAmazonS3(awsCredentialsProvider, regionProvider),
+				sqsBaseSettings.getExtendedPayloadBucket(),
+				sqsBaseSettings.getExtendedPayloadKeyPrefix()
+		);
+	}
+}
@@ -0,0 +1,157 @@
+package com.hiber.base.queue;
+
+import com.amazonaws.services.sqs.model.MessageAttributeValue;
+import com.amazonaws.services.sqs.model.SendMessageResult;
+import com.hiber.base.integration.aws.sqs.ChangingHeadersDefaults;
+import com.hiber.base.integration.aws.sqs.ChangingHeadersRules;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import org.springframework.integration.aws.support.SqsHeaderMapper;
+import org.springframework.integration.transformer.Transformer;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
+
+/**
+ * Base class of producers that send messages to a SQS queue without blocking the sender, returning a future of every message
+ * instead.
+ * <p/>
+ * Messages are converted the same way as by channels created by {@link SqsProducerFactory#create(String)}: payloads are
+ * written as JSON (and compressed or offloaded to a payload store when configured), headers are sent as message attributes,
+ * after the changes made by {@link com.hiber.base.integration.aws.sqs.ChangingHeadersSqsMessageHandler} with its defaults.
+ * <p/>
+ * Messages sent to a FIFO queue get either a fixed message group id, or ids computed from their payloads by
+ * {@link SqsFifoKeys}.
+ */
+public abstract class SqsProducer {
+	private final String queueUrl;
+
+	/**
+	 * Message group id of messages sent to a FIFO queue, <code>null</code> for standard queues.
+	 */
+	private final String messageGroupId;
+
+	/**
+	 * Computes ids of messages sent to a FIFO queue from their payloads, <code>null</code> if not used.
+	 */
+	private final SqsFifoKeys<?> fifoKeys;
+
+	/**
+	 * Transformers applied to messages before they are sent, in order.
+	 */
+	private final List<Transformer> transformers;
+
+	/**
+	 * The value of {@link System#nanoTime()} when the producer was last requested from the factory or used.
+	 */
+	private volatile long lastUsed = System.nanoTime();
+
+	private final SqsHeaderMapper headerMapper = new SqsHeaderMapper();
+	private final ChangingHeadersRules headerRules;
+
+	SqsProducer(
+			final String queueUrl,
+			final String messageGroupId,
+			final SqsFifoKeys<?> fifoKeys,
+			final List<Transformer> transformers,
+			final MeterRegistry meterRegistry
+	) {
+		this.queueUrl = queueUrl;
+		this.messageGroupId = messageGroupId;
+		this.fifoKeys = fifoKeys;
+		this.transformers = transformers;
+		this.headerRules = ChangingHeadersRules.outbound(
+				ChangingHeadersDefaults.DEFAULT_BOOLEAN_HEADERS,
+				ChangingHeadersDefaults.DEFAULT_REMOVE_HEADERS,
+				meterRegistry
+		);
+	}
+
+	/**
+	 * Sends an object.
+	 *
+	 * @param payload The object.
+	 *
+	 * @return A future completed once SQS confirms the message, or completed exceptionally if the message could not be sent.
+	 */
+	public CompletableFuture<SendMessageResult> send(final Object payload) {
+		return send(MessageBuilder.withPayload(payload).build());
+	}
+
+	/**
+	 * Sends a message.
+	 *
+	 * @param message The message.
+	 *
+	 * @return A future completed once SQS confirms the message, or completed exceptionally if the message could not be sent.
+	 */
+	public CompletableFuture<SendMessageResult> send(final Message<?> message) {
+		touch();
+
+		final Message<?> transformed;
+		final Map<String, MessageAttributeValue> attributes;
+		final String groupId;
+		final String deduplicationId;
+		try {
+			groupId = fifoKeys != null ? fifoKeys.messageGroupIdOf(message.getPayload()) : messageGroupId;
+			deduplicationId = fifoKeys != null ? fifoKeys.deduplicationIdOf(message.getPayload()) : null;
+
+			Message<?> current = message;
+			for (final Transformer transformer : transformers)
+				current = transformer.transform(current);
+			transformed = current;
+			attributes = toMessageAttributes(transformed);
+		}
+		catch (RuntimeException e) {
+			return CompletableFuture.failedFuture(e);
+		}
+
+		return send((String) transformed.getPayload(), attributes, groupId, deduplicationId);
+	}
+
+	/**
+	 * @return The URL of the queue.
+	 */
+	public String getQueueUrl() {
+		return queueUrl;
+	}
+
+	/**
+	 * Marks the producer as used, so it is not evicted by {@link SqsProducerFactory} as idle.
+	 */
+	void touch() {
+		lastUsed = System.nanoTime();
+	}
+
+	/**
+	 * @return The value of {@link System#nanoTime()} when the producer was last requested from the factory or used.
+	 */
+	long getLastUsed() {
+		return lastUsed;
+	}
+
+	/**
+	 * Sends a converted message.
+	 *
+	 * @param body The body of the message.
+	 * @param attributes Message attributes.
+	 * @param messageGroupId Message group id, <code>null</code> for standard queues.
+	 * @param deduplicationId Deduplication id, <code>null</code> if not set.
+	 *
+	 * @return A future completed once SQS confirms the message.
+	 */
+	abstract CompletableFuture<SendMessageResult> send(
+			String body,
+			Map<String, MessageAttributeValue> attributes,
+			String messageGroupId,
+			String deduplicationId
+	);
+
+	private Map<String, MessageAttributeValue> toMessageAttributes(final Message<?> message) {
+		final Map<String, MessageAttributeValue> attributes = new HashMap<>();
+		headerMapper.fromHeaders(headerRules.apply(message).getHeaders(), attributes);
+		return attributes;
+	}
+}
@@ -3,69 +3,460 @@ package com.hiber.base.queue;
 import com.amazonaws.services.sqs.AmazonSQSAsync;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.hiber.base.integration.aws.sqs.ChangingHeadersSqsMessageHandler;
+import com.hiber.base.integration.aws.sqs.ExtendedPayloadOffloadingTransformer;
+import com.hiber.base.integration.aws.sqs.PayloadEncodingTransformer;
+import com.hiber.base.integration.aws.sqs.SqsPayloadCodec;
+import com.hiber.base.integration.aws.sqs.SqsPayloadStore;
+import com.hiber.base.integration.aws.sqs.SqsSendBuffer;
 import com.hiber.base.integration.jackson.Jackson2ObjectToJsonTransformer;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.Value;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.integration.aws.support.SqsHeaderMapper;
 import org.springframework.integration.channel.DirectChannel;
+import org.springframework.integration.dsl.IntegrationFlowBuilder;
 import org.springframework.integration.dsl.IntegrationFlows;
 import org.springframework.integration.dsl.MessageChannels;
 import org.springframework.integration.dsl.StandardIntegrationFlow;
 import org.springframework.integration.dsl.context.IntegrationFlowContext;
+import org.springframework.integration.expression.FunctionExpression;
+import org.springframework.integration.transformer.Transformer;
+import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 
 /**
  * A factory simplifying creation of Spring Integration channels allowing to send a message to an SQS queue.
+ * <p/>
+ * Bodies of messages may be compressed by the codec set in <code>hiber.sqs.payload-codec</code> (see
+ * {@link PayloadEncodingTransformer}). When a payload store is given, bodies bigger than
+ * <code>hiber.sqs.extended-payload-threshold</code> (after compression) are stored there and only pointers to them are sent
+ * to SQS (see {@link ExtendedPayloadOffloadingTransformer}).
+ * <p/>
+ * Besides channels that send every message with a blocking request, the factory creates producers that return futures
+ * instead: {@link SqsAsyncProducer}s, sending every message with its own asynchronous request, and
+ * {@link SqsBatchingProducer}s, sending messages in batches. Batching producers share a single {@link SqsSendBuffer}, created
+ * when the first one is requested and flushed when the factory is destroyed.
+ * <p/>
+ * Instead of a fixed message group id, channels and producers of FIFO queues may compute the message group id and the
+ * deduplication id of every message from its payload, see {@link SqsFifoKeys}.
+ * <p/>
+ * Channels and producers are kept in a registry keyed by the queue URL and the message group id (or the FIFO keys), so asking for the same
+ * channel or producer again returns the existing one instead of registering another integration flow. Channels and producers
+ * not used for <code>hiber.sqs.producer-idle-timeout</code> may be evicted, which removes integration flows of channels and
+ * meters of producers. Sending to an evicted channel fails, while an evicted producer keeps working on its own, outside of
+ * the registry. So when eviction is enabled channels and producers should be obtained from the factory for every use rather
+ * than kept. Asynchronous producers are evicted only once all their messages complete.
  */
-@RequiredArgsConstructor
-public class SqsProducerFactory {
+public class SqsProducerFactory implements DisposableBean {
+	/**
+	 * Internal header holding the message group id computed from the payload by {@link SqsFifoKeys}, not sent to SQS.
+	 */
+	static final String MESSAGE_GROUP_ID_HEADER = "sqs_messageGroupId";
+
+	/**
+	 * Internal header holding the deduplication id computed from the payload by {@link SqsFifoKeys}, not sent to SQS.
+	 */
+	static final String DEDUPLICATION_ID_HEADER = "sqs_messageDeduplicationId";
+
 	private final ObjectMapper objectMapper;
 	private final AmazonSQSAsync amazonSqs;
 	private final IntegrationFlowContext integrationFlowContext;
+	private final SqsBaseSettings sqsBaseSettings;
+
+	/**
+	 * The store of bodies of big messages, <code>null</code> if big messages are sent as they are.
+	 */
+	private final SqsPayloadStore payloadStore;
+
+	/**
+	 * The registry of compression metrics.
+	 */
+	private final MeterRegistry meterRegistry;
+
+	/**
+	 * The buffer of batching producers, <code>null</code> until the first one is created.
+	 */
+	private SqsSendBuffer sendBuffer;
+
+	private final ConcurrentMap<ProducerKey, ChannelRegistration> channels = new ConcurrentHashMap<>();
+	private final ConcurrentMap<ProducerKey, SqsAsyncProducer> asyncProducers = new ConcurrentHashMap<>();
+	private final ConcurrentMap<ProducerKey, SqsBatchingProducer> batchingProducers = new ConcurrentHashMap<>();
 
 	/**
-	 * Creates a message channel allowing to send a message to a SQS queue.
+	 * Evicts idle channels and producers, <code>null</code> if eviction is disabled.
+	 */
+	private final ScheduledExecutorService evictionScheduler;
+
+	public SqsProducerFactory(
+			final ObjectMapper objectMapper,
+			final AmazonSQSAsync amazonSqs,
+			final IntegrationFlowContext integrationFlowContext
+	) {
+		this(objectMapper, amazonSqs, integrationFlowContext, new SqsBaseSettings(), null, new SimpleMeterRegistry());
+	}
+
+	public SqsProducerFactory(
+			final ObjectMapper objectMapper,
+			final AmazonSQSAsync amazonSqs,
+			final IntegrationFlowContext integrationFlowContext,
+			final SqsBaseSettings sqsBaseSettings,
+			final SqsPayloadStore payloadStore,
+			final MeterRegistry meterRegistry
+	) {
+		this.objectMapper = objectMapper;
+		this.amazonSqs = amazonSqs;
+		this.integrationFlowContext = integrationFlowContext;
+		this.sqsBaseSettings = sqsBaseSettings;
+		this.payloadStore = payloadStore;
+		this.meterRegistry = meterRegistry;
+
+		final long idleTimeout = sqsBaseSettings.getProducerIdleTimeout();
+		if (idleTimeout > 0) {
+			final CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("sqs-producer-eviction-");
+			threadFactory.setDaemon(true);
+			this.evictionScheduler = Executors.newSingleThreadScheduledExecutor(threadFactory);
+			this.evictionScheduler.scheduleWithFixedDelay(
+					this::evictIdle,
+					idleTimeout,
+					idleTimeout,
+					TimeUnit.MILLISECONDS
+			);
+		}
+		else {
+			this.evictionScheduler = null;
+		}
+	}
+
+	/**
+	 * Creates a message channel allowing to send a message to a SQS queue, or returns the existing one.
 	 *
 	 * @param queueUrl The queue URL.
 	 *
 	 * @return Created message channel.
 	 */
 	public MessageChannel create(final String queueUrl) {
-		final DirectChannel channel = MessageChannels.direct().get();
+		return create(queueUrl, (String) null);
+	}
 
-		final ChangingHeadersSqsMessageHandler handler = new ChangingHeadersSqsMessageHandler(amazonSqs);
-		handler.setSync(true);
-		handler.setQueue(queueUrl);
+	/**
+	 * Creates a message channel allowing to send a message to a FIFO SQS queue, or returns the existing one.
+	 *
+	 * @param queueUrl The queue URL.
+	 * @param messageGroupId Message group id SQS header.
+	 *
+	 * @return Created message channel.
+	 */
+	public MessageChannel create(final String queueUrl, final String messageGroupId) {
+		return getChannel(new ProducerKey(queueUrl, messageGroupId, null));
+	}
 
-		final StandardIntegrationFlow integrationFlow = IntegrationFlows.from(channel)
-				.transform(new Jackson2ObjectToJsonTransformer(objectMapper))
-				.handle(handler)
-				.get();
-		integrationFlowContext.registration(integrationFlow).autoStartup(true).register();
+	/**
+	 * Creates a message channel allowing to send a message to a FIFO SQS queue, or returns the existing one. The message
+	 * group id and the deduplication id of every message are computed from its payload.
+	 *
+	 * @param queueUrl The queue URL.
+	 * @param fifoKeys Computes ids of messages from their payloads.
+	 *
+	 * @return Created message channel.
+	 */
+	public MessageChannel create(final String queueUrl, final SqsFifoKeys<?> fifoKeys) {
+		return getChannel(new ProducerKey(queueUrl, null, fifoKeys));
+	}
 
-		return channel;
+	/**
+	 * Creates a producer sending messages to a SQS queue without waiting for SQS. At most
+	 * <code>hiber.sqs.producer-max-in-flight</code> messages are sent at the same time, when more are sent the sender waits up
+	 * to <code>hiber.sqs.producer-max-in-flight-wait</code>.
+	 *
+	 * @param queueUrl The queue URL.
+	 *
+	 * @return Created producer.
+	 */
+	public SqsAsyncProducer createAsync(final String queueUrl) {
+		return createAsync(queueUrl, (String) null);
 	}
 
 	/**
-	 * Creates a message channel allowing to send a message to a FIFO SQS queue.
+	 * Creates a producer sending messages to a FIFO SQS queue without waiting for SQS. Messages are sent one at a time, so
+	 * they arrive in the order they were sent to the producer.
 	 *
 	 * @param queueUrl The queue URL.
 	 * @param messageGroupId Message group id SQS header.
 	 *
-	 * @return Created message channel.
+	 * @return Created producer.
+	 *
+	 * @see #createAsync(String)
 	 */
-	public MessageChannel create(final String queueUrl, final String messageGroupId) {
+	public SqsAsyncProducer createAsync(final String queueUrl, final String messageGroupId) {
+		return getAsyncProducer(new ProducerKey(queueUrl, messageGroupId, null));
+	}
+
+	/**
+	 * Creates a producer sending messages to a FIFO SQS queue without waiting for SQS. The message group id and the
+	 * deduplication id of every message are computed from its payload. Messages of the same group are sent one at a time, so
+	 * they arrive in the order they were sent to the producer.
+	 *
+	 * @param queueUrl The queue URL.
+	 * @param fifoKeys Computes ids of messages from their payloads.
+	 *
+	 * @return Created producer.
+	 *
+	 * @see #createAsync(String)
+	 */
+	public SqsAsyncProducer createAsync(final String queueUrl, final SqsFifoKeys<?> fifoKeys) {
+		return getAsyncProducer(new ProducerKey(queueUrl, null, fifoKeys));
+	}
+
+	/**
+	 * Creates a producer sending messages to a SQS queue in batches. A batch is sent once it has 10 messages, when the next
+	 * message would make it exceed 256 KB, or after <code>hiber.sqs.producer-batch-linger</code>.
+	 *
+	 * @param queueUrl The queue URL.
+	 *
+	 * @return Created producer.
+	 */
+	public SqsBatchingProducer createBatching(final String queueUrl) {
+		return createBatching(queueUrl, (String) null);
+	}
+
+	/**
+	 * Creates a producer sending messages to a FIFO SQS queue in batches.
+	 *
+	 * @param queueUrl The queue URL.
+	 * @param messageGroupId Message group id SQS header.
+	 *
+	 * @return Created producer.
+	 *
+	 * @see #createBatching(String)
+	 */
+	public SqsBatchingProducer createBatching(final String queueUrl, final String messageGroupId) {
+		return getBatchingProducer(new ProducerKey(queueUrl, messageGroupId, null));
+	}
+
+	/**
+	 * Creates a producer sending messages to a FIFO SQS queue in batches. The message group id and the deduplication id of
+	 * every message are computed from its payload.
+	 *
+	 * @param queueUrl The queue URL.
+	 * @param fifoKeys Computes ids of messages from their payloads.
+	 *
+	 * @return Created producer.
+	 *
+	 * @see #createBatching(String)
+	 */
+	public SqsBatchingProducer createBatching(final String queueUrl, final SqsFifoKeys<?> fifoKeys) {
+		return getBatchingProducer(new ProducerKey(queueUrl, null, fifoKeys));
+	}
+
+	/**
+	 * Removes channels (with their integration flows) and producers that were not used for
+	 * <code>hiber.sqs.producer-idle-timeout</code>.
+	 */
+	void evictIdle() {
+		final long now = System.nanoTime();
+		final long idleTimeout = TimeUnit.MILLISECONDS.toNanos(sqsBaseSettings.getProducerIdleTimeout());
+		channels.keySet().forEach(key -> channels.computeIfPresent(key, (k, registration) -> {
+			if (now - registration.lastUsed < idleTimeout)
+				return registration;
+			integrationFlowContext.remove(registration.flowId);
+			return null;
+		}));
+		asyncProducers.keySet().forEach(key -> asyncProducers.computeIfPresent(key, (k, producer) -> {
+			// Producers with messages in flight are kept, so messages of a FIFO group are still sent one at a time.
+			if (now - producer.getLastUsed() < idleTimeout || producer.getInFlight() > 0)
+				return producer;
+			producer.close();
+			return null;
+		}));
+		batchingProducers.keySet().forEach(key -> batchingProducers.computeIfPresent(
+				key,
+				(k, producer) -> now - producer.getLastUsed() < idleTimeout ? producer : null
+		));
+	}
+
+	@Override
+	public synchronized void destroy() {
+		if (evictionScheduler != null)
+			evictionScheduler.shutdownNow();
+		if (sendBuffer != null)
+			sendBuffer.destroy();
+	}
+
+	private MessageChannel getChannel(final ProducerKey producerKey) {
+		// Touched inside of compute, so the channel cannot be evicted between being looked up and returned.
+		return channels.compute(producerKey, (key, registration) -> {
+			final ChannelRegistration current = registration != null ? registration : register(key);
+			current.touch();
+			return current;
+		}).channel;
+	}
+
+	private SqsAsyncProducer getAsyncProducer(final ProducerKey producerKey) {
+		// Touched inside of compute, so the producer cannot be evicted between being looked up and returned.
+		return asyncProducers.compute(producerKey, (key, producer) -> {
+			final SqsAsyncProducer current = producer != null ? producer : new SqsAsyncProducer(
+					key.queueUrl,
+					key.messageGroupId,
+					key.fifoKeys,
+					createTransformers(),
+					amazonSqs,
+					sqsBaseSettings.getProducerMaxInFlight(),
+					sqsBaseSettings.getProducerMaxInFlightWait(),
+					meterRegistry
+			);
+			current.touch();
+			return current;
+		});
+	}
+
+	private SqsBatchingProducer getBatchingProducer(final ProducerKey producerKey) {
+		return batchingProducers.compute(producerKey, (key, producer) -> {
+			final SqsBatchingProducer current = producer != null ? producer : new SqsBatchingProducer(
+					key.queueUrl,
+					key.messageGroupId,
+					key.fifoKeys,
+					createTransformers(),
+					getSendBuffer(),
+					meterRegistry
+			);
+			current.touch();
+			return current;
+		});
+	}
+
+	private synchronized SqsSendBuffer getSendBuffer() {
+		if (sendBuffer == null)
+			sendBuffer = new SqsSendBuffer(amazonSqs, sqsBaseSettings.getProducerBatchLinger(), meterRegistry);
+		return sendBuffer;
+	}
+
+	private ChannelRegistration register(final ProducerKey key) {
 		final DirectChannel channel = MessageChannels.direct().get();
 
 		final ChangingHeadersSqsMessageHandler handler = new ChangingHeadersSqsMessageHandler(amazonSqs);
 		handler.setSync(true);
-		handler.setQueue(queueUrl);
-		handler.setMessageGroupId(messageGroupId);
+		handler.setMeterRegistry(meterRegistry);
+		handler.setQueue(key.queueUrl);
+		if (key.messageGroupId != null)
+			handler.setMessageGroupId(key.messageGroupId);
+
+		IntegrationFlowBuilder builder = IntegrationFlows.from(channel);
+		if (key.fifoKeys != null) {
+			// Ids are computed from the original payload, before it is serialised, and passed to the handler in headers.
+			final SqsFifoKeys<?> fifoKeys = key.fifoKeys;
+			builder = builder.enrichHeaders(headers -> {
+				headers.headerFunction(MESSAGE_GROUP_ID_HEADER, m -> fifoKeys.messageGroupIdOf(m.getPayload()));
+				if (fifoKeys.getDeduplicationId() != null)
+					headers.headerFunction(DEDUPLICATION_ID_HEADER, m -> fifoKeys.deduplicationIdOf(m.getPayload()));
+			});
+			handler.setMessageGroupIdExpression(new FunctionExpression<Message<?>>(
+					m -> m.getHeaders().get(MESSAGE_GROUP_ID_HEADER)
+			));
+			if (fifoKeys.getDeduplicationId() != null)
+				handler.setMessageDeduplicationIdExpression(new FunctionExpression<Message<?>>(
+						m -> m.getHeaders().get(DEDUPLICATION_ID_HEADER)
+				));
+			final SqsHeaderMapper headerMapper = new SqsHeaderMapper();
+			headerMapper.setOutboundHeaderNames(
+					"!id",
+					"!timestamp",
+					"!aws_messageId",
+					"!aws_queue",
+					"!aws_topic",
+					"!" + MESSAGE_GROUP_ID_HEADER,
+					"!" + DEDUPLICATION_ID_HEADER,
+					"*"
+			);
+			handler.setHeaderMapper(headerMapper);
+		}
+		for (final Transformer transformer : createTransformers())
+			builder = builder.transform(transformer);
 
-		final StandardIntegrationFlow integrationFlow = IntegrationFlows.from(channel)
-				.transform(new Jackson2ObjectToJsonTransformer(objectMapper))
+		final StandardIntegrationFlow integrationFlow = builder
 				.handle(handler)
 				.get();
-		integrationFlowContext.registration(integrationFlow).autoStartup(true).register();
+		final String flowId = integrationFlowContext.registration(integrationFlow).autoStartup(true).register().getId();
+
+		final ChannelRegistration registration = new ChannelRegistration(channel, flowId);
+		if (evictionScheduler != null) {
+			channel.addInterceptor(new ChannelInterceptor() {
+				@Override
+				public Message<?> preSend(final Message<?> message, final MessageChannel channel) {
+					registration.touch();
+					return message;
+				}
+			});
+		}
+		return registration;
+	}
+
+	/**
+	 * Creates transformers turning a payload into a body of a SQS message: JSON serialisation, optional compression and
+	 * optional offloading of big bodies to the payload store.
+	 *
+	 * @return Transformers to be applied in order.
+	 */
+	private List<Transformer> createTransformers() {
+		final List<Transformer> transformers = new ArrayList<>(3);
+		transformers.add(new Jackson2ObjectToJsonTransformer(objectMapper));
+		if (sqsBaseSettings.getPayloadCodec() != SqsPayloadCodec.NONE)
+			transformers.add(new PayloadEncodingTransformer(
+					sqsBaseSettings.getPayloadCodec(),
+					sqsBaseSettings.getPayloadCompressionMinSize(),
+					meterRegistry
+			));
+		if (payloadStore != null)
+			transformers.add(new ExtendedPayloadOffloadingTransformer(payloadStore, sqsBaseSettings.getExtendedPayloadThreshold()));
+		return transformers;
+	}
+
+	/**
+	 * Identifies channels and producers of the registry.
+	 */
+	@Value
+	private static class ProducerKey {
+		String queueUrl;
+
+		/**
+		 * Message group id of messages sent to a FIFO queue, <code>null</code> for standard queues or if computed from payloads.
+		 */
+		String messageGroupId;
+
+		/**
+		 * Computes ids of messages sent to a FIFO queue from their payloads, <code>null</code> if not used.
+		 */
+		SqsFifoKeys<?> fifoKeys;
+	}
+
+	/**
+	 * A channel of the registry together with its integration flow.
+	 */
+	private static class ChannelRegistration {
+		private final DirectChannel channel;
+		private final String flowId;
+
+		/**
+		 * The value of {@link System#nanoTime()} when the channel was last requested or used.
+		 */
+		private volatile long lastUsed;
+
+		ChannelRegistration(final DirectChannel channel, final String flowId) {
+			this.channel = channel;
+			this.flowId = flowId;
+		}
 
-		return channel;
+		void touch() {
+			lastUsed = System.nanoTime();
+		}
 	}
-}
\ No newline at end of file
+}
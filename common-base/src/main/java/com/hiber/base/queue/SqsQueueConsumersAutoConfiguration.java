@@ -1,22 +1,52 @@
 package com.hiber.base.queue;
 
-import com.amazonaws.services.sqs.AmazonSQS;
 import com.amazonaws.services.sqs.AmazonSQSAsync;
+import com.amazonaws.services.sqs.model.MessageSystemAttributeName;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.hiber.base.domain.Support;
+import com.hiber.base.integration.aws.sqs.AcknowledgeOnSuccessChannelInterceptor;
+import com.hiber.base.integration.aws.sqs.AdaptiveReceiveBatchSize;
+import com.hiber.base.integration.aws.sqs.BackoffJitter;
 import com.hiber.base.integration.aws.sqs.ExponentialBackoffPolicySqsMessageChannelInterceptor;
 import com.hiber.base.integration.aws.sqs.ChangingHeadersSqsMessageDrivenChannelAdapter;
+import com.hiber.base.integration.aws.sqs.ExtendedPayloadResolvingTransformer;
+import com.hiber.base.integration.aws.sqs.PayloadDecodingTransformer;
+import com.hiber.base.integration.aws.sqs.ReceiveAttributesFilter;
+import com.hiber.base.integration.aws.sqs.ReceiveInterceptingAmazonSqs;
+import com.hiber.base.integration.aws.sqs.ReceiveMessageInterceptor;
+import com.hiber.base.integration.aws.sqs.SqsAcknowledgementBuffer;
+import com.hiber.base.integration.aws.sqs.SqsFifoLanes;
+import com.hiber.base.integration.aws.sqs.SqsPayloadCodec;
+import com.hiber.base.integration.aws.sqs.SqsPayloadStore;
+import com.hiber.base.integration.aws.sqs.SqsReceivedQueueRouter;
+import com.hiber.base.integration.aws.sqs.SqsVisibilityChangeBuffer;
+import com.hiber.base.integration.aws.sqs.SqsVisibilityHeartbeat;
 import com.hiber.base.integration.jackson.Jackson2JsonToObjectTransformer;
 import com.hiber.base.integration.notify.SupportNotifyExceptionChannelInterceptor;
 import com.hiber.base.integration.validation.Jsr303ValidationSelector;
 import com.hiber.base.queue.SqsQueueConsumersAutoConfiguration.QueueConsumer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import javax.validation.Validator;
 import lombok.AllArgsConstructor;
+import lombok.Builder;
 import lombok.Value;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
@@ -24,18 +54,25 @@ import org.springframework.cloud.aws.messaging.listener.SqsMessageDeletionPolicy
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
-import org.springframework.integration.aws.support.AwsHeaders;
 import org.springframework.integration.channel.DirectChannel;
+import org.springframework.integration.channel.MessagePublishingErrorHandler;
+import org.springframework.integration.dsl.ExecutorChannelSpec;
 import org.springframework.integration.dsl.IntegrationFlow;
+import org.springframework.integration.dsl.IntegrationFlowBuilder;
 import org.springframework.integration.dsl.IntegrationFlows;
 import org.springframework.integration.dsl.MessageChannels;
-import org.springframework.integration.dsl.RouterSpec;
+import org.springframework.integration.dsl.context.IntegrationFlowContext;
+import org.springframework.integration.dsl.context.IntegrationFlowContext.IntegrationFlowRegistration;
 import org.springframework.integration.endpoint.MessageProducerSupport;
-import org.springframework.integration.router.ExpressionEvaluatingRouter;
+import org.springframework.integration.support.channel.BeanFactoryChannelResolver;
 import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.util.Assert;
 
 import static com.hiber.base.queue.SqsQueueConsumersAutoConfiguration.QueueConsumer.BackoffPolicy.CONFIGURED;
-import static com.hiber.base.queue.SqsQueueConsumersAutoConfiguration.QueueConsumer.BackoffPolicy.EXPONENTIAL;
 
 /**
  * Auto-configuration that sets up necessary Spring Integration and SQS infrastructure classes so requested SQS queues are polled
@@ -44,79 +81,279 @@ import static com.hiber.base.queue.SqsQueueConsumersAutoConfiguration.QueueConsu
  * The auto-configuration is activated by one or more beans of the <code>QueueCustomer</code> class. It can be explicitly disabled
  * by setting <code>hiber.sqs.consumer-enabled</code> to <code>true</code>.
  * <p/>
- * This implementation creates a single poller for all queues. It is possible to have an independently configured poller per a
- * queue, but it requires a slightly different way to create necessary Spring Integration infrastructure.
+ * This implementation creates an independent poller and a pool of workers for every queue, configured by the concurrency
+ * settings of a queue consumer.
  * <p/>
  * Configured Spring Integration channels and handlers obtain default support for metrics and distributed tracing.
  */
 @Configuration
-@Import(SqsClientConfiguration.class)
+@Import({SqsClientConfiguration.class, SqsConsumerBuffersConfiguration.class, SqsPayloadStoreConfiguration.class})
 @ConditionalOnBean(QueueConsumer.class)
 @EnableConfigurationProperties(SqsBaseSettings.class)
 @ConditionalOnProperty(value = "hiber.sqs.consumer-enabled", havingValue = "true", matchIfMissing = true)
 public class SqsQueueConsumersAutoConfiguration {
 	/**
-	 * Creates a component that will be polling requested SQS queues. This is the first step in the overall flow, received
+	 * Creates components that will be polling requested SQS queues. This is the first step in the overall flow, received
 	 * messages will be sent to <code>rawReceiveMessageChannel</code>.
+	 * <p/>
+	 * Every queue gets its own poller and its own pool of workers (see {@link QueueConsumer.Concurrency}), so a slow consumer
+	 * of one queue does not hold back consumers of other queues. A poller hands received messages over to the workers through
+	 * an executor channel. Once the number of messages waiting for a worker or being consumed reaches the in-flight limit the
+	 * poller waits for a worker to become free before it hands over the next message, and it doesn't receive more messages
+	 * until all messages of the current poll have been handed over. So the workers never hold more messages than the limit,
+	 * while the poller holds at most the rest of a single poll.
+	 * <p/>
+	 * As messages are consumed on other threads than the one that received them, the messages are deleted from a queue by
+	 * {@link AcknowledgeOnSuccessChannelInterceptor} registered on <code>rawReceiveMessageChannel</code> instead of by the
+	 * poller itself. Deletes are batched by {@link SqsAcknowledgementBuffer}.
+	 * <p/>
+	 * The number of messages received by a single poll is either fixed or, in the adaptive mode, adjusted to the current load
+	 * by {@link AdaptiveReceiveBatchSize}. Consumers that declare the attributes they need receive only these attributes (see
+	 * {@link ReceiveAttributesFilter}).
+	 * <p/>
+	 * Consumers of FIFO queues may enable the FIFO mode, in which the workers are replaced by ordered lanes (see
+	 * {@link SqsFifoLanes}), so messages of a message group are consumed in order while different groups are consumed in
+	 * parallel. Exceptions thrown by lanes are published to the <code>errorChannel</code>, and a lane stops consuming a group
+	 * whose message failed until that message is redelivered.
+	 * <p/>
+	 * The pollers replace the adapter polling all queues of earlier versions. The <code>sqsMessageProducerSupport</code> bean
+	 * is kept to start and stop all of them (see {@link #sqsMessageProducerSupport}), and settings previously customised on
+	 * that adapter are available per queue through {@link QueueConsumer}.
 	 *
 	 * @param amazonSqs A SQS client.
 	 * @param queuesConsumers Consumers defining which queues should be polled.
 	 * @param rawReceiveMessageChannel The channel that will receive messages obtained from SQS queues.
+	 * @param sqsVisibilityChangeBuffer Buffer making messages of failed groups visible again in the FIFO mode.
+	 * @param integrationFlowContext The context used to register integration flows created for queues.
+	 * @param beanFactory The factory resolving the <code>errorChannel</code> of lanes.
+	 * @param meterRegistry A registry of lane metrics.
 	 *
-	 * @return Polling component.
+	 * @return Registrations of integration flows polling the queues.
 	 */
 	@Bean
-	public MessageProducerSupport sqsMessageProducerSupport(
+	public List<IntegrationFlowRegistration> sqsQueuePollers(
 			final AmazonSQSAsync amazonSqs,
 			final List<QueueConsumer<?>> queuesConsumers,
 			final MessageChannel rawReceiveMessageChannel,
-			final SqsBaseSettings sqsBaseSettings
+			final SqsVisibilityChangeBuffer sqsVisibilityChangeBuffer,
+			final SqsBaseSettings sqsBaseSettings,
+			final IntegrationFlowContext integrationFlowContext,
+			final BeanFactory beanFactory,
+			final ObjectProvider<MeterRegistry> meterRegistry
 	) {
-		final String[] urls = queuesConsumers.stream()
-				.map(q -> q.url)
-				.collect(Collectors.toList())
-				.toArray(new String[queuesConsumers.size()]);
-
-		final ChangingHeadersSqsMessageDrivenChannelAdapter adapter = new ChangingHeadersSqsMessageDrivenChannelAdapter(
-				amazonSqs,
-				urls
-		);
-		adapter.setWaitTimeOut(sqsBaseSettings.getWaitTimeOut());
-		adapter.setMaxNumberOfMessages(2);
-		adapter.setMessageDeletionPolicy(SqsMessageDeletionPolicy.ON_SUCCESS);
-		adapter.setOutputChannel(rawReceiveMessageChannel);
-		return adapter;
+		final MeterRegistry registry = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
+		final MessagePublishingErrorHandler errorHandler =
+				new MessagePublishingErrorHandler(new BeanFactoryChannelResolver(beanFactory));
+		errorHandler.setBeanFactory(beanFactory);
+		return queuesConsumers.stream()
+				.map(consumer -> {
+					final int maxNumberOfMessages = Optional.ofNullable(consumer.maxNumberOfMessages)
+							.orElse(sqsBaseSettings.getMaxNumberOfMessages());
+					final List<ExecutorChannelInterceptor> workersInterceptors = new ArrayList<>();
+					final List<ReceiveMessageInterceptor> receiveInterceptors = new ArrayList<>();
+
+					if (consumer.receivedAttributes != null)
+						receiveInterceptors.add(new ReceiveAttributesFilter(consumer.getRequiredAttributes()));
+					if (consumer.adaptiveMaxNumberOfMessages) {
+						final AdaptiveReceiveBatchSize batchSize = new AdaptiveReceiveBatchSize(
+								maxNumberOfMessages,
+								consumer.concurrency.getWorkers(),
+								consumer.concurrency.getMaxInFlight(),
+								sqsBaseSettings.getAdaptiveMaxNumberOfMessagesMaxDrainTime()
+						);
+						receiveInterceptors.add(batchSize);
+						workersInterceptors.add(batchSize);
+					}
+
+					final AmazonSQSAsync receivingSqs = receiveInterceptors.isEmpty()
+							? amazonSqs
+							: ReceiveInterceptingAmazonSqs.create(amazonSqs, receiveInterceptors);
+					final ChangingHeadersSqsMessageDrivenChannelAdapter adapter =
+							new ChangingHeadersSqsMessageDrivenChannelAdapter(receivingSqs, consumer.url);
+					adapter.setMeterRegistry(registry);
+					adapter.setWaitTimeOut(sqsBaseSettings.getWaitTimeOut());
+					adapter.setMaxNumberOfMessages(maxNumberOfMessages);
+					adapter.setMessageDeletionPolicy(SqsMessageDeletionPolicy.NEVER);
+
+					if (consumer.fifo) {
+						final SqsFifoLanes lanes = new SqsFifoLanes(
+								consumer.url,
+								consumer.name,
+								consumer.concurrency.getWorkers(),
+								consumer.concurrency.getMaxInFlight(),
+								rawReceiveMessageChannel,
+								sqsVisibilityChangeBuffer,
+								TimeUnit.SECONDS.toMillis(sqsBaseSettings.getMaxSQSVisibilityTimeout()),
+								errorHandler,
+								workersInterceptors,
+								registry
+						);
+						final IntegrationFlow flow = IntegrationFlows.from(adapter)
+								.handle(lanes)
+								.get();
+						return integrationFlowContext.registration(flow).addBean(lanes).autoStartup(true).register();
+					}
+
+					final ThreadPoolTaskExecutor workers = createWorkers(consumer);
+					final ExecutorChannelSpec workersChannel = MessageChannels.executor(consumer.name + "Workers", workers);
+					workersInterceptors.forEach(workersChannel::interceptor);
+					final IntegrationFlow flow = IntegrationFlows.from(adapter)
+							.channel(workersChannel)
+							.channel(rawReceiveMessageChannel)
+							.get();
+					return integrationFlowContext.registration(flow).addBean(workers).autoStartup(true).register();
+				})
+				.collect(Collectors.toList());
+	}
+
+	/**
+	 * Creates a handler passing payloads of messages, already converted to the class of the consumer, to the consumer.
+	 */
+	static <T> MessageHandler createHandler(final QueueConsumer<T> consumer) {
+		return message -> consumer.consumer.accept(consumer.clazz.cast(message.getPayload()));
 	}
 
 	/**
-	 * A channel that will receive messages from SQS queues. The channel server two purposes.
+	 * Starts and stops polling of all queues, like the single adapter polling all queues in earlier versions.
+	 *
+	 * @param sqsQueuePollers Registrations of integration flows polling the queues.
+	 * @param rawReceiveMessageChannel The channel that receives messages obtained from SQS queues.
+	 *
+	 * @return Component starting and stopping the pollers.
+	 *
+	 * @deprecated Use the registrations of {@link #sqsQueuePollers} (or {@link IntegrationFlowContext}) to start and stop
+	 * polling of single queues.
+	 */
+	@Bean
+	@Deprecated
+	public MessageProducerSupport sqsMessageProducerSupport(
+			@Qualifier("sqsQueuePollers") final List<IntegrationFlowRegistration> sqsQueuePollers,
+			final MessageChannel rawReceiveMessageChannel
+	) {
+		final SqsQueuePollersLifecycle lifecycle = new SqsQueuePollersLifecycle(sqsQueuePollers);
+		lifecycle.setOutputChannel(rawReceiveMessageChannel);
+		return lifecycle;
+	}
+
+	static ThreadPoolTaskExecutor createWorkers(final QueueConsumer<?> consumer) {
+		final QueueConsumer.Concurrency concurrency = consumer.getConcurrency();
+
+		final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setThreadNamePrefix(consumer.name + "-");
+		executor.setCorePoolSize(concurrency.getWorkers());
+		executor.setMaxPoolSize(concurrency.getWorkers());
+		executor.setQueueCapacity(concurrency.getMaxInFlight() - concurrency.getWorkers());
+		executor.setRejectedExecutionHandler(new WaitForWorkerPolicy());
+		return executor;
+	}
+
+	/**
+	 * Starts and stops all pollers together. Messages are sent to the output channel by the pollers themselves, never by this
+	 * component.
+	 */
+	static class SqsQueuePollersLifecycle extends MessageProducerSupport {
+		private final List<IntegrationFlowRegistration> pollers;
+
+		SqsQueuePollersLifecycle(final List<IntegrationFlowRegistration> pollers) {
+			this.pollers = pollers;
+		}
+
+		@Override
+		protected void doStart() {
+			pollers.forEach(IntegrationFlowRegistration::start);
+		}
+
+		@Override
+		protected void doStop() {
+			pollers.forEach(IntegrationFlowRegistration::stop);
+		}
+	}
+
+	/**
+	 * Makes the poller wait until a worker takes a message over instead of consuming the message itself, so the number of
+	 * messages waiting for a worker or being consumed never exceeds the in-flight limit. Messages rejected once the workers
+	 * are shut down are not deleted, so they are received again after their visibility timeout.
+	 */
+	static class WaitForWorkerPolicy implements RejectedExecutionHandler {
+		@Override
+		public void rejectedExecution(final Runnable task, final ThreadPoolExecutor executor) {
+			if (executor.isShutdown())
+				throw new RejectedExecutionException("Workers of the queue are shut down");
+			try {
+				executor.getQueue().put(task);
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new RejectedExecutionException("Interrupted while waiting for a worker", e);
+			}
+		}
+	}
+
+	/**
+	 * A channel that will receive messages from SQS queues. The channel serves three purposes.
 	 * <p/>
 	 * First, it serves as a top-level handler for any exceptions occurring from that point. For example any exception that
 	 * happens during de-serialisation from JSON or exceptions thrown by consumers of messages will be handled here and forwarded
-	 * to any support notifiers (e.g. Bugsnag).
+	 * to any support notifiers (e.g. Bugsnag). Notifications describe the failed message by its id, queue, the headers listed
+	 * in <code>hiber.sqs.support-headers</code> and up to <code>hiber.sqs.support-payload-length</code> characters of its
+	 * payload.
 	 * <p/>
-	 * Secondly, as it is an explicitly named bean it can be used to hook-up various interceptors useful during testing.
+	 * Secondly, messages successfully processed by this channel are deleted from SQS queues (through the acknowledgements
+	 * buffer).
+	 * <p/>
+	 * Thirdly, as it is an explicitly named bean it can be used to hook-up various interceptors useful during testing.
 	 *
 	 * @return A channel for incoming messages.
 	 */
 	@Bean
 	public DirectChannel rawReceiveMessageChannel(
-			final Support support
+			final Support support,
+			final SqsAcknowledgementBuffer sqsAcknowledgementBuffer,
+			final SqsBaseSettings sqsBaseSettings
 	) {
 		final DirectChannel channel = MessageChannels.direct().get();
-		channel.addInterceptor(new SupportNotifyExceptionChannelInterceptor(Set.of(channel), support));
+		channel.addInterceptor(new SupportNotifyExceptionChannelInterceptor(
+				Set.of(channel),
+				support,
+				sqsBaseSettings.getSupportPayloadLength(),
+				sqsBaseSettings.getSupportHeaders()
+		));
+		channel.addInterceptor(new AcknowledgeOnSuccessChannelInterceptor(sqsAcknowledgementBuffer));
 		return channel;
 	}
 
+	/**
+	 * Creates a heartbeat extending visibility of messages being consumed, used by consumers that enable it.
+	 *
+	 * @param amazonSqs A SQS client.
+	 *
+	 * @return Visibility heartbeat.
+	 */
+	@Bean
+	public SqsVisibilityHeartbeat sqsVisibilityHeartbeat(final AmazonSQSAsync amazonSqs) {
+		return new SqsVisibilityHeartbeat(amazonSqs);
+	}
+
 	/**
 	 * Creates an integration flow that routes incoming messages from the <code>rawReceiveMessageChannel</code> channel to a
 	 * proper consumer. The messages are converted from JSON format to appropriate objects. If DTO contains any validation
-	 * annotations they will be checked.
+	 * annotations they will be checked, in the validation groups of a consumer. Objects of classes without constraints are not
+	 * validated at all.
+	 * <p/>
+	 * Every consumer gets its own flow, registered in the integration flow context. Messages are routed to these flows by
+	 * {@link SqsReceivedQueueRouter}, which looks the received queue up in a map built here.
+	 * <p/>
+	 * If a {@link SqsPayloadStore} is available then bodies of messages sent with pointers to stored bodies are read from the
+	 * store, streamed straight into the JSON parser. Compressed bodies (see {@link PayloadDecodingTransformer}) are
+	 * decompressed on the way.
 	 *
 	 * @param queuesConsumers Consumers defining which queues should be polled.
 	 * @param rawReceiveMessageChannel A channel where messages from SQS are forwarded.
 	 * @param validator A configured JSR 303 validator,
 	 * @param objectMapper A configured Jackson object mapper instance that will be used to convert JSON to DTO.
+	 * @param integrationFlowContext The context used to register integration flows created for consumers.
+	 * @param meterRegistry A registry of router metrics.
+	 * @param sqsPayloadStore The store of bodies of big messages, optional.
 	 *
 	 * @return Created integrated flow.
 	 */
@@ -126,31 +363,56 @@ public class SqsQueueConsumersAutoConfiguration {
 			final DirectChannel rawReceiveMessageChannel,
 			final Validator validator,
 			final ObjectMapper objectMapper,
-			final AmazonSQS amazonSQS,
-			final SqsBaseSettings sqsBaseSettings
+			final SqsVisibilityChangeBuffer sqsVisibilityChangeBuffer,
+			final SqsBaseSettings sqsBaseSettings,
+			final SqsVisibilityHeartbeat sqsVisibilityHeartbeat,
+			final IntegrationFlowContext integrationFlowContext,
+			final ObjectProvider<MeterRegistry> meterRegistry,
+			final ObjectProvider<SqsPayloadStore> sqsPayloadStore
 	) {
-		final Consumer<RouterSpec<Object, ExpressionEvaluatingRouter>> routerSpecConsumer = router -> {
-			for (final QueueConsumer consumer : queuesConsumers) {
-				final DirectChannel channel = MessageChannels.direct().get();
-				channel.setComponentName(consumer.name);
-				channel.subscribe(message -> consumer.consumer.accept(message.getPayload()));
-
-				if (EXPONENTIAL == consumer.getBackoffPolicy())
-					channel.addInterceptor(new ExponentialBackoffPolicySqsMessageChannelInterceptor(amazonSQS, sqsBaseSettings));
-
-				final IntegrationFlow flow = f -> f
-						.transform(new Jackson2JsonToObjectTransformer(consumer.clazz, objectMapper))
-						.filter(new Jsr303ValidationSelector(validator))
-						.channel(channel);
-				router.subFlowMapping(consumer.url, flow);
-			}
-		};
+		final SqsPayloadStore payloadStore = sqsPayloadStore.getIfAvailable();
+		final MeterRegistry registry = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
+		final Map<String, MessageChannel> routes = new HashMap<>();
+		for (final QueueConsumer<?> consumer : queuesConsumers) {
+			final DirectChannel channel = MessageChannels.direct().get();
+			channel.setComponentName(consumer.name);
+			channel.subscribe(createHandler(consumer));
+
+			final ChannelInterceptor backoffPolicy = consumer.backoffPolicy.createInterceptor(
+					sqsVisibilityChangeBuffer,
+					sqsBaseSettings,
+					consumer.maxBackoffVisibilityTimeout
+			);
+			if (backoffPolicy != null)
+				channel.addInterceptor(backoffPolicy);
+
+			// Added after the back-off interceptor so the heartbeat stops before visibility is changed by the back-off.
+			if (consumer.heartbeatVisibilityTimeout != null)
+				channel.addInterceptor(sqsVisibilityHeartbeat.forQueue(consumer.url, consumer.heartbeatVisibilityTimeout));
 
-		final String queueHeaderExpression = "headers." + AwsHeaders.RECEIVED_QUEUE;
+			final DirectChannel input = MessageChannels.direct().get();
+			IntegrationFlowBuilder builder = IntegrationFlows.from(input);
+			if (payloadStore != null)
+				builder = builder.transform(new ExtendedPayloadResolvingTransformer(payloadStore));
+			final IntegrationFlow flow = builder
+					.transform(new PayloadDecodingTransformer(registry))
+					.transform(new Jackson2JsonToObjectTransformer(consumer.clazz, objectMapper))
+					.filter(new Jsr303ValidationSelector(
+							validator,
+							consumer.clazz,
+							Optional.ofNullable(consumer.validationGroups).orElse(List.of()),
+							consumer.name,
+							registry
+					))
+					.channel(channel)
+					.get();
+			integrationFlowContext.registration(flow).register();
+			Assert.isNull(routes.put(consumer.url, input), "More than one consumer of queue " + consumer.url);
+		}
 
 		return IntegrationFlows
 				.from(rawReceiveMessageChannel)
-				.route(queueHeaderExpression, routerSpecConsumer)
+				.route(new SqsReceivedQueueRouter(routes, registry))
 				.get();
 	}
 
@@ -161,6 +423,7 @@ public class SqsQueueConsumersAutoConfiguration {
 	 */
 	@Value
 	@AllArgsConstructor
+	@Builder(toBuilder = true)
 	public static class QueueConsumer<T> {
 		/**
 		 * The URL of the queue available in SQS.
@@ -187,14 +450,125 @@ public class SqsQueueConsumersAutoConfiguration {
 		/**
 		 * Back-off strategy that should be applied when problems with consuming message occurs.
 		 */
-		BackoffPolicy backoffPolicy;
+		@Builder.Default
+		BackoffPolicy backoffPolicy = BackoffPolicy.CONFIGURED;
+
+		/**
+		 * Defines how many messages from the queue may be consumed at the same time.
+		 */
+		@Builder.Default
+		Concurrency concurrency = Concurrency.DEFAULT;
+
+		/**
+		 * The max number of messages received by a single poll of the queue (1 to 10). If not set then
+		 * <code>hiber.sqs.max-number-of-messages</code> is used. In the adaptive mode this is the number of messages requested by
+		 * the first poll.
+		 */
+		Integer maxNumberOfMessages;
+
+		/**
+		 * Enables the adaptive mode, in which the number of messages received by a single poll grows towards 10 while the queue
+		 * is backlogged and shrinks when consumers fall behind. The in-flight limit of {@link #concurrency} should leave room for
+		 * bigger batches, otherwise the batch will be kept small.
+		 */
+		boolean adaptiveMaxNumberOfMessages;
+
+		/**
+		 * Enables a heartbeat that keeps extending visibility of a message while it is being consumed, so it is not delivered
+		 * to another consumer when consuming takes longer than the visibility timeout of the queue. The value is the visibility
+		 * timeout in seconds set by each heartbeat. The first heartbeat is sent within a second after the message is sent to
+		 * the consumer channel, following ones every half of the heartbeat visibility timeout. If not set then no heartbeat is
+		 * sent.
+		 * <p/>
+		 * Messages waiting for a worker (up to the in-flight limit of {@link #concurrency} minus the number of workers) are
+		 * not sent to the consumer channel yet, so their visibility is not extended. The visibility timeout of the queue has
+		 * to cover the time they wait.
+		 */
+		Integer heartbeatVisibilityTimeout;
+
+		/**
+		 * The cap in seconds of visibility timeouts set by the back-off policy. If not set then
+		 * <code>hiber.sqs.max-sqs-visibility-timeout</code> is used.
+		 */
+		Integer maxBackoffVisibilityTimeout;
+
+		/**
+		 * Enables the FIFO mode, meant for FIFO queues. Workers of {@link #concurrency} become ordered lanes, a message is
+		 * consumed by the lane chosen by the hash of its message group id, so messages of a group are never consumed out of
+		 * order or at the same time. The in-flight limit is split evenly between lanes.
+		 */
+		boolean fifo;
+
+		/**
+		 * Names of system attributes and message attributes received with messages, e.g.
+		 * {@link ReceiveAttributesFilter#TRACING_ATTRIBUTES}. Attributes needed by the consumer configuration itself (the receive
+		 * count used by the back-off policy, the message group id used by the FIFO mode and the attributes of compressed or
+		 * stored payloads) are always received. If not set then all attributes are received.
+		 */
+		Set<String> receivedAttributes;
+
+		/**
+		 * Validation groups of constraints checked on received objects. If not set then the default group is checked.
+		 */
+		List<Class<?>> validationGroups;
 
 		public QueueConsumer(final String url, final Consumer<T> consumer, final Class<T> clazz, final String name) {
-			this.url = url;
-			this.consumer = consumer;
-			this.clazz = clazz;
-			this.name = name;
-			this.backoffPolicy = BackoffPolicy.CONFIGURED;
+			this(url, consumer, clazz, name, BackoffPolicy.CONFIGURED);
+		}
+
+		public QueueConsumer(
+				final String url,
+				final Consumer<T> consumer,
+				final Class<T> clazz,
+				final String name,
+				final BackoffPolicy backoffPolicy
+		) {
+			this(url, consumer, clazz, name, backoffPolicy, Concurrency.DEFAULT, null, false, null, null, false, null, null);
+		}
+
+		/**
+		 * @return Names of attributes to receive: {@link #receivedAttributes} together with the ones needed by the consumer
+		 * configuration.
+		 */
+		Set<String> getRequiredAttributes() {
+			final Set<String> attributes = new HashSet<>(receivedAttributes);
+			attributes.add(SqsPayloadCodec.PAYLOAD_CODEC_HEADER);
+			attributes.add(SqsPayloadStore.EXTENDED_PAYLOAD_SIZE_HEADER);
+			if (backoffPolicy != BackoffPolicy.CONFIGURED)
+				attributes.add(MessageSystemAttributeName.ApproximateReceiveCount.toString());
+			if (fifo)
+				attributes.add(SqsFifoLanes.MESSAGE_GROUP_ID_HEADER);
+			return attributes;
+		}
+
+		/**
+		 * Describes how many messages from a queue may be consumed at the same time.
+		 */
+		@Value
+		public static class Concurrency {
+			/**
+			 * Two workers and no messages waiting for a worker, which matches the behaviour of a poller receiving two messages
+			 * at a time.
+			 */
+			public static final Concurrency DEFAULT = new Concurrency(2, 2);
+
+			/**
+			 * The number of threads consuming messages from the queue.
+			 */
+			int workers;
+
+			/**
+			 * The max number of messages received from the queue that are waiting for a worker or being consumed. Must not be
+			 * lower than the number of workers. Once the limit is reached the poller waits for a free worker.
+			 */
+			int maxInFlight;
+
+			public Concurrency(final int workers, final int maxInFlight) {
+				Assert.isTrue(workers > 0, "At least one worker is required");
+				Assert.isTrue(maxInFlight >= workers, "Max in-flight messages must not be lower than the number of workers");
+				this.workers = workers;
+				this.maxInFlight = maxInFlight;
+			}
 		}
 
 		public enum BackoffPolicy {
@@ -214,7 +588,62 @@ public class SqsQueueConsumersAutoConfiguration {
 			 * 2nd attempt after fail starts after 2 min.
 			 * 3nd attempt after fail starts after 4 min.
 			 */
-			EXPONENTIAL
+			EXPONENTIAL(BackoffJitter.NONE),
+
+			/**
+			 * Like EXPONENTIAL, but the time is random between 0 and the exponential value, so messages that failed at the same
+			 * time are not redelivered all at once.
+			 */
+			FULL_JITTER(BackoffJitter.FULL),
+
+			/**
+			 * Like EXPONENTIAL, but the time is half of the exponential value plus a random value up to the other half.
+			 */
+			EQUAL_JITTER(BackoffJitter.EQUAL),
+
+			/**
+			 * The time is random between the min time and three times the previous time.
+			 */
+			DECORRELATED_JITTER(BackoffJitter.DECORRELATED);
+
+			/**
+			 * Randomness added to the exponential back-off, <code>null</code> if visibility of messages is not changed.
+			 */
+			private final BackoffJitter jitter;
+
+			BackoffPolicy() {
+				this(null);
+			}
+
+			BackoffPolicy(final BackoffJitter jitter) {
+				this.jitter = jitter;
+			}
+
+			/**
+			 * Creates an interceptor changing visibility of messages that could not be consumed.
+			 *
+			 * @param visibilityChangeBuffer Buffer sending visibility changes.
+			 * @param sqsBaseSettings Provides the min and max visibility timeouts.
+			 * @param maxVisibilityTimeout The cap of visibility timeouts in seconds, if <code>null</code> then
+			 * <code>hiber.sqs.max-sqs-visibility-timeout</code> is used.
+			 *
+			 * @return The interceptor, or <code>null</code> for the CONFIGURED policy.
+			 */
+			ExponentialBackoffPolicySqsMessageChannelInterceptor createInterceptor(
+					final SqsVisibilityChangeBuffer visibilityChangeBuffer,
+					final SqsBaseSettings sqsBaseSettings,
+					final Integer maxVisibilityTimeout
+			) {
+				if (jitter == null)
+					return null;
+
+				return new ExponentialBackoffPolicySqsMessageChannelInterceptor(
+						visibilityChangeBuffer,
+						jitter,
+						sqsBaseSettings.getExponentialBackOffPolicyMinVisibilityTimeout(),
+						Optional.ofNullable(maxVisibilityTimeout).orElse(sqsBaseSettings.getMaxSQSVisibilityTimeout())
+				);
+			}
 		}
 	}
 }
\ No newline at end of file
@@ -2,7 +2,12 @@ package com.hiber.base.queue;
 
 import com.amazonaws.services.sqs.AmazonSQSAsync;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hiber.base.integration.aws.sqs.SqsPayloadStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
@@ -12,17 +17,32 @@ import org.springframework.messaging.MessageChannel;
 /**
  * An auto-configuration that provides a factory allowing to create SQS producers in form of @{link {@link MessageChannel}}
  * instances.
+ * <p/>
+ * If a {@link SqsPayloadStore} is available (see {@link SqsPayloadStoreConfiguration}) then bodies of messages bigger than
+ * <code>hiber.sqs.extended-payload-threshold</code> are stored there and only pointers to them are sent. Bodies are
+ * compressed when <code>hiber.sqs.payload-codec</code> is set.
  */
 @Configuration
-@Import(SqsClientConfiguration.class)
+@Import({SqsClientConfiguration.class, SqsPayloadStoreConfiguration.class})
+@EnableConfigurationProperties(SqsBaseSettings.class)
 @ConditionalOnClass(name = "org.springframework.integration.aws.outbound.SqsMessageHandler")
 public class SqsQueueProducersAutoConfiguration {
 	@Bean
 	public SqsProducerFactory sqsProducerFactory(
 			final ObjectMapper objectMapper,
 			final AmazonSQSAsync nonBufferedAmazonSqs,
-			final IntegrationFlowContext integrationFlowContext
+			final IntegrationFlowContext integrationFlowContext,
+			final SqsBaseSettings sqsBaseSettings,
+			final ObjectProvider<SqsPayloadStore> sqsPayloadStore,
+			final ObjectProvider<MeterRegistry> meterRegistry
 	) {
-		return new SqsProducerFactory(objectMapper, nonBufferedAmazonSqs, integrationFlowContext);
+		return new SqsProducerFactory(
+				objectMapper,
+				nonBufferedAmazonSqs,
+				integrationFlowContext,
+				sqsBaseSettings,
+				sqsPayloadStore.getIfAvailable(),
+				meterRegistry.getIfAvailable(() -> Metrics.globalRegistry)
+		);
 	}
 }
\ No newline at end of file
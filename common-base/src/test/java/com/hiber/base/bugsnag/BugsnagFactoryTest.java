@@ -0,0 +1,106 @@
+package com.hiber.base.bugsnag;
+
+import com.bugsnag.Bugsnag;
+import com.bugsnag.delivery.HttpDelivery;
+import com.bugsnag.serialization.Serializer;
+import com.hiber.base.bugsnag.BugsnagFactory.BoundedDelivery;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.net.Proxy;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BugsnagFactoryTest {
+	private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final BlockingDelivery baseDelivery = new BlockingDelivery();
+	private final BoundedDelivery delivery = BugsnagFactory.createDelivery(baseDelivery, meterRegistry);
+
+	@AfterEach
+	void destroy() {
+		baseDelivery.release.countDown();
+		delivery.close();
+	}
+
+	@Test
+	void shouldCreateBugsnagWithDeliveryCountingDropsInGivenRegistry() {
+		final Bugsnag bugsnag = BugsnagFactory.create("api-key", meterRegistry);
+		try {
+			assertThat(bugsnag.getDelivery()).isInstanceOf(BoundedDelivery.class);
+			assertThat(meterRegistry.find("bugsnag_dropped_reports").counter()).isNotNull();
+		}
+		finally {
+			bugsnag.close();
+		}
+		assertThat(((BoundedDelivery) bugsnag.getDelivery()).isClosed()).isTrue();
+	}
+
+	@Test
+	void shouldDropReportsWhenTooManyAreWaiting() throws Exception {
+		delivery.deliver(null, "delivering", Map.of());
+		assertThat(baseDelivery.delivering.await(5, TimeUnit.SECONDS)).isTrue();
+		for (int i = 0; i < BugsnagFactory.MAX_PENDING_REPORTS + 2; i++)
+			delivery.deliver(null, "report-" + i, Map.of());
+
+		assertThat(delivery.getPending()).isEqualTo(BugsnagFactory.MAX_PENDING_REPORTS);
+		assertThat(meterRegistry.get("bugsnag_dropped_reports").counter().count()).isEqualTo(2);
+	}
+
+	@Test
+	void shouldDeliverPendingReportsWhenClosed() throws Exception {
+		delivery.deliver(null, "delivering", Map.of());
+		assertThat(baseDelivery.delivering.await(5, TimeUnit.SECONDS)).isTrue();
+		delivery.deliver(null, "pending", Map.of());
+
+		baseDelivery.release.countDown();
+		delivery.close();
+
+		assertThat(baseDelivery.delivered).containsExactly("delivering", "pending");
+		assertThat(baseDelivery.closed).isTrue();
+	}
+
+	/**
+	 * Records delivered reports, blocking until released.
+	 */
+	private static class BlockingDelivery implements HttpDelivery {
+		private final CountDownLatch delivering = new CountDownLatch(1);
+		private final CountDownLatch release = new CountDownLatch(1);
+		private final List<Object> delivered = new CopyOnWriteArrayList<>();
+		private volatile boolean closed;
+
+		@Override
+		public void deliver(final Serializer serializer, final Object object, final Map<String, String> headers) {
+			delivering.countDown();
+			try {
+				release.await();
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			delivered.add(object);
+		}
+
+		@Override
+		public void setEndpoint(final String endpoint) {
+		}
+
+		@Override
+		public void setTimeout(final int timeout) {
+		}
+
+		@Override
+		public void setProxy(final Proxy proxy) {
+		}
+
+		@Override
+		public void close() {
+			closed = true;
+		}
+	}
+}
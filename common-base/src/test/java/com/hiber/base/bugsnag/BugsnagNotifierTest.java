@@ -0,0 +1,54 @@
+package com.hiber.base.bugsnag;
+
+import com.bugsnag.Bugsnag;
+import com.hiber.base.bugsnag.BugsnagNotifier.SharedBugsnag;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BugsnagNotifierTest {
+	@Test
+	void shouldShareSingleInstance() throws Exception {
+		final AtomicInteger created = new AtomicInteger();
+		final Bugsnag bugsnag = new Bugsnag("api-key", false);
+		final SharedBugsnag shared = new SharedBugsnag(() -> {
+			created.incrementAndGet();
+			return bugsnag;
+		});
+
+		final ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			final List<Callable<Bugsnag>> tasks = IntStream.range(0, 32)
+					.mapToObj(i -> (Callable<Bugsnag>) shared::get)
+					.collect(Collectors.toList());
+			for (final Future<Bugsnag> future : executor.invokeAll(tasks))
+				assertThat(future.get()).isSameAs(bugsnag);
+		}
+		finally {
+			executor.shutdown();
+			bugsnag.close();
+		}
+		assertThat(created).hasValue(1);
+	}
+
+	@Test
+	void shouldNotRetryCreatingMissingInstance() {
+		final AtomicInteger created = new AtomicInteger();
+		final SharedBugsnag shared = new SharedBugsnag(() -> {
+			created.incrementAndGet();
+			return null;
+		});
+
+		assertThat(shared.get()).isNull();
+		assertThat(shared.get()).isNull();
+		assertThat(created).hasValue(1);
+	}
+}
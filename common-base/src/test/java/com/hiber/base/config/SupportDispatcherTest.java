@@ -0,0 +1,104 @@
+package com.hiber.base.config;
+
+import com.hiber.base.config.SupportDispatcher.RepeatedErrorException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SupportDispatcherTest {
+	private static final int BURST = 3;
+
+	private final List<Throwable> notified = new CopyOnWriteArrayList<>();
+	private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final SupportDispatcher dispatcher = new SupportDispatcher(
+			List.of(notified::add),
+			new SupportSettings(100, BURST, 60_000, 60_000),
+			meterRegistry
+	);
+
+	@AfterEach
+	void destroy() throws Exception {
+		dispatcher.destroy();
+	}
+
+	@Test
+	void shouldLimitNotificationsAboutSameError() throws Exception {
+		for (int i = 0; i < 10; i++)
+			dispatcher.notify(error("same"));
+		dispatcher.notify(new IllegalArgumentException("other"));
+
+		awaitNotifications(BURST + 1);
+		assertThat(notified).hasSize(BURST + 1);
+		assertThat(outcome("suppressed")).isEqualTo(10 - BURST);
+	}
+
+	@Test
+	void shouldSendCountOfSuppressedNotificationsOncePerWindow() throws Exception {
+		for (int i = 0; i < 10; i++)
+			dispatcher.notify(error("message-" + i));
+
+		dispatcher.flushWindow();
+
+		awaitNotifications(BURST + 1);
+		final Throwable repeated = notified.get(BURST);
+		assertThat(repeated).isInstanceOf(RepeatedErrorException.class).hasMessageContaining("message-9");
+		assertThat(((RepeatedErrorException) repeated).getCount()).isEqualTo(10 - BURST);
+	}
+
+	@Test
+	void shouldDropNotificationsWhenBufferIsFull() throws Exception {
+		final CountDownLatch blocked = new CountDownLatch(1);
+		final SupportDispatcher blocking = new SupportDispatcher(
+				List.of(throwable -> await(blocked)),
+				new SupportSettings(1, 100, 60_000, 60_000),
+				meterRegistry
+		);
+		try {
+			for (int i = 0; i < 5; i++)
+				blocking.notify(new IllegalStateException("error " + i));
+
+			assertThat(outcome("dropped")).isGreaterThanOrEqualTo(3);
+		}
+		finally {
+			blocked.countDown();
+			blocking.destroy();
+		}
+	}
+
+	@Test
+	void shouldFingerprintByTypeAndStack() {
+		assertThat(SupportDispatcher.fingerprint(error("a"))).isEqualTo(SupportDispatcher.fingerprint(error("b")));
+		assertThat(SupportDispatcher.fingerprint(error("a")))
+				.isNotEqualTo(SupportDispatcher.fingerprint(new IllegalStateException("a")));
+	}
+
+	private static IllegalStateException error(final String message) {
+		return new IllegalStateException(message);
+	}
+
+	private double outcome(final String outcome) {
+		return meterRegistry.get("support_notifications").tag("outcome", outcome).counter().count();
+	}
+
+	private void awaitNotifications(final int count) throws InterruptedException {
+		final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (notified.size() < count && System.nanoTime() < deadline)
+			Thread.sleep(10);
+	}
+
+	private static void await(final CountDownLatch latch) {
+		try {
+			latch.await();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,12 @@
+package com.hiber.base.integration;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ModuleMetadataFactoryTest {
+	@Test
+	void shouldReadMetadataOnce() {
+		assertThat(ModuleMetadataFactory.create()).isSameAs(ModuleMetadataFactory.create());
+	}
+}
@@ -0,0 +1,107 @@
+package com.hiber.base.integration.aws.sqs;
+
+import com.amazonaws.services.sqs.model.Message;
+import com.amazonaws.services.sqs.model.ReceiveMessageRequest;
+import com.amazonaws.services.sqs.model.ReceiveMessageResult;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.support.MessageBuilder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AdaptiveReceiveBatchSizeTest {
+	private static final int WORKERS = 10;
+	private static final int MAX_IN_FLIGHT = 100;
+	private static final long MAX_DRAIN_TIME = 5000;
+
+	private final AdaptiveReceiveBatchSize batchSize = new AdaptiveReceiveBatchSize(2, WORKERS, MAX_IN_FLIGHT, MAX_DRAIN_TIME);
+
+	@Test
+	void shouldGrowUpToTenWhileQueueIsBacklogged() {
+		for (int i = 0; i < 20; i++) {
+			receive(batchSize.getBatchSize());
+			consumeAll();
+		}
+
+		assertThat(batchSize.getBatchSize()).isEqualTo(AdaptiveReceiveBatchSize.MAX_BATCH_SIZE);
+	}
+
+	@Test
+	void shouldNotGrowWhenQueueIsNotBacklogged() {
+		receive(1);
+
+		assertThat(batchSize.getBatchSize()).isEqualTo(2);
+	}
+
+	@Test
+	void shouldShrinkWhenInFlightLimitIsReached() {
+		for (int i = 0; i < 20; i++)
+			receive(batchSize.getBatchSize());
+
+		assertThat(batchSize.getInFlight()).isGreaterThanOrEqualTo(MAX_IN_FLIGHT);
+		assertThat(batchSize.getBatchSize()).isLessThan(AdaptiveReceiveBatchSize.MAX_BATCH_SIZE);
+	}
+
+	@Test
+	void shouldShrinkWhenConsumersAreTooSlow() {
+		for (int i = 0; i < 20; i++) {
+			receive(batchSize.getBatchSize());
+			consumeAll();
+		}
+		batchSize.recordLatency(10000);
+
+		receive(batchSize.getBatchSize());
+		receive(batchSize.getBatchSize());
+		receive(batchSize.getBatchSize());
+
+		assertThat(batchSize.getBatchSize()).isEqualTo(AdaptiveReceiveBatchSize.MIN_BATCH_SIZE);
+	}
+
+	@Test
+	void shouldNotCountMessagesThatWereNotHandedOver() {
+		receive(5);
+		consumeAll();
+
+		final org.springframework.messaging.Message<String> message = MessageBuilder.withPayload("message").build();
+		batchSize.preSend(message, null);
+		batchSize.afterSendCompletion(message, null, false, new IllegalStateException("Workers are shut down"));
+
+		assertThat(batchSize.getInFlight()).isZero();
+	}
+
+	@Test
+	void shouldNotCountReceivedMessagesUntilTheyAreSent() {
+		final ReceiveMessageRequest request = batchSize.beforeReceive(new ReceiveMessageRequest("queue"));
+		batchSize.afterReceive(request, new ReceiveMessageResult().withMessages(new Message(), new Message()));
+
+		assertThat(batchSize.getInFlight()).isZero();
+	}
+
+	@Test
+	void shouldRejectInvalidSettings() {
+		assertThatThrownBy(() -> new AdaptiveReceiveBatchSize(2, 0, MAX_IN_FLIGHT, MAX_DRAIN_TIME))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> new AdaptiveReceiveBatchSize(2, WORKERS, 0, MAX_DRAIN_TIME))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	private void receive(final int numberOfMessages) {
+		final ReceiveMessageRequest request = batchSize.beforeReceive(new ReceiveMessageRequest("queue"));
+		final ReceiveMessageResult result = new ReceiveMessageResult().withMessages(
+				IntStream.range(0, numberOfMessages).mapToObj(i -> new Message()).collect(Collectors.toList())
+		);
+		batchSize.afterReceive(request, result);
+		for (int i = 0; i < numberOfMessages; i++) {
+			final org.springframework.messaging.Message<String> message = MessageBuilder.withPayload("message").build();
+			batchSize.preSend(message, null);
+			batchSize.afterSendCompletion(message, null, true, null);
+		}
+	}
+
+	private void consumeAll() {
+		while (batchSize.getInFlight() > 0)
+			batchSize.afterMessageHandled(null, null, null, null);
+	}
+}
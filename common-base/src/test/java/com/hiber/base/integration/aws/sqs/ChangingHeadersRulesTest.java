@@ -0,0 +1,62 @@
+package com.hiber.base.integration.aws.sqs;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChangingHeadersRulesTest {
+	private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final ChangingHeadersRules outbound = ChangingHeadersRules.outbound(
+			ChangingHeadersDefaults.DEFAULT_BOOLEAN_HEADERS,
+			ChangingHeadersDefaults.DEFAULT_REMOVE_HEADERS,
+			meterRegistry
+	);
+	private final ChangingHeadersRules inbound = ChangingHeadersRules.inbound(
+			ChangingHeadersDefaults.DEFAULT_BOOLEAN_HEADERS,
+			meterRegistry
+	);
+
+	@Test
+	void shouldReturnSameMessageWhenNothingChanges() {
+		final Message<String> message = MessageBuilder.withPayload("payload").setHeader("other", true).build();
+
+		assertThat(outbound.apply(message)).isSameAs(message);
+		assertThat(inbound.apply(message)).isSameAs(message);
+	}
+
+	@Test
+	void shouldChangeAndRemoveHeadersOfSentMessage() {
+		final Message<String> message = MessageBuilder.withPayload("payload")
+				.setHeader(ChangingHeadersDefaults.SLEUTH_MESSAGE_SENT_HEADER, true)
+				.setHeader(ChangingHeadersDefaults.UNKNOWN_NATIVE_HEADERS_HEADER, "native")
+				.build();
+
+		final Message<?> changed = outbound.apply(message);
+
+		assertThat(changed.getHeaders().get(ChangingHeadersDefaults.SLEUTH_MESSAGE_SENT_HEADER)).isEqualTo("true");
+		assertThat(changed.getHeaders()).doesNotContainKey(ChangingHeadersDefaults.UNKNOWN_NATIVE_HEADERS_HEADER);
+		assertThat(changed.getPayload()).isEqualTo("payload");
+		assertThat(counter(ChangingHeadersDefaults.SLEUTH_MESSAGE_SENT_HEADER, "boolean_to_string")).isEqualTo(1);
+		assertThat(counter(ChangingHeadersDefaults.UNKNOWN_NATIVE_HEADERS_HEADER, "remove")).isEqualTo(1);
+	}
+
+	@Test
+	void shouldChangeHeadersOfReceivedMessage() {
+		final Message<String> message = MessageBuilder.withPayload("payload")
+				.setHeader(ChangingHeadersDefaults.SLEUTH_MESSAGE_SENT_HEADER, "true")
+				.build();
+
+		final Message<?> changed = inbound.apply(message);
+
+		assertThat(changed.getHeaders().get(ChangingHeadersDefaults.SLEUTH_MESSAGE_SENT_HEADER)).isEqualTo(true);
+		assertThat(counter(ChangingHeadersDefaults.SLEUTH_MESSAGE_SENT_HEADER, "string_to_boolean")).isEqualTo(1);
+	}
+
+	private double counter(final String header, final String change) {
+		return meterRegistry.get("aws_changed_headers").tag("header", header).tag("change", change).counter().count();
+	}
+}
@@ -0,0 +1,79 @@
+package com.hiber.base.integration.aws.sqs;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hiber.base.integration.jackson.Jackson2JsonToObjectTransformer;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExtendedPayloadTransformersTest {
+	private static final int THRESHOLD = 64;
+
+	private final MapPayloadStore payloadStore = new MapPayloadStore();
+	private final ExtendedPayloadOffloadingTransformer offloading = new ExtendedPayloadOffloadingTransformer(
+			payloadStore,
+			THRESHOLD
+	);
+	private final ExtendedPayloadResolvingTransformer resolving = new ExtendedPayloadResolvingTransformer(payloadStore);
+	private final Jackson2JsonToObjectTransformer json = new Jackson2JsonToObjectTransformer(Map.class, new ObjectMapper());
+
+	@Test
+	void shouldPassSmallMessagesUnchanged() {
+		final Message<String> message = MessageBuilder.withPayload("{\"value\":\"small\"}").build();
+
+		final Message<?> sent = offloading.transform(message);
+
+		assertThat(sent).isSameAs(message);
+		assertThat(payloadStore.payloads).isEmpty();
+		assertThat(resolving.transform(sent)).isSameAs(sent);
+	}
+
+	@Test
+	void shouldStoreBigMessagesAndReadThemBack() {
+		final String body = "{\"value\":\"" + "ł".repeat(THRESHOLD) + "\"}";
+
+		final Message<?> sent = offloading.transform(MessageBuilder.withPayload(body).setHeader("custom", "kept").build());
+
+		assertThat(payloadStore.payloads).hasSize(1);
+		assertThat(sent.getPayload()).isEqualTo("pointer-0");
+		assertThat(sent.getHeaders().get(SqsPayloadStore.EXTENDED_PAYLOAD_SIZE_HEADER)).isEqualTo(Integer.toString(2 * THRESHOLD + 12));
+		assertThat(sent.getHeaders().get("custom")).isEqualTo("kept");
+
+		final Message<?> received = resolving.transform(sent);
+
+		assertThat(received.getPayload()).isInstanceOf(InputStream.class);
+		assertThat(json.transform(received).getPayload()).isEqualTo(Map.of("value", "ł".repeat(THRESHOLD)));
+	}
+
+	@Test
+	void shouldCompareThresholdWithEncodedSize() {
+		// Fewer characters than the threshold, but more bytes.
+		final String body = "\"" + "ł".repeat(THRESHOLD / 2 + 1) + "\"";
+
+		offloading.transform(MessageBuilder.withPayload(body).build());
+
+		assertThat(payloadStore.payloads).hasSize(1);
+	}
+
+	private static class MapPayloadStore implements SqsPayloadStore {
+		private final Map<String, byte[]> payloads = new HashMap<>();
+
+		@Override
+		public String store(final byte[] payload) {
+			final String pointer = "pointer-" + payloads.size();
+			payloads.put(pointer, payload);
+			return pointer;
+		}
+
+		@Override
+		public InputStream open(final String pointer) {
+			return new ByteArrayInputStream(payloads.get(pointer));
+		}
+	}
+}
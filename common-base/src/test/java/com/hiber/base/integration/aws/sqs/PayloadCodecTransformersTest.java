@@ -0,0 +1,74 @@
+package com.hiber.base.integration.aws.sqs;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hiber.base.integration.jackson.Jackson2JsonToObjectTransformer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PayloadCodecTransformersTest {
+	private static final int MIN_SIZE = 100;
+	private static final String BODY = "{\"value\":\"" + "repeated text ".repeat(100) + "\"}";
+
+	private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final PayloadEncodingTransformer encoding = new PayloadEncodingTransformer(
+			SqsPayloadCodec.GZIP,
+			MIN_SIZE,
+			meterRegistry
+	);
+	private final PayloadDecodingTransformer decoding = new PayloadDecodingTransformer(meterRegistry);
+	private final Jackson2JsonToObjectTransformer json = new Jackson2JsonToObjectTransformer(Map.class, new ObjectMapper());
+
+	@Test
+	void shouldPassSmallMessagesUnchanged() {
+		final Message<String> message = MessageBuilder.withPayload("{\"value\":\"small\"}").build();
+
+		final Message<?> sent = encoding.transform(message);
+
+		assertThat(sent).isSameAs(message);
+		assertThat(decoding.transform(sent)).isSameAs(sent);
+	}
+
+	@Test
+	void shouldCompressMessagesAndReadThemBack() {
+		final Message<?> sent = encoding.transform(MessageBuilder.withPayload(BODY).build());
+
+		assertThat(sent.getHeaders().get(SqsPayloadCodec.PAYLOAD_CODEC_HEADER)).isEqualTo("gzip");
+		assertThat(((String) sent.getPayload()).length()).isLessThan(BODY.length() / 10);
+		assertThat(meterRegistry.get("sqs_payload_compression_ratio").summary().count()).isEqualTo(1);
+		assertThat(meterRegistry.get("sqs_payload_encode_wall_time").timer().count()).isEqualTo(1);
+
+		assertThat(json.transform(decoding.transform(sent)).getPayload())
+				.isEqualTo(Map.of("value", "repeated text ".repeat(100)));
+		assertThat(meterRegistry.get("sqs_payload_decode_wall_time").tag("codec", "gzip").timer().count()).isEqualTo(1);
+	}
+
+	@Test
+	void shouldRecordCompressionRatioOfUtf8Bytes() {
+		final String body = "{\"value\":\"" + "ł".repeat(MIN_SIZE * 10) + "\"}";
+
+		final Message<?> sent = encoding.transform(MessageBuilder.withPayload(body).build());
+
+		final double ratio = (double) ((String) sent.getPayload()).length() / body.getBytes(StandardCharsets.UTF_8).length;
+		assertThat(meterRegistry.get("sqs_payload_compression_ratio").summary().totalAmount()).isEqualTo(ratio * 100);
+	}
+
+	@Test
+	void shouldDecompressStreamedPayloads() {
+		final Message<?> sent = encoding.transform(MessageBuilder.withPayload(BODY).build());
+		final Message<?> streamed = MessageBuilder
+				.withPayload(new ByteArrayInputStream(((String) sent.getPayload()).getBytes(StandardCharsets.US_ASCII)))
+				.copyHeaders(sent.getHeaders())
+				.build();
+
+		assertThat(json.transform(decoding.transform(streamed)).getPayload())
+				.isEqualTo(Map.of("value", "repeated text ".repeat(100)));
+	}
+}
@@ -0,0 +1,32 @@
+package com.hiber.base.integration.aws.sqs;
+
+import com.amazonaws.services.sqs.model.ReceiveMessageRequest;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReceiveAttributesFilterTest {
+	@Test
+	void shouldSplitSystemAndMessageAttributes() {
+		final ReceiveAttributesFilter filter = new ReceiveAttributesFilter(
+				List.of("ApproximateReceiveCount", "MessageGroupId", "X-B3-TraceId", "PayloadCodec")
+		);
+
+		assertThat(filter.getAttributeNames()).containsExactly("ApproximateReceiveCount", "MessageGroupId");
+		assertThat(filter.getMessageAttributeNames()).containsExactly("X-B3-TraceId", "PayloadCodec");
+	}
+
+	@Test
+	void shouldReplaceRequestedAttributes() {
+		final ReceiveAttributesFilter filter = new ReceiveAttributesFilter(List.of("ApproximateReceiveCount", "b3"));
+		final ReceiveMessageRequest request = new ReceiveMessageRequest("http://localhost/queue")
+				.withAttributeNames("All")
+				.withMessageAttributeNames("All");
+
+		final ReceiveMessageRequest filtered = filter.beforeReceive(request);
+
+		assertThat(filtered.getAttributeNames()).containsExactly("ApproximateReceiveCount");
+		assertThat(filtered.getMessageAttributeNames()).containsExactly("b3");
+	}
+}
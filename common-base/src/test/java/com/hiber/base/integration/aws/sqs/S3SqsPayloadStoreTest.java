@@ -0,0 +1,84 @@
+package com.hiber.base.integration.aws.sqs;
+
+import com.amazonaws.services.s3.AbstractAmazonS3;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.PutObjectResult;
+import com.amazonaws.services.s3.model.S3Object;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class S3SqsPayloadStoreTest {
+	private static final String BUCKET = "bucket";
+	private static final String KEY_PREFIX = "sqs-payloads/";
+
+	private final MapAmazonS3 amazonS3 = new MapAmazonS3();
+	private final S3SqsPayloadStore store = new S3SqsPayloadStore(amazonS3, BUCKET, KEY_PREFIX);
+
+	@Test
+	void shouldOpenStoredBody() throws IOException {
+		final String pointer = store.store("{\"value\":1}".getBytes(StandardCharsets.UTF_8));
+
+		assertThat(pointer).startsWith("s3://" + BUCKET + "/" + KEY_PREFIX);
+		try (InputStream body = store.open(pointer)) {
+			assertThat(new String(body.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("{\"value\":1}");
+		}
+	}
+
+	@Test
+	void shouldRejectPointerToAnotherBucket() {
+		amazonS3.objects.put("other/" + KEY_PREFIX + "secret.json", new byte[0]);
+
+		assertThatThrownBy(() -> store.open("s3://other/" + KEY_PREFIX + "secret.json")).isInstanceOf(IOException.class);
+	}
+
+	@Test
+	void shouldRejectPointerOutsideOfKeyPrefix() {
+		amazonS3.objects.put(BUCKET + "/secret.json", new byte[0]);
+
+		assertThatThrownBy(() -> store.open("s3://" + BUCKET + "/secret.json")).isInstanceOf(IOException.class);
+	}
+
+	@Test
+	void shouldRejectInvalidPointer() {
+		assertThatThrownBy(() -> store.open("http://localhost/" + KEY_PREFIX + "body.json")).isInstanceOf(IOException.class);
+	}
+
+	/**
+	 * Keeps objects in a map keyed by <code>bucket/key</code>.
+	 */
+	private static class MapAmazonS3 extends AbstractAmazonS3 {
+		private final Map<String, byte[]> objects = new HashMap<>();
+
+		@Override
+		public PutObjectResult putObject(
+				final String bucketName,
+				final String key,
+				final InputStream input,
+				final ObjectMetadata metadata
+		) {
+			try {
+				objects.put(bucketName + "/" + key, input.readAllBytes());
+			}
+			catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			return new PutObjectResult();
+		}
+
+		@Override
+		public S3Object getObject(final String bucketName, final String key) {
+			final S3Object object = new S3Object();
+			object.setObjectContent(new ByteArrayInputStream(objects.get(bucketName + "/" + key)));
+			return object;
+		}
+	}
+}
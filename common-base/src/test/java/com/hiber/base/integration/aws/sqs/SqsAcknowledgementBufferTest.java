@@ -0,0 +1,138 @@
+package com.hiber.base.integration.aws.sqs;
+
+import com.amazonaws.handlers.AsyncHandler;
+import com.amazonaws.services.sqs.AbstractAmazonSQSAsync;
+import com.amazonaws.services.sqs.model.AmazonSQSException;
+import com.amazonaws.services.sqs.model.BatchResultErrorEntry;
+import com.amazonaws.services.sqs.model.DeleteMessageBatchRequest;
+import com.amazonaws.services.sqs.model.DeleteMessageBatchRequestEntry;
+import com.amazonaws.services.sqs.model.DeleteMessageBatchResult;
+import com.amazonaws.services.sqs.model.DeleteMessageBatchResultEntry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SqsAcknowledgementBufferTest {
+	private static final String QUEUE_URL = "http://localhost/queue";
+	private static final String OTHER_QUEUE_URL = "http://localhost/other-queue";
+	private static final long MAX_DELAY_MILLIS = 50;
+
+	private final RecordingAmazonSqs amazonSqs = new RecordingAmazonSqs();
+	private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private SqsAcknowledgementBuffer buffer = new SqsAcknowledgementBuffer(amazonSqs, 60_000, meterRegistry);
+
+	@AfterEach
+	void destroy() {
+		buffer.destroy();
+	}
+
+	@Test
+	void shouldDeleteFullBatchAtOnce() {
+		IntStream.range(0, SqsBatchingBuffer.MAX_BATCH_SIZE + 1).forEach(i -> buffer.acknowledge(QUEUE_URL, "handle-" + i));
+
+		assertThat(amazonSqs.requests).hasSize(1);
+		assertThat(receiptHandles(amazonSqs.requests.get(0))).containsExactlyElementsOf(
+				IntStream.range(0, SqsBatchingBuffer.MAX_BATCH_SIZE).mapToObj(i -> "handle-" + i).collect(Collectors.toList())
+		);
+		assertThat(buffer.getPending()).isEqualTo(1);
+		assertThat(meterRegistry.get("sqs_acknowledgements_pending").gauge().value()).isEqualTo(1);
+		assertThat(meterRegistry.get("sqs_acknowledgements_flush").timer().count()).isEqualTo(1);
+	}
+
+	@Test
+	void shouldDeleteIncompleteBatchAfterMaxDelay() throws Exception {
+		buffer.destroy();
+		buffer = new SqsAcknowledgementBuffer(amazonSqs, MAX_DELAY_MILLIS, meterRegistry);
+
+		buffer.acknowledge(QUEUE_URL, "handle");
+
+		final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(MAX_DELAY_MILLIS * 20);
+		while (amazonSqs.requests.isEmpty() && System.nanoTime() < deadline)
+			Thread.sleep(10);
+		assertThat(amazonSqs.requests).hasSize(1);
+		assertThat(receiptHandles(amazonSqs.requests.get(0))).containsExactly("handle");
+		assertThat(buffer.getPending()).isZero();
+	}
+
+	@Test
+	void shouldDeleteMessagesOfEveryQueueSeparately() {
+		buffer.acknowledge(QUEUE_URL, "first");
+		buffer.acknowledge(OTHER_QUEUE_URL, "second");
+		buffer.flush();
+
+		assertThat(amazonSqs.requests)
+				.extracting(DeleteMessageBatchRequest::getQueueUrl)
+				.containsExactlyInAnyOrder(QUEUE_URL, OTHER_QUEUE_URL);
+	}
+
+	@Test
+	void shouldCountMessagesThatCouldNotBeDeleted() {
+		buffer.acknowledge(QUEUE_URL, "handle");
+		buffer.acknowledge(QUEUE_URL, RecordingAmazonSqs.INVALID);
+		buffer.flush();
+
+		assertThat(meterRegistry.get("sqs_acknowledgements_failed").counter().count()).isEqualTo(1);
+		assertThat(buffer.getPending()).isZero();
+	}
+
+	@Test
+	void shouldCountAllMessagesOfFailedRequest() {
+		amazonSqs.failing = true;
+
+		buffer.acknowledge(QUEUE_URL, "first");
+		buffer.acknowledge(QUEUE_URL, "second");
+		buffer.flush();
+
+		assertThat(meterRegistry.get("sqs_acknowledgements_failed").counter().count()).isEqualTo(2);
+		assertThat(meterRegistry.get("sqs_acknowledgements_flush").timer().count()).isZero();
+		assertThat(buffer.getPending()).isZero();
+	}
+
+	private static List<String> receiptHandles(final DeleteMessageBatchRequest request) {
+		return request.getEntries().stream().map(DeleteMessageBatchRequestEntry::getReceiptHandle).collect(Collectors.toList());
+	}
+
+	/**
+	 * Records batch requests and completes them at once, failing entries with the {@link #INVALID} receipt handle.
+	 */
+	private static class RecordingAmazonSqs extends AbstractAmazonSQSAsync {
+		private static final String INVALID = "invalid";
+
+		private final List<DeleteMessageBatchRequest> requests = new CopyOnWriteArrayList<>();
+		private volatile boolean failing;
+
+		@Override
+		public Future<DeleteMessageBatchResult> deleteMessageBatchAsync(
+				final DeleteMessageBatchRequest request,
+				final AsyncHandler<DeleteMessageBatchRequest, DeleteMessageBatchResult> asyncHandler
+		) {
+			requests.add(request);
+			if (failing) {
+				final AmazonSQSException exception = new AmazonSQSException("Service unavailable");
+				asyncHandler.onError(exception);
+				return CompletableFuture.failedFuture(exception);
+			}
+
+			final DeleteMessageBatchResult result = new DeleteMessageBatchResult();
+			for (final DeleteMessageBatchRequestEntry entry : request.getEntries()) {
+				if (INVALID.equals(entry.getReceiptHandle()))
+					result.withFailed(new BatchResultErrorEntry().withId(entry.getId()).withCode("ReceiptHandleIsInvalid"));
+				else
+					result.withSuccessful(new DeleteMessageBatchResultEntry().withId(entry.getId()));
+			}
+			asyncHandler.onSuccess(request, result);
+			return CompletableFuture.completedFuture(result);
+		}
+	}
+}
@@ -0,0 +1,206 @@
+package com.hiber.base.integration.aws.sqs;
+
+import com.amazonaws.handlers.AsyncHandler;
+import com.amazonaws.services.sqs.AbstractAmazonSQSAsync;
+import com.amazonaws.services.sqs.model.ChangeMessageVisibilityBatchRequest;
+import com.amazonaws.services.sqs.model.ChangeMessageVisibilityBatchResult;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.integration.aws.support.AwsHeaders;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.support.MessageBuilder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class SqsFifoLanesTest {
+	private static final String QUEUE_URL = "http://localhost/queue.fifo";
+	private static final int LANES = 4;
+
+	private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final Map<String, List<Integer>> consumed = new ConcurrentHashMap<>();
+	private final AtomicInteger concurrent = new AtomicInteger();
+	private final AtomicInteger maxConcurrent = new AtomicInteger();
+	private final CountDownLatch done = new CountDownLatch(40);
+	private final Set<String> failing = ConcurrentHashMap.newKeySet();
+	private final List<Throwable> errors = new CopyOnWriteArrayList<>();
+	private final RecordingAmazonSqs amazonSqs = new RecordingAmazonSqs();
+	private final SqsVisibilityChangeBuffer visibilityChangeBuffer = new SqsVisibilityChangeBuffer(amazonSqs, 60_000, meterRegistry);
+	private final SqsFifoLanes lanes = createLanes(60_000);
+
+	@AfterEach
+	void destroy() {
+		lanes.destroy();
+		visibilityChangeBuffer.destroy();
+	}
+
+	@Test
+	void shouldConsumeMessagesOfGroupInOrder() throws Exception {
+		for (int i = 0; i < 10; i++) {
+			for (int group = 0; group < 4; group++)
+				lanes.handleMessage(message("group-" + group, i));
+		}
+
+		assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(consumed).hasSize(4);
+		consumed.values().forEach(values -> assertThat(values).containsExactly(0, 1, 2, 3, 4, 5, 6, 7, 8, 9));
+	}
+
+	@Test
+	void shouldConsumeDifferentGroupsInParallel() throws Exception {
+		for (int i = 0; i < 40; i++)
+			lanes.handleMessage(message("group-" + i, i));
+
+		assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(maxConcurrent.get()).isGreaterThan(1).isLessThanOrEqualTo(LANES);
+	}
+
+	@Test
+	void shouldSkipRestOfFailedGroupUntilFailedMessageIsRedelivered() throws Exception {
+		failing.add("message-0");
+		for (int i = 0; i < 3; i++)
+			lanes.handleMessage(message("group", i));
+
+		await(() -> meterRegistry.get("sqs_fifo_lane_skipped").counter().count() == 2);
+		assertThat(consumed).doesNotContainKey("group");
+		visibilityChangeBuffer.flush();
+		assertThat(amazonSqs.requests).hasSize(1);
+		assertThat(amazonSqs.requests.get(0).getEntries())
+				.extracting("receiptHandle", "visibilityTimeout")
+				.containsExactly(tuple("handle-1", 0), tuple("handle-2", 0));
+
+		for (int i = 0; i < 3; i++)
+			lanes.handleMessage(message("group", i));
+
+		await(() -> consumed.getOrDefault("group", List.of()).size() == 3);
+		assertThat(consumed.get("group")).containsExactly(0, 1, 2);
+	}
+
+	@Test
+	void shouldResumeFailedGroupWhenSkippedMessageIsRedelivered() throws Exception {
+		failing.add("message-0");
+		lanes.handleMessage(message("group", 0));
+		lanes.handleMessage(message("group", 1));
+		lanes.handleMessage(message("group", 1));
+
+		await(() -> consumed.containsKey("group"));
+		assertThat(consumed.get("group")).containsExactly(1);
+	}
+
+	@Test
+	void shouldForgetFailedGroupAfterTimeout() throws Exception {
+		final SqsFifoLanes expiringLanes = createLanes(50);
+		try {
+			failing.add("message-0");
+			expiringLanes.handleMessage(message("group", 0));
+			await(() -> !errors.isEmpty());
+			Thread.sleep(100);
+
+			expiringLanes.handleMessage(message("group", 1));
+
+			await(() -> consumed.containsKey("group"));
+			assertThat(consumed.get("group")).containsExactly(1);
+			assertThat(meterRegistry.get("sqs_fifo_lane_skipped").counter().count()).isZero();
+		}
+		finally {
+			expiringLanes.destroy();
+		}
+	}
+
+	@Test
+	void shouldPassExceptionsWithFailedMessagesToErrorHandler() throws Exception {
+		failing.add("message-0");
+		lanes.handleMessage(message("group", 0));
+
+		await(() -> !errors.isEmpty());
+		assertThat(errors.get(0)).isInstanceOf(MessagingException.class).hasCauseInstanceOf(IllegalStateException.class);
+		assertThat(((MessagingException) errors.get(0)).getFailedMessage().getPayload()).isEqualTo(0);
+	}
+
+	@Test
+	void shouldExposeDepthOfLanes() {
+		assertThat(meterRegistry.find("sqs_fifo_lane_depth").gauges()).hasSize(LANES);
+	}
+
+	private SqsFifoLanes createLanes(final long failedGroupTimeoutMillis) {
+		return new SqsFifoLanes(
+				QUEUE_URL,
+				"test",
+				LANES,
+				LANES * 2,
+				(message, timeout) -> {
+					if (failing.remove(message.getHeaders().get(AwsHeaders.MESSAGE_ID, String.class)))
+						throw new IllegalStateException("Consuming failed");
+					final int current = concurrent.incrementAndGet();
+					maxConcurrent.accumulateAndGet(current, Math::max);
+					sleep();
+					final String groupId = message.getHeaders().get(SqsFifoLanes.MESSAGE_GROUP_ID_HEADER, String.class);
+					consumed.computeIfAbsent(groupId, group -> new CopyOnWriteArrayList<>()).add((Integer) message.getPayload());
+					concurrent.decrementAndGet();
+					done.countDown();
+					return true;
+				},
+				visibilityChangeBuffer,
+				failedGroupTimeoutMillis,
+				errors::add,
+				List.of(),
+				meterRegistry
+		);
+	}
+
+	private static Message<Integer> message(final String groupId, final int value) {
+		return MessageBuilder.withPayload(value)
+				.setHeader(SqsFifoLanes.MESSAGE_GROUP_ID_HEADER, groupId)
+				.setHeader(AwsHeaders.MESSAGE_ID, "message-" + value)
+				.setHeader(AwsHeaders.RECEIPT_HANDLE, "handle-" + value)
+				.build();
+	}
+
+	private static void await(final BooleanSupplier condition) throws InterruptedException {
+		final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (!condition.getAsBoolean() && System.nanoTime() < deadline)
+			Thread.sleep(10);
+		assertThat(condition.getAsBoolean()).isTrue();
+	}
+
+	private static void sleep() {
+		try {
+			Thread.sleep(5);
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Records visibility change requests and completes them at once.
+	 */
+	private static class RecordingAmazonSqs extends AbstractAmazonSQSAsync {
+		private final List<ChangeMessageVisibilityBatchRequest> requests = new CopyOnWriteArrayList<>();
+
+		@Override
+		public Future<ChangeMessageVisibilityBatchResult> changeMessageVisibilityBatchAsync(
+				final ChangeMessageVisibilityBatchRequest request,
+				final AsyncHandler<ChangeMessageVisibilityBatchRequest, ChangeMessageVisibilityBatchResult> asyncHandler
+		) {
+			requests.add(request);
+			final ChangeMessageVisibilityBatchResult result = new ChangeMessageVisibilityBatchResult();
+			asyncHandler.onSuccess(request, result);
+			return CompletableFuture.completedFuture(result);
+		}
+	}
+}
@@ -0,0 +1,43 @@
+package com.hiber.base.integration.aws.sqs;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.integration.aws.support.AwsHeaders;
+import org.springframework.integration.channel.QueueChannel;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.support.MessageBuilder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SqsReceivedQueueRouterTest {
+	private static final String QUEUE_URL = "http://localhost/queue";
+
+	private final QueueChannel channel = new QueueChannel();
+	private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final SqsReceivedQueueRouter router = new SqsReceivedQueueRouter(Map.of(QUEUE_URL, channel), meterRegistry);
+
+	@Test
+	void shouldRouteMessageToChannelOfReceivedQueue() {
+		router.handleMessage(message(QUEUE_URL));
+
+		assertThat(channel.getQueueSize()).isEqualTo(1);
+	}
+
+	@Test
+	void shouldRejectAndCountMessageOfUnknownQueue() {
+		assertThatThrownBy(() -> router.handleMessage(message("http://localhost/unknown")))
+				.isInstanceOf(MessageDeliveryException.class)
+				.hasMessageContaining("http://localhost/unknown");
+
+		assertThat(meterRegistry.counter("sqs_router_unknown_queue", "queue", "http://localhost/unknown").count()).isEqualTo(1);
+		assertThat(channel.getQueueSize()).isZero();
+	}
+
+	private static Message<String> message(final String queueUrl) {
+		return MessageBuilder.withPayload("{}").setHeader(AwsHeaders.RECEIVED_QUEUE, queueUrl).build();
+	}
+}
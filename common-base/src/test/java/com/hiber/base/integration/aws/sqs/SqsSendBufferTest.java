@@ -0,0 +1,177 @@
+package com.hiber.base.integration.aws.sqs;
+
+import com.amazonaws.handlers.AsyncHandler;
+import com.amazonaws.services.sqs.AbstractAmazonSQSAsync;
+import com.amazonaws.services.sqs.model.AmazonSQSException;
+import com.amazonaws.services.sqs.model.BatchResultErrorEntry;
+import com.amazonaws.services.sqs.model.SendMessageBatchRequest;
+import com.amazonaws.services.sqs.model.SendMessageBatchRequestEntry;
+import com.amazonaws.services.sqs.model.SendMessageBatchResult;
+import com.amazonaws.services.sqs.model.SendMessageBatchResultEntry;
+import com.amazonaws.services.sqs.model.SendMessageResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SqsSendBufferTest {
+	private static final String QUEUE_URL = "http://localhost/queue";
+	private static final String FIFO_QUEUE_URL = "http://localhost/queue.fifo";
+	private static final long LINGER_MILLIS = 50;
+
+	private final RecordingAmazonSqs amazonSqs = new RecordingAmazonSqs();
+	private final SqsSendBuffer buffer = new SqsSendBuffer(amazonSqs, LINGER_MILLIS, new SimpleMeterRegistry());
+
+	@AfterEach
+	void destroy() {
+		// Batches held by tests are never released.
+		buffer.setDestroyTimeoutMillis(0);
+		buffer.destroy();
+	}
+
+	@Test
+	void shouldSendFullBatchAtOnce() throws Exception {
+		final List<CompletableFuture<SendMessageResult>> futures = IntStream.range(0, SqsBatchingBuffer.MAX_BATCH_SIZE)
+				.mapToObj(i -> buffer.enqueue(QUEUE_URL, entry("message-" + i)))
+				.collect(Collectors.toList());
+
+		assertThat(amazonSqs.requests).hasSize(1);
+		assertThat(amazonSqs.requests.get(0).getEntries()).hasSize(SqsBatchingBuffer.MAX_BATCH_SIZE);
+		for (int i = 0; i < futures.size(); i++)
+			assertThat(futures.get(i).get().getMessageId()).isEqualTo("id-message-" + i);
+		assertThat(buffer.getPending()).isZero();
+	}
+
+	@Test
+	void shouldSendBatchBeforeItExceedsMaxSize() {
+		final String body = "x".repeat(SqsSendBuffer.MAX_BATCH_BYTES / 3);
+
+		IntStream.range(0, 4).forEach(i -> buffer.enqueue(QUEUE_URL, entry(body)));
+
+		assertThat(amazonSqs.requests).hasSize(1);
+		assertThat(amazonSqs.requests.get(0).getEntries()).hasSize(3);
+		assertThat(buffer.getPending()).isEqualTo(1);
+	}
+
+	@Test
+	void shouldSendIncompleteBatchAfterLinger() throws Exception {
+		final CompletableFuture<SendMessageResult> future = buffer.enqueue(QUEUE_URL, entry("message"));
+
+		assertThat(future.get(LINGER_MILLIS * 10, TimeUnit.MILLISECONDS).getMessageId()).isEqualTo("id-message");
+	}
+
+	@Test
+	void shouldFailFuturesOfRejectedMessages() throws Exception {
+		final CompletableFuture<SendMessageResult> accepted = buffer.enqueue(QUEUE_URL, entry("message"));
+		final CompletableFuture<SendMessageResult> rejected = buffer.enqueue(QUEUE_URL, entry(RecordingAmazonSqs.REJECTED));
+		buffer.flush();
+
+		assertThat(accepted.get().getMessageId()).isEqualTo("id-message");
+		assertThatThrownBy(rejected::get)
+				.isInstanceOf(ExecutionException.class)
+				.hasCauseInstanceOf(AmazonSQSException.class);
+	}
+
+	@Test
+	void shouldSendBatchesOfFifoQueueOneAtATime() {
+		amazonSqs.holding = true;
+		IntStream.range(0, SqsBatchingBuffer.MAX_BATCH_SIZE * 3).forEach(i -> buffer.enqueue(FIFO_QUEUE_URL, entry("message-" + i)));
+
+		assertThat(amazonSqs.requests).hasSize(1);
+
+		amazonSqs.release();
+		assertThat(amazonSqs.requests).hasSize(2);
+
+		amazonSqs.release();
+		amazonSqs.release();
+		assertThat(amazonSqs.requests).hasSize(3);
+		assertThat(amazonSqs.requests.stream()
+				.flatMap(request -> request.getEntries().stream())
+				.map(SendMessageBatchRequestEntry::getMessageBody))
+				.containsExactlyElementsOf(IntStream.range(0, SqsBatchingBuffer.MAX_BATCH_SIZE * 3)
+						.mapToObj(i -> "message-" + i)
+						.collect(Collectors.toList()));
+		assertThat(buffer.getPending()).isZero();
+	}
+
+	@Test
+	void shouldSendBatchesOfStandardQueueConcurrently() {
+		amazonSqs.holding = true;
+		IntStream.range(0, SqsBatchingBuffer.MAX_BATCH_SIZE * 2).forEach(i -> buffer.enqueue(QUEUE_URL, entry("message-" + i)));
+
+		assertThat(amazonSqs.requests).hasSize(2);
+	}
+
+	@Test
+	void shouldFailFuturesOfRequestRejectedBeforeSending() {
+		amazonSqs.throwing = true;
+		final List<CompletableFuture<SendMessageResult>> futures = IntStream.range(0, SqsBatchingBuffer.MAX_BATCH_SIZE * 2)
+				.mapToObj(i -> buffer.enqueue(FIFO_QUEUE_URL, entry("message-" + i)))
+				.collect(Collectors.toList());
+
+		assertThat(futures).allMatch(CompletableFuture::isCompletedExceptionally);
+		assertThat(buffer.getPending()).isZero();
+
+		amazonSqs.throwing = false;
+		assertThat(buffer.enqueue(FIFO_QUEUE_URL, entry("message")).isCompletedExceptionally()).isFalse();
+		buffer.flush();
+		assertThat(buffer.getPending()).isZero();
+	}
+
+	private static SendMessageBatchRequestEntry entry(final String body) {
+		return new SendMessageBatchRequestEntry().withMessageBody(body);
+	}
+
+	/**
+	 * Records batch requests and confirms them at once, or when released if holding, rejecting messages with the
+	 * {@link #REJECTED} body.
+	 */
+	private static class RecordingAmazonSqs extends AbstractAmazonSQSAsync {
+		private static final String REJECTED = "rejected";
+
+		private final List<SendMessageBatchRequest> requests = new CopyOnWriteArrayList<>();
+		private final List<Runnable> held = new CopyOnWriteArrayList<>();
+		private volatile boolean holding;
+		private volatile boolean throwing;
+
+		@Override
+		public Future<SendMessageBatchResult> sendMessageBatchAsync(
+				final SendMessageBatchRequest request,
+				final AsyncHandler<SendMessageBatchRequest, SendMessageBatchResult> asyncHandler
+		) {
+			if (throwing)
+				throw new AmazonSQSException("Client is shut down");
+			requests.add(request);
+
+			final SendMessageBatchResult result = new SendMessageBatchResult();
+			for (final SendMessageBatchRequestEntry entry : request.getEntries()) {
+				if (REJECTED.equals(entry.getMessageBody()))
+					result.withFailed(new BatchResultErrorEntry().withId(entry.getId()).withCode("InvalidMessageContents"));
+				else
+					result.withSuccessful(new SendMessageBatchResultEntry()
+							.withId(entry.getId())
+							.withMessageId(entry.getMessageBody().length() > 100 ? "id" : "id-" + entry.getMessageBody()));
+			}
+			if (holding) {
+				held.add(() -> asyncHandler.onSuccess(request, result));
+				return new CompletableFuture<>();
+			}
+			asyncHandler.onSuccess(request, result);
+			return CompletableFuture.completedFuture(result);
+		}
+
+		void release() {
+			held.remove(0).run();
+		}
+	}
+}
@@ -0,0 +1,161 @@
+package com.hiber.base.integration.aws.sqs;
+
+import com.amazonaws.handlers.AsyncHandler;
+import com.amazonaws.services.sqs.AbstractAmazonSQSAsync;
+import com.amazonaws.services.sqs.model.AmazonSQSException;
+import com.amazonaws.services.sqs.model.BatchResultErrorEntry;
+import com.amazonaws.services.sqs.model.ChangeMessageVisibilityBatchRequest;
+import com.amazonaws.services.sqs.model.ChangeMessageVisibilityBatchRequestEntry;
+import com.amazonaws.services.sqs.model.ChangeMessageVisibilityBatchResult;
+import com.amazonaws.services.sqs.model.ChangeMessageVisibilityBatchResultEntry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class SqsVisibilityChangeBufferTest {
+	private static final String QUEUE_URL = "http://localhost/queue";
+	private static final int VISIBILITY_TIMEOUT = 30;
+
+	private final PendingAmazonSqs amazonSqs = new PendingAmazonSqs();
+	private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final SqsVisibilityChangeBuffer buffer = new SqsVisibilityChangeBuffer(amazonSqs, 60_000, meterRegistry);
+
+	@AfterEach
+	void destroy() {
+		// Requests left pending by tests are never completed.
+		buffer.setDestroyTimeoutMillis(0);
+		buffer.destroy();
+	}
+
+	@Test
+	void shouldChangeVisibilityInBatches() {
+		IntStream.range(0, SqsBatchingBuffer.MAX_BATCH_SIZE + 1)
+				.forEach(i -> buffer.changeVisibility(QUEUE_URL, "handle-" + i, VISIBILITY_TIMEOUT));
+
+		assertThat(amazonSqs.requests).hasSize(1);
+		assertThat(amazonSqs.requests.get(0).getEntries()).hasSize(SqsBatchingBuffer.MAX_BATCH_SIZE);
+		assertThat(amazonSqs.requests.get(0).getEntries().get(0))
+				.extracting("id", "receiptHandle", "visibilityTimeout")
+				.containsExactly("0", "handle-0", VISIBILITY_TIMEOUT);
+
+		buffer.flush();
+
+		assertThat(amazonSqs.requests).hasSize(2);
+		assertThat(amazonSqs.requests.get(1).getEntries())
+				.extracting("id", "receiptHandle")
+				.containsExactly(tuple("0", "handle-" + SqsBatchingBuffer.MAX_BATCH_SIZE));
+	}
+
+	@Test
+	void shouldNotWaitForSqs() {
+		buffer.changeVisibility(QUEUE_URL, "handle", VISIBILITY_TIMEOUT);
+		buffer.flush();
+
+		assertThat(amazonSqs.requests).hasSize(1);
+		assertThat(buffer.getPending()).isEqualTo(1);
+		assertThat(counter("sqs_visibility_changes_queued")).isEqualTo(1);
+		assertThat(counter("sqs_visibility_changes_flushed")).isZero();
+
+		amazonSqs.complete(0);
+
+		assertThat(buffer.getPending()).isZero();
+		assertThat(counter("sqs_visibility_changes_flushed")).isEqualTo(1);
+	}
+
+	@Test
+	void shouldWaitForPendingChangesWhenDestroyed() throws Exception {
+		buffer.changeVisibility(QUEUE_URL, "handle", VISIBILITY_TIMEOUT);
+		final Thread completing = new Thread(() -> {
+			try {
+				while (amazonSqs.requests.isEmpty())
+					Thread.sleep(10);
+				Thread.sleep(100);
+				amazonSqs.complete(0);
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		completing.start();
+
+		buffer.destroy();
+
+		assertThat(buffer.getPending()).isZero();
+		assertThat(counter("sqs_visibility_changes_flushed")).isEqualTo(1);
+		completing.join();
+	}
+
+	@Test
+	void shouldCountChangesThatCouldNotBeSent() {
+		buffer.changeVisibility(QUEUE_URL, "changed", VISIBILITY_TIMEOUT);
+		buffer.changeVisibility(QUEUE_URL, PendingAmazonSqs.INVALID, VISIBILITY_TIMEOUT);
+		buffer.flush();
+		amazonSqs.complete(0);
+
+		assertThat(counter("sqs_visibility_changes_queued")).isEqualTo(2);
+		assertThat(counter("sqs_visibility_changes_flushed")).isEqualTo(1);
+		assertThat(counter("sqs_visibility_changes_failed")).isEqualTo(1);
+	}
+
+	@Test
+	void shouldCountAllChangesOfFailedRequest() {
+		buffer.changeVisibility(QUEUE_URL, "first", VISIBILITY_TIMEOUT);
+		buffer.changeVisibility(QUEUE_URL, "second", VISIBILITY_TIMEOUT);
+		buffer.flush();
+		amazonSqs.fail(0);
+
+		assertThat(counter("sqs_visibility_changes_flushed")).isZero();
+		assertThat(counter("sqs_visibility_changes_failed")).isEqualTo(2);
+		assertThat(buffer.getPending()).isZero();
+	}
+
+	private double counter(final String name) {
+		return meterRegistry.get(name).counter().count();
+	}
+
+	/**
+	 * Records batch requests and completes them only when asked to, failing entries with the {@link #INVALID} receipt handle.
+	 */
+	private static class PendingAmazonSqs extends AbstractAmazonSQSAsync {
+		private static final String INVALID = "invalid";
+
+		private final List<ChangeMessageVisibilityBatchRequest> requests = new CopyOnWriteArrayList<>();
+		private final List<AsyncHandler<ChangeMessageVisibilityBatchRequest, ChangeMessageVisibilityBatchResult>> handlers =
+				new CopyOnWriteArrayList<>();
+
+		@Override
+		public Future<ChangeMessageVisibilityBatchResult> changeMessageVisibilityBatchAsync(
+				final ChangeMessageVisibilityBatchRequest request,
+				final AsyncHandler<ChangeMessageVisibilityBatchRequest, ChangeMessageVisibilityBatchResult> asyncHandler
+		) {
+			requests.add(request);
+			handlers.add(asyncHandler);
+			return new CompletableFuture<>();
+		}
+
+		void complete(final int index) {
+			final ChangeMessageVisibilityBatchRequest request = requests.get(index);
+			final ChangeMessageVisibilityBatchResult result = new ChangeMessageVisibilityBatchResult();
+			for (final ChangeMessageVisibilityBatchRequestEntry entry : request.getEntries()) {
+				if (INVALID.equals(entry.getReceiptHandle()))
+					result.withFailed(new BatchResultErrorEntry().withId(entry.getId()).withCode("ReceiptHandleIsInvalid"));
+				else
+					result.withSuccessful(new ChangeMessageVisibilityBatchResultEntry().withId(entry.getId()));
+			}
+			handlers.get(index).onSuccess(request, result);
+		}
+
+		void fail(final int index) {
+			handlers.get(index).onError(new AmazonSQSException("Service unavailable"));
+		}
+	}
+}
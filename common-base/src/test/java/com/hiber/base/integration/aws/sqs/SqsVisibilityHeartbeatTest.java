@@ -0,0 +1,147 @@
+package com.hiber.base.integration.aws.sqs;
+
+import com.amazonaws.handlers.AsyncHandler;
+import com.amazonaws.services.sqs.AbstractAmazonSQSAsync;
+import com.amazonaws.services.sqs.model.ChangeMessageVisibilityBatchRequest;
+import com.amazonaws.services.sqs.model.ChangeMessageVisibilityBatchRequestEntry;
+import com.amazonaws.services.sqs.model.ChangeMessageVisibilityBatchResult;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.integration.aws.support.AwsHeaders;
+import org.springframework.integration.channel.NullChannel;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class SqsVisibilityHeartbeatTest {
+	private static final String QUEUE_URL = "http://localhost/queue";
+	private static final long TICK_MILLIS = 20;
+	private static final int VISIBILITY_TIMEOUT = 60;
+
+	private final RecordingAmazonSqs amazonSqs = new RecordingAmazonSqs();
+	private final SqsVisibilityHeartbeat heartbeat = new SqsVisibilityHeartbeat(amazonSqs, TICK_MILLIS);
+	private final ChannelInterceptor interceptor = heartbeat.forQueue(QUEUE_URL, VISIBILITY_TIMEOUT);
+	private final MessageChannel channel = new NullChannel();
+
+	@AfterEach
+	void destroy() {
+		heartbeat.destroy();
+	}
+
+	@Test
+	void shouldExtendVisibilityOfMessageRightAfterItIsSent() throws Exception {
+		interceptor.preSend(message("handle"), channel);
+
+		awaitRequests();
+		assertThat(amazonSqs.requests.get(0).getQueueUrl()).isEqualTo(QUEUE_URL);
+		assertThat(amazonSqs.requests.get(0).getEntries())
+				.extracting("receiptHandle", "visibilityTimeout")
+				.containsExactly(tuple("handle", VISIBILITY_TIMEOUT));
+	}
+
+	@Test
+	void shouldNotExtendVisibilityAgainBeforeHalfOfVisibilityTimeout() throws Exception {
+		interceptor.preSend(message("handle"), channel);
+
+		awaitRequests();
+		Thread.sleep(TICK_MILLIS * 10);
+		assertThat(amazonSqs.requests).hasSize(1);
+	}
+
+	@Test
+	void shouldExtendVisibilityOfMessagesInBatches() throws Exception {
+		for (int i = 0; i < 11; i++)
+			interceptor.preSend(message("handle-" + i), channel);
+
+		awaitRequests();
+		Thread.sleep(TICK_MILLIS * 5);
+		assertThat(amazonSqs.requests.stream().mapToInt(request -> request.getEntries().size()).sum()).isEqualTo(11);
+		assertThat(amazonSqs.requests.stream().mapToInt(request -> request.getEntries().size()).max().orElse(0)).isLessThanOrEqualTo(10);
+	}
+
+	@Test
+	void shouldStopTrackingConsumedMessage() throws Exception {
+		final Message<?> message = message("handle");
+		interceptor.preSend(message, channel);
+		interceptor.afterSendCompletion(message, channel, true, null);
+
+		Thread.sleep(TICK_MILLIS * 5);
+		assertThat(amazonSqs.requests).isEmpty();
+	}
+
+	@Test
+	void shouldStopTrackingFailedMessage() throws Exception {
+		final Message<?> failed = message("failed");
+		interceptor.preSend(failed, channel);
+		interceptor.afterSendCompletion(failed, channel, true, new IllegalStateException("Consuming failed"));
+		interceptor.preSend(message("consuming"), channel);
+
+		awaitRequests();
+		Thread.sleep(TICK_MILLIS * 5);
+		assertThat(receiptHandles()).containsExactly("consuming");
+	}
+
+	@Test
+	void shouldKeepBeatingAfterRequestIsRejected() throws Exception {
+		amazonSqs.rejections.set(1);
+		interceptor.preSend(message("rejected"), channel);
+		while (amazonSqs.rejections.get() > 0)
+			Thread.sleep(10);
+
+		interceptor.preSend(message("extended"), channel);
+
+		awaitRequests();
+		assertThat(receiptHandles()).containsExactly("extended");
+	}
+
+	private void awaitRequests() throws InterruptedException {
+		final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (amazonSqs.requests.isEmpty() && System.nanoTime() < deadline)
+			Thread.sleep(10);
+		assertThat(amazonSqs.requests).isNotEmpty();
+	}
+
+	private List<String> receiptHandles() {
+		return amazonSqs.requests.stream()
+				.flatMap(request -> request.getEntries().stream())
+				.map(ChangeMessageVisibilityBatchRequestEntry::getReceiptHandle)
+				.collect(Collectors.toList());
+	}
+
+	private static Message<?> message(final String receiptHandle) {
+		return MessageBuilder.withPayload("payload").setHeader(AwsHeaders.RECEIPT_HANDLE, receiptHandle).build();
+	}
+
+	/**
+	 * Records visibility change requests and completes them at once, after rejecting the given number of requests.
+	 */
+	private static class RecordingAmazonSqs extends AbstractAmazonSQSAsync {
+		private final List<ChangeMessageVisibilityBatchRequest> requests = new CopyOnWriteArrayList<>();
+		private final AtomicInteger rejections = new AtomicInteger();
+
+		@Override
+		public Future<ChangeMessageVisibilityBatchResult> changeMessageVisibilityBatchAsync(
+				final ChangeMessageVisibilityBatchRequest request,
+				final AsyncHandler<ChangeMessageVisibilityBatchRequest, ChangeMessageVisibilityBatchResult> asyncHandler
+		) {
+			if (rejections.getAndUpdate(count -> Math.max(0, count - 1)) > 0)
+				throw new RejectedExecutionException("Client executor is shut down");
+			requests.add(request);
+			final ChangeMessageVisibilityBatchResult result = new ChangeMessageVisibilityBatchResult();
+			asyncHandler.onSuccess(request, result);
+			return CompletableFuture.completedFuture(result);
+		}
+	}
+}
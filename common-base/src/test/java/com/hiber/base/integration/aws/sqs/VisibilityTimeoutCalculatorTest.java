@@ -1,5 +1,6 @@
 package com.hiber.base.integration.aws.sqs;
 
+import java.util.stream.IntStream;
 import org.junit.jupiter.api.Test;
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -26,4 +27,50 @@ class VisibilityTimeoutCalculatorTest {
 		assertThat(visibilityTimeoutCalculator.getNextVisibilityTimeout(12)).isEqualTo(43200);
 	}
 
-}
\ No newline at end of file
+	@Test
+	void shouldKeepJitteredValuesWithinBounds() {
+		final VisibilityTimeoutCalculator full = calculator(BackoffJitter.FULL);
+		final VisibilityTimeoutCalculator equal = calculator(BackoffJitter.EQUAL);
+		final VisibilityTimeoutCalculator decorrelated = calculator(BackoffJitter.DECORRELATED);
+
+		for (int attempt = 1; attempt <= 20; attempt++) {
+			final int exponential = visibilityTimeoutCalculator.getNextVisibilityTimeout(attempt);
+			for (int i = 0; i < 100; i++) {
+				assertThat(full.getNextVisibilityTimeout(attempt)).isBetween(0, exponential);
+				assertThat(equal.getNextVisibilityTimeout(attempt)).isBetween(exponential / 2, exponential);
+				assertThat(decorrelated.getNextVisibilityTimeout(attempt)).isBetween(INITIAL_VISIBILITY_TIMEOUT, MAX_VISIBILITY_TIMEOUT);
+			}
+		}
+	}
+
+	@Test
+	void shouldReturnMinValueOfDecorrelatedJitterForFirstAttempt() {
+		assertThat(calculator(BackoffJitter.DECORRELATED).getNextVisibilityTimeout(1)).isEqualTo(INITIAL_VISIBILITY_TIMEOUT);
+	}
+
+	/**
+	 * Simulates an outage during which many messages fail at the same time for the same number of times, and checks how many
+	 * of them become visible again within the busiest minute.
+	 */
+	@Test
+	void shouldSpreadRedeliveriesOfMessagesFailedAtTheSameTime() {
+		final int messages = 10_000;
+		final int attempt = 5;
+
+		assertThat(busiestMinute(visibilityTimeoutCalculator, messages, attempt)).isEqualTo(messages);
+		assertThat(busiestMinute(calculator(BackoffJitter.FULL), messages, attempt)).isLessThan(messages / 10);
+		assertThat(busiestMinute(calculator(BackoffJitter.EQUAL), messages, attempt)).isLessThan(messages / 5);
+		assertThat(busiestMinute(calculator(BackoffJitter.DECORRELATED), messages, attempt)).isLessThan(messages / 5);
+	}
+
+	private static VisibilityTimeoutCalculator calculator(final BackoffJitter jitter) {
+		return new VisibilityTimeoutCalculator(INITIAL_VISIBILITY_TIMEOUT, MAX_VISIBILITY_TIMEOUT, jitter);
+	}
+
+	private static int busiestMinute(final VisibilityTimeoutCalculator calculator, final int messages, final int attempt) {
+		final int[] redeliveriesPerMinute = new int[MAX_VISIBILITY_TIMEOUT / 60 + 1];
+		IntStream.range(0, messages).forEach(i -> redeliveriesPerMinute[calculator.getNextVisibilityTimeout(attempt) / 60]++);
+
+		return IntStream.of(redeliveriesPerMinute).max().orElse(0);
+	}
+}
@@ -0,0 +1,70 @@
+package com.hiber.base.integration.notify;
+
+import com.hiber.base.integration.notify.SupportNotifyExceptionChannelInterceptor.QueueMessageProcessingException;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.integration.aws.support.AwsHeaders;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHandlingException;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.support.MessageBuilder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QueueMessageProcessingExceptionTest {
+	@Test
+	void shouldDescribeMessageByIdQueueAndSelectedHeaders() {
+		final Message<String> message = MessageBuilder.withPayload("{\"value\":1}")
+				.setHeader(AwsHeaders.MESSAGE_ID, "message-id")
+				.setHeader(AwsHeaders.RECEIVED_QUEUE, "queue")
+				.setHeader("ApproximateReceiveCount", "2")
+				.setHeader("other", "not included")
+				.build();
+
+		final QueueMessageProcessingException exception =
+				new QueueMessageProcessingException(message, new IllegalStateException("failed"));
+
+		assertThat(exception.getMessage()).isEqualTo(
+				"Queue message processing exception: failed; Message: id=message-id, queue=queue, ApproximateReceiveCount=2, "
+						+ "payload={\"value\":1}"
+		);
+		assertThat(exception.getMessage()).isSameAs(exception.getMessage());
+	}
+
+	@Test
+	void shouldTruncateLongPayloads() {
+		final Message<String> message = MessageBuilder.withPayload("x".repeat(100)).build();
+
+		final QueueMessageProcessingException exception =
+				new QueueMessageProcessingException(message, new IllegalStateException("failed"), 10, List.of());
+
+		assertThat(exception.getMessage()).endsWith("payload=xxxxxxxxxx... (100 characters)");
+	}
+
+	@Test
+	void shouldTruncateLongExceptionMessages() {
+		final Message<String> message = MessageBuilder.withPayload("payload").build();
+		final MessagingException cause = new MessageHandlingException(
+				MessageBuilder.withPayload("y".repeat(100)).build(),
+				"Handling failed"
+		);
+
+		final QueueMessageProcessingException exception =
+				new QueueMessageProcessingException(message, cause, 10, List.of());
+
+		assertThat(exception.getMessage())
+				.startsWith("Queue message processing exception: Handling f... (")
+				.doesNotContain("yyyyyyyyyy")
+				.endsWith("payload=payload");
+	}
+
+	@Test
+	void shouldDescribeBinaryPayloadsBySize() {
+		final Message<byte[]> message = MessageBuilder.withPayload(new byte[500]).build();
+
+		final QueueMessageProcessingException exception =
+				new QueueMessageProcessingException(message, new IllegalStateException("failed"));
+
+		assertThat(exception.getMessage()).endsWith("payload=byte[500]");
+	}
+}
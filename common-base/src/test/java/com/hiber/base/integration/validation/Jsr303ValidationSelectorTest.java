@@ -0,0 +1,74 @@
+package com.hiber.base.integration.validation;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import javax.validation.ConstraintViolationException;
+import javax.validation.Validation;
+import javax.validation.Validator;
+import javax.validation.constraints.NotNull;
+import lombok.Value;
+import org.hibernate.validator.messageinterpolation.ParameterMessageInterpolator;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class Jsr303ValidationSelectorTest {
+	private final Validator validator = Validation.byDefaultProvider()
+			.configure()
+			.messageInterpolator(new ParameterMessageInterpolator())
+			.buildValidatorFactory()
+			.getValidator();
+	private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	@Test
+	void shouldSkipValidationOfUnconstrainedClasses() {
+		final Jsr303ValidationSelector selector = selector(Unconstrained.class, List.of());
+
+		assertThat(selector.accept(new Unconstrained(null))).isTrue();
+		assertThat(meterRegistry.get("validation").timer().count()).isZero();
+	}
+
+	@Test
+	void shouldRejectInvalidObjects() {
+		final Jsr303ValidationSelector selector = selector(Constrained.class, List.of());
+
+		assertThat(selector.accept(new Constrained("value", null))).isTrue();
+		assertThatThrownBy(() -> selector.accept(new Constrained(null, null)))
+				.isInstanceOf(ConstraintViolationException.class)
+				.hasMessageContaining("value");
+		assertThat(meterRegistry.get("validation").tag("name", "test").timer().count()).isEqualTo(2);
+	}
+
+	@Test
+	void shouldCheckConstraintsOfValidationGroups() {
+		final Jsr303ValidationSelector selector = selector(Constrained.class, List.of(Strict.class));
+
+		assertThat(selector.accept(new Constrained(null, "strict"))).isTrue();
+		assertThatThrownBy(() -> selector.accept(new Constrained("value", null)))
+				.isInstanceOf(ConstraintViolationException.class)
+				.hasMessageContaining("strict");
+	}
+
+	private Jsr303ValidationSelector selector(final Class<?> clazz, final List<Class<?>> groups) {
+		return new Jsr303ValidationSelector(validator, clazz, groups, "test", meterRegistry);
+	}
+
+	interface Strict {
+	}
+
+	@Value
+	static class Unconstrained {
+		String value;
+	}
+
+	@Value
+	static class Constrained {
+		@NotNull
+		String value;
+
+		@NotNull(groups = Strict.class)
+		String strict;
+	}
+}
@@ -0,0 +1,132 @@
+package com.hiber.base.queue;
+
+import com.amazonaws.handlers.AsyncHandler;
+import com.amazonaws.services.sqs.AbstractAmazonSQSAsync;
+import com.amazonaws.services.sqs.model.SendMessageRequest;
+import com.amazonaws.services.sqs.model.SendMessageResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hiber.base.integration.jackson.Jackson2ObjectToJsonTransformer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SqsAsyncProducerTest {
+	private static final String QUEUE_URL = "http://localhost/queue";
+	private static final int MAX_IN_FLIGHT = 2;
+
+	private final PendingAmazonSqs amazonSqs = new PendingAmazonSqs();
+	private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final SqsAsyncProducer producer = new SqsAsyncProducer(
+			QUEUE_URL,
+			null,
+			null,
+			List.of(new Jackson2ObjectToJsonTransformer(new ObjectMapper())),
+			amazonSqs,
+			MAX_IN_FLIGHT,
+			10,
+			meterRegistry
+	);
+
+	@Test
+	void shouldCompleteFutureOnceMessageIsSent() throws Exception {
+		final CompletableFuture<SendMessageResult> future = producer.send(Map.of("value", 1));
+
+		assertThat(future).isNotDone();
+		assertThat(amazonSqs.requests.get(0).getMessageBody()).isEqualTo("{\"value\":1}");
+		assertThat(producer.getInFlight()).isEqualTo(1);
+
+		amazonSqs.complete(0);
+
+		assertThat(future.get().getMessageId()).isEqualTo("id-0");
+		assertThat(producer.getInFlight()).isZero();
+	}
+
+	@Test
+	void shouldRegisterHeaderChangeMetricsInProducerRegistry() {
+		assertThat(meterRegistry.find("aws_changed_headers").counters()).isNotEmpty();
+	}
+
+	@Test
+	void shouldRejectMessagesWhileWindowIsFull() throws Exception {
+		producer.send("first");
+		producer.send("second");
+
+		final CompletableFuture<SendMessageResult> rejected = producer.send("third");
+
+		assertThatThrownBy(rejected::get)
+				.isInstanceOf(ExecutionException.class)
+				.hasCauseInstanceOf(RejectedExecutionException.class);
+		assertThat(meterRegistry.get("sqs_producer_rejected").counter().count()).isEqualTo(1);
+		assertThat(amazonSqs.requests).hasSize(MAX_IN_FLIGHT);
+
+		amazonSqs.complete(0);
+
+		assertThat(producer.send("fourth")).isNotDone();
+		assertThat(amazonSqs.requests).hasSize(MAX_IN_FLIGHT + 1);
+	}
+
+	@Test
+	void shouldSendMessagesOfGroupOneAtATime() throws Exception {
+		final SqsAsyncProducer fifoProducer = new SqsAsyncProducer(
+				QUEUE_URL + ".fifo",
+				null,
+				SqsFifoKeys.<String>of(payload -> payload.substring(0, 1)),
+				List.of(),
+				amazonSqs,
+				10,
+				10,
+				meterRegistry
+		);
+
+		final CompletableFuture<SendMessageResult> first = fifoProducer.send("a1");
+		final CompletableFuture<SendMessageResult> second = fifoProducer.send("a2");
+		fifoProducer.send("b1");
+
+		assertThat(amazonSqs.requests).extracting(SendMessageRequest::getMessageBody).containsExactly("a1", "b1");
+		assertThat(fifoProducer.getInFlight()).isEqualTo(3);
+
+		amazonSqs.complete(0);
+
+		assertThat(first.get().getMessageId()).isEqualTo("id-0");
+		assertThat(second).isNotDone();
+		assertThat(amazonSqs.requests).extracting(SendMessageRequest::getMessageBody).containsExactly("a1", "b1", "a2");
+		assertThat(amazonSqs.requests.get(2).getMessageGroupId()).isEqualTo("a");
+
+		amazonSqs.complete(2);
+
+		assertThat(second.get().getMessageId()).isEqualTo("id-2");
+		assertThat(fifoProducer.getInFlight()).isEqualTo(1);
+	}
+
+	/**
+	 * Records requests and leaves them pending until {@link #complete(int)} is called.
+	 */
+	private static class PendingAmazonSqs extends AbstractAmazonSQSAsync {
+		private final List<SendMessageRequest> requests = new CopyOnWriteArrayList<>();
+		private final List<AsyncHandler<SendMessageRequest, SendMessageResult>> handlers = new CopyOnWriteArrayList<>();
+
+		@Override
+		public Future<SendMessageResult> sendMessageAsync(
+				final SendMessageRequest request,
+				final AsyncHandler<SendMessageRequest, SendMessageResult> asyncHandler
+		) {
+			requests.add(request);
+			handlers.add(asyncHandler);
+			return new CompletableFuture<>();
+		}
+
+		void complete(final int index) {
+			handlers.get(index).onSuccess(requests.get(index), new SendMessageResult().withMessageId("id-" + index));
+		}
+	}
+}
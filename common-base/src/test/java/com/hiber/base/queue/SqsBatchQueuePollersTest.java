@@ -0,0 +1,243 @@
+package com.hiber.base.queue;
+
+import com.amazonaws.handlers.AsyncHandler;
+import com.amazonaws.services.sqs.AbstractAmazonSQSAsync;
+import com.amazonaws.services.sqs.model.BatchResultErrorEntry;
+import com.amazonaws.services.sqs.model.ChangeMessageVisibilityBatchRequest;
+import com.amazonaws.services.sqs.model.ChangeMessageVisibilityBatchRequestEntry;
+import com.amazonaws.services.sqs.model.ChangeMessageVisibilityBatchResult;
+import com.amazonaws.services.sqs.model.DeleteMessageBatchRequest;
+import com.amazonaws.services.sqs.model.DeleteMessageBatchRequestEntry;
+import com.amazonaws.services.sqs.model.DeleteMessageBatchResult;
+import com.amazonaws.services.sqs.model.DeleteMessageBatchResultEntry;
+import com.amazonaws.services.sqs.model.Message;
+import com.amazonaws.services.sqs.model.ReceiveMessageRequest;
+import com.amazonaws.services.sqs.model.ReceiveMessageResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hiber.base.integration.aws.sqs.SqsVisibilityChangeBuffer;
+import com.hiber.base.queue.SqsBatchQueueConsumersAutoConfiguration.BatchConsumer;
+import com.hiber.base.queue.SqsBatchQueueConsumersAutoConfiguration.BatchQueueConsumer;
+import com.hiber.base.queue.SqsQueueConsumersAutoConfiguration.QueueConsumer.BackoffPolicy;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import javax.validation.Validation;
+import javax.validation.Validator;
+import javax.validation.constraints.NotNull;
+import lombok.Data;
+import org.hibernate.validator.messageinterpolation.ParameterMessageInterpolator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SqsBatchQueuePollersTest {
+	private static final String QUEUE_URL = "http://localhost/queue";
+
+	private final Validator validator = Validation.byDefaultProvider()
+			.configure()
+			.messageInterpolator(new ParameterMessageInterpolator())
+			.buildValidatorFactory()
+			.getValidator();
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final RecordingAmazonSqs amazonSqs = new RecordingAmazonSqs();
+	private final SqsVisibilityChangeBuffer visibilityChangeBuffer = new SqsVisibilityChangeBuffer(amazonSqs, 60_000, meterRegistry);
+	private final List<Throwable> notified = new CopyOnWriteArrayList<>();
+	private final SqsBatchQueuePollers pollers = new SqsBatchQueuePollers(
+			List.of(),
+			amazonSqs,
+			objectMapper,
+			validator,
+			notified::add,
+			new SqsBaseSettings(),
+			visibilityChangeBuffer,
+			null,
+			meterRegistry
+	);
+
+	@AfterEach
+	void destroy() {
+		visibilityChangeBuffer.destroy();
+	}
+
+	@Test
+	void shouldDeleteConsumedMessagesAndBackOffTheRest() {
+		amazonSqs.messages.addAll(List.of(
+				message("consumed", "{\"value\":\"consumed\"}"),
+				message("invalid", "{}"),
+				message("malformed", "not json"),
+				message("not-consumed", "{\"value\":\"retry\"}")
+		));
+
+		pollOnce(batch -> batch.stream().filter(item -> item.value.equals("retry")).collect(Collectors.toList()));
+
+		assertThat(deletedReceiptHandles()).containsExactly("consumed");
+		assertThat(backedOffReceiptHandles()).containsExactlyInAnyOrder("invalid", "malformed", "not-consumed");
+		assertThat(notified).hasSize(2);
+	}
+
+	@Test
+	void shouldBackOffAllValidMessagesWhenConsumerFails() {
+		amazonSqs.messages.addAll(List.of(
+				message("first", "{\"value\":\"first\"}"),
+				message("second", "{\"value\":\"second\"}")
+		));
+
+		pollOnce(batch -> {
+			throw new IllegalStateException("Consuming failed");
+		});
+
+		assertThat(amazonSqs.deletes).isEmpty();
+		assertThat(backedOffReceiptHandles()).containsExactlyInAnyOrder("first", "second");
+		assertThat(notified).hasSize(1);
+	}
+
+	@Test
+	void shouldBackOffWholeBatchWhenConsumerReportsCopiesAsNotConsumed() {
+		amazonSqs.messages.addAll(List.of(
+				message("first", "{\"value\":\"first\"}"),
+				message("second", "{\"value\":\"second\"}")
+		));
+
+		pollOnce(batch -> {
+			final Item copy = new Item();
+			copy.setValue(batch.get(1).getValue());
+			return List.of(copy);
+		});
+
+		assertThat(amazonSqs.deletes).isEmpty();
+		assertThat(backedOffReceiptHandles()).containsExactlyInAnyOrder("first", "second");
+		assertThat(notified).hasSize(1);
+	}
+
+	@Test
+	void shouldCountMessagesThatCouldNotBeDeleted() {
+		amazonSqs.messages.addAll(List.of(
+				message("deleted", "{\"value\":\"deleted\"}"),
+				message("undeletable", "{\"value\":\"undeletable\"}")
+		));
+		amazonSqs.undeletable.add("undeletable");
+
+		pollOnce(batch -> List.of());
+
+		assertThat(deletedReceiptHandles()).containsExactly("deleted", "undeletable");
+		assertThat(meterRegistry.get("sqs_batch_deletes_failed").tag("queue", QUEUE_URL).counter().count()).isEqualTo(1);
+	}
+
+	@Test
+	void shouldValidateObjectsAgainstValidationGroupsOfConsumer() {
+		amazonSqs.messages.add(message("without-reference", "{\"value\":\"value\"}"));
+
+		pollOnce(batch -> List.of(), List.of(Item.Referenced.class));
+
+		assertThat(amazonSqs.deletes).isEmpty();
+		assertThat(backedOffReceiptHandles()).containsExactly("without-reference");
+		assertThat(notified).hasSize(1);
+		assertThat(meterRegistry.get("validation").tag("name", "test").timer().count()).isEqualTo(1);
+	}
+
+	private void pollOnce(final BatchConsumer<Item> consumer) {
+		pollOnce(consumer, null);
+	}
+
+	private void pollOnce(final BatchConsumer<Item> consumer, final List<Class<?>> validationGroups) {
+		final BatchQueueConsumer<Item> batchQueueConsumer = BatchQueueConsumer.<Item>builder()
+				.url(QUEUE_URL)
+				.consumer(consumer)
+				.clazz(Item.class)
+				.name("test")
+				.backoffPolicy(BackoffPolicy.EXPONENTIAL)
+				.validationGroups(validationGroups)
+				.build();
+		pollers.pollOnce(
+				batchQueueConsumer,
+				objectMapper.readerFor(Item.class),
+				pollers.createValidationSelector(batchQueueConsumer),
+				BackoffPolicy.EXPONENTIAL.createInterceptor(visibilityChangeBuffer, new SqsBaseSettings(), null)
+		);
+		visibilityChangeBuffer.flush();
+	}
+
+	private List<String> deletedReceiptHandles() {
+		return amazonSqs.deletes.stream()
+				.flatMap(request -> request.getEntries().stream())
+				.map(DeleteMessageBatchRequestEntry::getReceiptHandle)
+				.collect(Collectors.toList());
+	}
+
+	private List<String> backedOffReceiptHandles() {
+		return amazonSqs.visibilityChanges.stream()
+				.flatMap(request -> request.getEntries().stream())
+				.map(ChangeMessageVisibilityBatchRequestEntry::getReceiptHandle)
+				.collect(Collectors.toList());
+	}
+
+	private static Message message(final String receiptHandle, final String body) {
+		return new Message()
+				.withMessageId(receiptHandle + "-id")
+				.withReceiptHandle(receiptHandle)
+				.withBody(body)
+				.withAttributes(Map.of("ApproximateReceiveCount", "1"));
+	}
+
+	@Data
+	static class Item {
+		@NotNull
+		private String value;
+
+		@NotNull(groups = Referenced.class)
+		private String reference;
+
+		interface Referenced {
+		}
+	}
+
+	/**
+	 * Returns prepared messages once and records delete and visibility change requests.
+	 */
+	private static class RecordingAmazonSqs extends AbstractAmazonSQSAsync {
+		private final List<Message> messages = new CopyOnWriteArrayList<>();
+		private final Set<String> undeletable = new CopyOnWriteArraySet<>();
+		private final List<DeleteMessageBatchRequest> deletes = new CopyOnWriteArrayList<>();
+		private final List<ChangeMessageVisibilityBatchRequest> visibilityChanges = new CopyOnWriteArrayList<>();
+
+		@Override
+		public ReceiveMessageResult receiveMessage(final ReceiveMessageRequest request) {
+			final ReceiveMessageResult result = new ReceiveMessageResult().withMessages(messages);
+			messages.clear();
+			return result;
+		}
+
+		@Override
+		public DeleteMessageBatchResult deleteMessageBatch(final DeleteMessageBatchRequest request) {
+			deletes.add(request);
+			final DeleteMessageBatchResult result = new DeleteMessageBatchResult();
+			for (final DeleteMessageBatchRequestEntry entry : request.getEntries()) {
+				if (undeletable.contains(entry.getReceiptHandle()))
+					result.withFailed(new BatchResultErrorEntry().withId(entry.getId()).withCode("ReceiptHandleIsInvalid"));
+				else
+					result.withSuccessful(new DeleteMessageBatchResultEntry().withId(entry.getId()));
+			}
+			return result;
+		}
+
+		@Override
+		public Future<ChangeMessageVisibilityBatchResult> changeMessageVisibilityBatchAsync(
+				final ChangeMessageVisibilityBatchRequest request,
+				final AsyncHandler<ChangeMessageVisibilityBatchRequest, ChangeMessageVisibilityBatchResult> asyncHandler
+		) {
+			visibilityChanges.add(request);
+			final ChangeMessageVisibilityBatchResult result = new ChangeMessageVisibilityBatchResult();
+			asyncHandler.onSuccess(request, result);
+			return CompletableFuture.completedFuture(result);
+		}
+	}
+}
@@ -0,0 +1,184 @@
+package com.hiber.base.queue;
+
+import com.amazonaws.handlers.AsyncHandler;
+import com.amazonaws.services.sqs.AbstractAmazonSQSAsync;
+import com.amazonaws.services.sqs.model.SendMessageRequest;
+import com.amazonaws.services.sqs.model.SendMessageResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Future;
+import lombok.Value;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.integration.config.EnableIntegration;
+import org.springframework.integration.dsl.context.IntegrationFlowContext;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.support.MessageBuilder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SqsProducerFactoryTest {
+	private static final String QUEUE_URL = "http://localhost/queue";
+	private static final SqsFifoKeys<Reading> DEVICE_KEYS = SqsFifoKeys.of(
+			Reading::getDeviceId,
+			reading -> String.valueOf(reading.getSequence())
+	);
+
+	private final AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(IntegrationConfiguration.class);
+	private final IntegrationFlowContext integrationFlowContext = context.getBean(IntegrationFlowContext.class);
+	private final RecordingAmazonSqs amazonSqs = new RecordingAmazonSqs();
+	private final SqsProducerFactory factory = new SqsProducerFactory(
+			new ObjectMapper(),
+			amazonSqs,
+			integrationFlowContext,
+			new SqsBaseSettings(),
+			null,
+			new SimpleMeterRegistry()
+	);
+
+	@AfterEach
+	void close() {
+		factory.destroy();
+		context.close();
+	}
+
+	@Test
+	void shouldReuseChannelsOfTheSameQueueAndGroup() {
+		final MessageChannel channel = factory.create(QUEUE_URL);
+
+		assertThat(factory.create(QUEUE_URL)).isSameAs(channel);
+		assertThat(factory.create(QUEUE_URL, "group")).isNotSameAs(channel);
+		assertThat(factory.create(QUEUE_URL, "group")).isSameAs(factory.create(QUEUE_URL, "group"));
+		assertThat(integrationFlowContext.getRegistry()).hasSize(2);
+
+		channel.send(MessageBuilder.withPayload("value").build());
+
+		assertThat(amazonSqs.requests).hasSize(1);
+		assertThat(amazonSqs.requests.get(0).getMessageBody()).isEqualTo("\"value\"");
+	}
+
+	@Test
+	void shouldReuseProducersOfTheSameQueueAndGroup() {
+		assertThat(factory.createAsync(QUEUE_URL)).isSameAs(factory.createAsync(QUEUE_URL));
+		assertThat(factory.createBatching(QUEUE_URL, "group")).isSameAs(factory.createBatching(QUEUE_URL, "group"));
+		assertThat(factory.createBatching(QUEUE_URL)).isNotSameAs(factory.createBatching(QUEUE_URL, "group"));
+	}
+
+	@Test
+	void shouldComputeFifoIdsOfChannelMessagesFromPayloads() {
+		final MessageChannel channel = factory.create(QUEUE_URL, DEVICE_KEYS);
+
+		assertThat(factory.create(QUEUE_URL, DEVICE_KEYS)).isSameAs(channel);
+
+		channel.send(MessageBuilder.withPayload(new Reading("device-1", 1)).build());
+		channel.send(MessageBuilder.withPayload(new Reading("device-2", 2)).build());
+
+		assertThat(amazonSqs.requests).extracting(SendMessageRequest::getMessageGroupId).containsExactly("device-1", "device-2");
+		assertThat(amazonSqs.requests).extracting(SendMessageRequest::getMessageDeduplicationId).containsExactly("1", "2");
+		assertThat(amazonSqs.requests.get(0).getMessageAttributes())
+				.doesNotContainKeys(SqsProducerFactory.MESSAGE_GROUP_ID_HEADER, SqsProducerFactory.DEDUPLICATION_ID_HEADER);
+	}
+
+	@Test
+	void shouldComputeFifoIdsOfProducerMessagesFromPayloads() throws Exception {
+		final SqsAsyncProducer producer = factory.createAsync(QUEUE_URL, SqsFifoKeys.of(Reading::getDeviceId));
+
+		producer.send(new Reading("device-1", 1)).get();
+
+		assertThat(amazonSqs.requests).hasSize(1);
+		assertThat(amazonSqs.requests.get(0).getMessageGroupId()).isEqualTo("device-1");
+		assertThat(amazonSqs.requests.get(0).getMessageDeduplicationId()).isNull();
+	}
+
+	@Test
+	void shouldEvictIdleChannels() throws Exception {
+		final SqsBaseSettings settings = new SqsBaseSettings();
+		settings.setProducerIdleTimeout(50);
+		final SqsProducerFactory evictingFactory = new SqsProducerFactory(
+				new ObjectMapper(),
+				amazonSqs,
+				integrationFlowContext,
+				settings,
+				null,
+				new SimpleMeterRegistry()
+		);
+		try {
+			final MessageChannel channel = evictingFactory.create(QUEUE_URL);
+			Thread.sleep(200);
+
+			assertThat(integrationFlowContext.getRegistry()).isEmpty();
+			assertThat(evictingFactory.create(QUEUE_URL)).isNotSameAs(channel);
+			assertThat(integrationFlowContext.getRegistry()).hasSize(1);
+		}
+		finally {
+			evictingFactory.destroy();
+		}
+	}
+
+	@Test
+	void shouldEvictIdleProducersWithoutMessagesInFlight() throws Exception {
+		final SqsBaseSettings settings = new SqsBaseSettings();
+		settings.setProducerIdleTimeout(50);
+		final SqsProducerFactory evictingFactory = new SqsProducerFactory(
+				new ObjectMapper(),
+				amazonSqs,
+				integrationFlowContext,
+				settings,
+				null,
+				new SimpleMeterRegistry()
+		);
+		try {
+			final SqsAsyncProducer idle = evictingFactory.createAsync(QUEUE_URL);
+			final SqsBatchingProducer batching = evictingFactory.createBatching(QUEUE_URL);
+			final SqsAsyncProducer sending = evictingFactory.createAsync(QUEUE_URL, "group");
+			amazonSqs.holding = true;
+			sending.send("value");
+			Thread.sleep(200);
+
+			assertThat(evictingFactory.createAsync(QUEUE_URL)).isNotSameAs(idle);
+			assertThat(evictingFactory.createBatching(QUEUE_URL)).isNotSameAs(batching);
+			assertThat(evictingFactory.createAsync(QUEUE_URL, "group")).isSameAs(sending);
+		}
+		finally {
+			evictingFactory.destroy();
+		}
+	}
+
+	@Value
+	private static class Reading {
+		String deviceId;
+		long sequence;
+	}
+
+	@Configuration
+	@EnableIntegration
+	static class IntegrationConfiguration {
+	}
+
+	/**
+	 * Records sent messages and confirms them at once, unless holding.
+	 */
+	private static class RecordingAmazonSqs extends AbstractAmazonSQSAsync {
+		private final List<SendMessageRequest> requests = new CopyOnWriteArrayList<>();
+		private volatile boolean holding;
+
+		@Override
+		public Future<SendMessageResult> sendMessageAsync(
+				final SendMessageRequest request,
+				final AsyncHandler<SendMessageRequest, SendMessageResult> asyncHandler
+		) {
+			requests.add(request);
+			if (holding)
+				return new CompletableFuture<>();
+			final SendMessageResult result = new SendMessageResult().withMessageId("id");
+			if (asyncHandler != null)
+				asyncHandler.onSuccess(request, result);
+			return CompletableFuture.completedFuture(result);
+		}
+	}
+}
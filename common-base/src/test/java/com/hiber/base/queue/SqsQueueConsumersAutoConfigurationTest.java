@@ -0,0 +1,76 @@
+package com.hiber.base.queue;
+
+import com.hiber.base.queue.SqsQueueConsumersAutoConfiguration.QueueConsumer;
+import com.hiber.base.queue.SqsQueueConsumersAutoConfiguration.QueueConsumer.Concurrency;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SqsQueueConsumersAutoConfigurationTest {
+	private static final int WORKERS = 1;
+	private static final int MAX_IN_FLIGHT = 2;
+
+	private final ThreadPoolTaskExecutor workers = SqsQueueConsumersAutoConfiguration.createWorkers(QueueConsumer.<String>builder()
+			.name("test")
+			.concurrency(new Concurrency(WORKERS, MAX_IN_FLIGHT))
+			.build());
+
+	private final CountDownLatch release = new CountDownLatch(1);
+	private final AtomicInteger inFlight = new AtomicInteger();
+	private final AtomicInteger maxObservedInFlight = new AtomicInteger();
+
+	@AfterEach
+	void destroy() {
+		release.countDown();
+		workers.shutdown();
+	}
+
+	@Test
+	void shouldWaitForWorkerOnceInFlightLimitIsReached() throws Exception {
+		workers.initialize();
+		for (int i = 0; i < MAX_IN_FLIGHT; i++)
+			workers.execute(this::consume);
+
+		final CompletableFuture<Void> waiting = CompletableFuture.runAsync(() -> workers.execute(this::consume));
+
+		Thread.sleep(200);
+		assertThat(waiting).isNotDone();
+		assertThat(workers.getThreadPoolExecutor().getQueue()).hasSize(MAX_IN_FLIGHT - WORKERS);
+
+		release.countDown();
+		waiting.get(5, TimeUnit.SECONDS);
+		workers.getThreadPoolExecutor().shutdown();
+		assertThat(workers.getThreadPoolExecutor().awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(maxObservedInFlight.get()).isEqualTo(WORKERS);
+		assertThat(workers.getThreadPoolExecutor().getCompletedTaskCount()).isEqualTo(MAX_IN_FLIGHT + 1);
+	}
+
+	@Test
+	void shouldRejectMessagesOnceWorkersAreShutDown() {
+		workers.initialize();
+		workers.getThreadPoolExecutor().shutdown();
+
+		assertThatThrownBy(() -> workers.execute(this::consume)).isInstanceOf(RejectedExecutionException.class);
+	}
+
+	private void consume() {
+		maxObservedInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+		try {
+			release.await();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		finally {
+			inFlight.decrementAndGet();
+		}
+	}
+}
@@ -0,0 +1,58 @@
+package com.hiber.base.integration.aws.sqs;
+
+import com.hiber.benchmarks.SyntheticMessages;
+import com.hiber.test.sqs.InMemoryAmazonSqs;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+
+/**
+ * Measures header rewriting done by {@link ChangingHeadersSqsMessageDrivenChannelAdapter} for every received message, before
+ * it is sent to <code>rawReceiveMessageChannel</code>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HeaderRewritingBenchmark {
+	private InMemoryAmazonSqs amazonSqs;
+	private ChangingHeadersSqsMessageDrivenChannelAdapter adapter;
+	private Message<String> message;
+	private volatile Message<?> rewritten;
+
+	@Setup
+	public void setUp() {
+		final String queueUrl = SyntheticMessages.queueUrl(0);
+		amazonSqs = new InMemoryAmazonSqs();
+		adapter = new ChangingHeadersSqsMessageDrivenChannelAdapter(amazonSqs, queueUrl);
+		adapter.setOutputChannel((MessageChannel) (sent, timeout) -> {
+			rewritten = sent;
+			return true;
+		});
+		message = SyntheticMessages.received(queueUrl);
+	}
+
+	@TearDown
+	public void tearDown() {
+		amazonSqs.shutdown();
+	}
+
+	@Benchmark
+	public Message<?> receivedMessage() {
+		adapter.sendMessage(message);
+		return rewritten;
+	}
+}
@@ -0,0 +1,68 @@
+package com.hiber.base.integration.aws.sqs;
+
+import com.hiber.benchmarks.SyntheticMessages;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.integration.aws.support.AwsHeaders;
+import org.springframework.integration.channel.NullChannel;
+import org.springframework.integration.expression.ExpressionUtils;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+
+/**
+ * Compares resolving the consumer of a received message by {@link SqsReceivedQueueRouter} with evaluating the SpEL expression
+ * <code>headers.aws_receivedQueue</code>, which is what the expression evaluating router did before for every message.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SqsReceivedQueueRouterBenchmark {
+	private static final int QUEUES = 10;
+
+	private SqsReceivedQueueRouter router;
+	private Expression expression;
+	private EvaluationContext evaluationContext;
+	private Message<String> message;
+
+	@Setup
+	public void setUp() {
+		final Map<String, MessageChannel> channels = IntStream.range(0, QUEUES)
+				.mapToObj(SyntheticMessages::queueUrl)
+				.collect(Collectors.toMap(Function.identity(), queueUrl -> new NullChannel()));
+		router = new SqsReceivedQueueRouter(channels, new SimpleMeterRegistry());
+		expression = new SpelExpressionParser().parseExpression("headers." + AwsHeaders.RECEIVED_QUEUE);
+		evaluationContext = ExpressionUtils.createStandardEvaluationContext();
+		message = SyntheticMessages.received(SyntheticMessages.queueUrl(QUEUES - 1));
+	}
+
+	@Benchmark
+	public Collection<MessageChannel> dispatchMap() {
+		return router.determineTargetChannels(message);
+	}
+
+	@Benchmark
+	public Object spelExpression() {
+		return expression.getValue(evaluationContext, message);
+	}
+}
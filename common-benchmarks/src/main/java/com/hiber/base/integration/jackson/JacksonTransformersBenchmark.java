@@ -0,0 +1,83 @@
+package com.hiber.base.integration.jackson;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hiber.benchmarks.SyntheticEvent;
+import com.hiber.benchmarks.SyntheticMessages;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.integration.json.JsonToObjectTransformer;
+import org.springframework.integration.json.ObjectToJsonTransformer;
+import org.springframework.integration.support.json.Jackson2JsonObjectMapper;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
+
+/**
+ * Compares {@link Jackson2JsonToObjectTransformer} and {@link Jackson2ObjectToJsonTransformer} with the Spring Integration
+ * transformers they were previously based on, which go through {@link Jackson2JsonObjectMapper} for every message.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JacksonTransformersBenchmark {
+	private JsonToObjectTransformer springReader;
+	private Jackson2JsonToObjectTransformer reader;
+	private ObjectToJsonTransformer springWriter;
+	private Jackson2ObjectToJsonTransformer writer;
+	private Message<String> json;
+	private Message<byte[]> jsonBytes;
+	private Message<SyntheticEvent> event;
+
+	@Setup
+	public void setUp() throws IOException {
+		final ObjectMapper objectMapper = new ObjectMapper();
+		springReader = new JsonToObjectTransformer(SyntheticEvent.class, new Jackson2JsonObjectMapper(objectMapper));
+		reader = new Jackson2JsonToObjectTransformer(SyntheticEvent.class, objectMapper);
+		springWriter = new ObjectToJsonTransformer(new Jackson2JsonObjectMapper(objectMapper));
+		writer = new Jackson2ObjectToJsonTransformer(objectMapper);
+
+		json = SyntheticMessages.received(SyntheticMessages.queueUrl(0));
+		jsonBytes = MessageBuilder.withPayload(SyntheticMessages.JSON.getBytes(StandardCharsets.UTF_8))
+				.copyHeaders(json.getHeaders())
+				.build();
+		event = MessageBuilder.withPayload(objectMapper.readValue(SyntheticMessages.JSON, SyntheticEvent.class)).build();
+	}
+
+	@Benchmark
+	public Object readWithSpringTransformer() {
+		return springReader.transform(json);
+	}
+
+	@Benchmark
+	public Object readString() {
+		return reader.transform(json);
+	}
+
+	@Benchmark
+	public Object readBytes() {
+		return reader.transform(jsonBytes);
+	}
+
+	@Benchmark
+	public Object writeWithSpringTransformer() {
+		return springWriter.transform(event);
+	}
+
+	@Benchmark
+	public Object write() {
+		return writer.transform(event);
+	}
+}
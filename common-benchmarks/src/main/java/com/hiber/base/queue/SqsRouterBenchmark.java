@@ -0,0 +1,175 @@
+package com.hiber.base.queue;
+
+import com.amazonaws.services.sqs.AmazonSQSAsync;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hiber.base.integration.aws.sqs.SqsPayloadStore;
+import com.hiber.base.integration.aws.sqs.SqsVisibilityChangeBuffer;
+import com.hiber.base.integration.aws.sqs.SqsVisibilityHeartbeat;
+import com.hiber.base.integration.jackson.Jackson2JsonToObjectTransformer;
+import com.hiber.base.integration.validation.Jsr303ValidationSelector;
+import com.hiber.base.queue.SqsQueueConsumersAutoConfiguration.QueueConsumer;
+import com.hiber.benchmarks.SyntheticEvent;
+import com.hiber.benchmarks.SyntheticMessages;
+import com.hiber.test.sqs.InMemoryAmazonSqs;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import javax.validation.Validation;
+import javax.validation.Validator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.integration.channel.DirectChannel;
+import org.springframework.integration.config.EnableIntegration;
+import org.springframework.integration.dsl.IntegrationFlow;
+import org.springframework.integration.dsl.MessageChannels;
+import org.springframework.integration.dsl.context.IntegrationFlowContext;
+import org.springframework.messaging.Message;
+
+/**
+ * Measures stages of the flow built by {@link SqsQueueConsumersAutoConfiguration#sqsRouter}: de-serialising JSON, validating
+ * the payload, and the whole flow from <code>rawReceiveMessageChannel</code> to a stub consumer. The router serves
+ * {@link #QUEUES} consumers, the message goes to the last one. Routing alone is measured by
+ * <code>SqsReceivedQueueRouterBenchmark</code>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SqsRouterBenchmark {
+	/**
+	 * The number of consumers served by the router.
+	 */
+	static final int QUEUES = 10;
+
+	/**
+	 * The last object consumed by the stub consumer, so the JIT can't skip consuming.
+	 */
+	private static volatile Object consumed;
+
+	private AnnotationConfigApplicationContext context;
+	private DirectChannel rawReceiveMessageChannel;
+	private Message<String> message;
+	private Jackson2JsonToObjectTransformer transformer;
+	private Jsr303ValidationSelector validationSelector;
+	private SyntheticEvent event;
+
+	@Setup
+	public void setUp() throws IOException {
+		context = new AnnotationConfigApplicationContext(FlowConfiguration.class);
+		rawReceiveMessageChannel = context.getBean("rawReceiveMessageChannel", DirectChannel.class);
+		message = SyntheticMessages.received(SyntheticMessages.queueUrl(QUEUES - 1));
+
+		final ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+		transformer = new Jackson2JsonToObjectTransformer(SyntheticEvent.class, objectMapper);
+		validationSelector = new Jsr303ValidationSelector(context.getBean(Validator.class));
+		event = objectMapper.readValue(SyntheticMessages.JSON, SyntheticEvent.class);
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public Object deserialize() {
+		return transformer.transform(message);
+	}
+
+	@Benchmark
+	public boolean validate() {
+		return validationSelector.accept(event);
+	}
+
+	@Benchmark
+	public Object flow() {
+		rawReceiveMessageChannel.send(message);
+		return consumed;
+	}
+
+	@Configuration
+	@EnableIntegration
+	static class FlowConfiguration {
+		@Bean
+		public ObjectMapper objectMapper() {
+			return new ObjectMapper();
+		}
+
+		@Bean
+		public Validator validator() {
+			return Validation.buildDefaultValidatorFactory().getValidator();
+		}
+
+		@Bean(destroyMethod = "shutdown")
+		public InMemoryAmazonSqs amazonSqs() {
+			return new InMemoryAmazonSqs();
+		}
+
+		@Bean
+		public SqsVisibilityChangeBuffer sqsVisibilityChangeBuffer(final AmazonSQSAsync amazonSqs) {
+			return new SqsVisibilityChangeBuffer(amazonSqs, 100, new SimpleMeterRegistry());
+		}
+
+		@Bean
+		public SqsVisibilityHeartbeat sqsVisibilityHeartbeat(final AmazonSQSAsync amazonSqs) {
+			return new SqsVisibilityHeartbeat(amazonSqs);
+		}
+
+		@Bean
+		public DirectChannel rawReceiveMessageChannel() {
+			return MessageChannels.direct().get();
+		}
+
+		@Bean
+		public IntegrationFlow sqsRouter(
+				final DirectChannel rawReceiveMessageChannel,
+				final Validator validator,
+				final ObjectMapper objectMapper,
+				final SqsVisibilityChangeBuffer sqsVisibilityChangeBuffer,
+				final SqsVisibilityHeartbeat sqsVisibilityHeartbeat,
+				final IntegrationFlowContext integrationFlowContext,
+				final ObjectProvider<MeterRegistry> meterRegistry,
+				final ObjectProvider<SqsPayloadStore> sqsPayloadStore
+		) {
+			final List<QueueConsumer<?>> consumers = IntStream.range(0, QUEUES)
+					.mapToObj(i -> new QueueConsumer<>(
+							SyntheticMessages.queueUrl(i),
+							(SyntheticEvent event) -> consumed = event,
+							SyntheticEvent.class,
+							"benchmark-" + i
+					))
+					.collect(Collectors.toList());
+
+			return new SqsQueueConsumersAutoConfiguration().sqsRouter(
+					consumers,
+					rawReceiveMessageChannel,
+					validator,
+					objectMapper,
+					sqsVisibilityChangeBuffer,
+					new SqsBaseSettings(),
+					sqsVisibilityHeartbeat,
+					integrationFlowContext,
+					meterRegistry,
+					sqsPayloadStore
+			);
+		}
+	}
+}
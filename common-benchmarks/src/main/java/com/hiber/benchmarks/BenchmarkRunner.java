@@ -0,0 +1,25 @@
+package com.hiber.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs benchmarks with the GC profiler, so next to throughput of every stage its allocation rate is reported
+ * (<code>gc.alloc.rate.norm</code> is the number of bytes allocated per operation).
+ * <p/>
+ * Usage: <code>mvn -pl common-benchmarks -am package && java -jar common-benchmarks/target/benchmarks.jar [JMH options]</code>,
+ * e.g. pass a regular expression to run selected benchmarks only.
+ */
+public class BenchmarkRunner {
+	public static void main(final String[] args) throws CommandLineOptionException, RunnerException {
+		new Runner(new OptionsBuilder()
+				.parent(new CommandLineOptions(args))
+				.addProfiler(GCProfiler.class)
+				.build()
+		).run();
+	}
+}
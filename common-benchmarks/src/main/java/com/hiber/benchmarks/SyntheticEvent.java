@@ -0,0 +1,33 @@
+package com.hiber.benchmarks;
+
+import java.util.List;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A payload of synthetic messages, shaped like a typical event consumed by services.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyntheticEvent {
+	@NotNull
+	private String id;
+
+	@NotBlank
+	private String name;
+
+	@Min(0)
+	private long value;
+
+	private long createdAt;
+
+	@NotNull
+	@Size(max = 10)
+	private List<String> tags;
+}
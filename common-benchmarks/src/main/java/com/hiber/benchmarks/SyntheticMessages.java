@@ -0,0 +1,52 @@
+package com.hiber.benchmarks;
+
+import com.hiber.base.integration.aws.sqs.ChangingHeadersDefaults;
+import com.hiber.test.sqs.InMemoryAmazonSqs;
+import java.util.UUID;
+import org.springframework.integration.aws.support.AwsHeaders;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
+
+/**
+ * Creates messages shaped like the ones produced by the SQS message driven channel adapter.
+ */
+public final class SyntheticMessages {
+	/**
+	 * A serialised {@link SyntheticEvent}.
+	 */
+	public static final String JSON = "{"
+			+ "\"id\":\"7f1c0c4e-5b0a-4d4b-9d8e-3f6b2a1c9e77\","
+			+ "\"name\":\"synthetic\","
+			+ "\"value\":42,"
+			+ "\"createdAt\":1554076800000,"
+			+ "\"tags\":[\"first\",\"second\",\"third\"]"
+			+ "}";
+
+	private SyntheticMessages() {
+	}
+
+	/**
+	 * @param index The index of a queue.
+	 *
+	 * @return The URL of a benchmark queue.
+	 */
+	public static String queueUrl(final int index) {
+		return InMemoryAmazonSqs.QUEUE_URL_PREFIX + "benchmark-" + index;
+	}
+
+	/**
+	 * @param queueUrl The URL of the queue the message is received from.
+	 *
+	 * @return A received message with {@link #JSON} payload.
+	 */
+	public static Message<String> received(final String queueUrl) {
+		return MessageBuilder.withPayload(JSON)
+				.setHeader(AwsHeaders.RECEIVED_QUEUE, queueUrl)
+				.setHeader(AwsHeaders.RECEIPT_HANDLE, UUID.randomUUID().toString())
+				.setHeader(AwsHeaders.MESSAGE_ID, UUID.randomUUID().toString())
+				.setHeader("ApproximateReceiveCount", "1")
+				.setHeader("SentTimestamp", "1554076800000")
+				.setHeader(ChangingHeadersDefaults.SLEUTH_MESSAGE_SENT_HEADER, "true")
+				.build();
+	}
+}
@@ -0,0 +1,58 @@
+package com.hiber.test.sqs;
+
+import com.hiber.base.integration.aws.sqs.SqsPayloadStore;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * A stand-in for the S3 payload store keeping bodies of big messages as files of a local directory, meant for tests only.
+ * Pointers are <code>file:</code> URIs.
+ */
+@RequiredArgsConstructor
+public class FileSystemSqsPayloadStore implements SqsPayloadStore {
+	/**
+	 * The directory where bodies are stored.
+	 */
+	private final Path directory;
+
+	@Override
+	public String store(final byte[] payload) {
+		try {
+			final Path file = Files.write(directory.resolve(UUID.randomUUID() + ".json"), payload);
+			return file.toUri().toString();
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@Override
+	public InputStream open(final String pointer) throws IOException {
+		final Path file = Paths.get(URI.create(pointer)).normalize();
+		if (!file.startsWith(directory.toAbsolutePath().normalize()))
+			throw new IOException("Pointer " + pointer + " is outside of " + directory);
+		return Files.newInputStream(file);
+	}
+
+	/**
+	 * Deletes the directory with all stored bodies.
+	 *
+	 * @throws IOException If the directory could not be deleted.
+	 */
+	public void deleteDirectory() throws IOException {
+		try (Stream<Path> paths = Files.walk(directory)) {
+			for (final Path path : paths.sorted(Comparator.reverseOrder()).collect(Collectors.toList()))
+				Files.deleteIfExists(path);
+		}
+	}
+}
@@ -0,0 +1,407 @@
+package com.hiber.test.sqs;
+
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.AmazonWebServiceRequest;
+import com.amazonaws.handlers.AsyncHandler;
+import com.amazonaws.services.sqs.AbstractAmazonSQSAsync;
+import com.amazonaws.services.sqs.model.BatchEntryIdsNotDistinctException;
+import com.amazonaws.services.sqs.model.BatchResultErrorEntry;
+import com.amazonaws.services.sqs.model.ChangeMessageVisibilityBatchRequest;
+import com.amazonaws.services.sqs.model.ChangeMessageVisibilityBatchRequestEntry;
+import com.amazonaws.services.sqs.model.ChangeMessageVisibilityBatchResult;
+import com.amazonaws.services.sqs.model.ChangeMessageVisibilityBatchResultEntry;
+import com.amazonaws.services.sqs.model.ChangeMessageVisibilityRequest;
+import com.amazonaws.services.sqs.model.ChangeMessageVisibilityResult;
+import com.amazonaws.services.sqs.model.CreateQueueRequest;
+import com.amazonaws.services.sqs.model.CreateQueueResult;
+import com.amazonaws.services.sqs.model.DeleteMessageBatchRequest;
+import com.amazonaws.services.sqs.model.DeleteMessageBatchRequestEntry;
+import com.amazonaws.services.sqs.model.DeleteMessageBatchResult;
+import com.amazonaws.services.sqs.model.DeleteMessageBatchResultEntry;
+import com.amazonaws.services.sqs.model.DeleteMessageRequest;
+import com.amazonaws.services.sqs.model.DeleteMessageResult;
+import com.amazonaws.services.sqs.model.DeleteQueueRequest;
+import com.amazonaws.services.sqs.model.DeleteQueueResult;
+import com.amazonaws.services.sqs.model.EmptyBatchRequestException;
+import com.amazonaws.services.sqs.model.GetQueueAttributesRequest;
+import com.amazonaws.services.sqs.model.GetQueueAttributesResult;
+import com.amazonaws.services.sqs.model.GetQueueUrlRequest;
+import com.amazonaws.services.sqs.model.GetQueueUrlResult;
+import com.amazonaws.services.sqs.model.ListQueuesRequest;
+import com.amazonaws.services.sqs.model.ListQueuesResult;
+import com.amazonaws.services.sqs.model.PurgeQueueRequest;
+import com.amazonaws.services.sqs.model.PurgeQueueResult;
+import com.amazonaws.services.sqs.model.QueueDoesNotExistException;
+import com.amazonaws.services.sqs.model.ReceiveMessageRequest;
+import com.amazonaws.services.sqs.model.ReceiveMessageResult;
+import com.amazonaws.services.sqs.model.SendMessageBatchRequest;
+import com.amazonaws.services.sqs.model.SendMessageBatchRequestEntry;
+import com.amazonaws.services.sqs.model.SendMessageBatchResult;
+import com.amazonaws.services.sqs.model.SendMessageBatchResultEntry;
+import com.amazonaws.services.sqs.model.SendMessageRequest;
+import com.amazonaws.services.sqs.model.SendMessageResult;
+import com.amazonaws.services.sqs.model.SetQueueAttributesRequest;
+import com.amazonaws.services.sqs.model.SetQueueAttributesResult;
+import com.amazonaws.services.sqs.model.TooManyEntriesInBatchRequestException;
+import java.time.Clock;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.hiber.test.sqs.InMemoryQueue.error;
+
+/**
+ * An in-memory stand-in for SQS, so code using queues can be tested without Localstack.
+ * <p/>
+ * Models visibility timeouts and delays, receive counts (<code>ApproximateReceiveCount</code>), long polling, message and
+ * system attributes selected by a receive request, FIFO queues (queues with the <code>.fifo</code> suffix) with message groups
+ * and deduplication, and the batch APIs including their per-entry failures. Permissions, tags, dead-letter queues and message
+ * retention are not modelled.
+ * <p/>
+ * Queues are created on first use of their URL or name, so no set-up is needed. The clock can be replaced to test visibility
+ * timeouts without waiting. Asynchronous operations are executed by a pool of daemon threads.
+ *
+ * @see InMemorySqsConfiguration
+ */
+public class InMemoryAmazonSqs extends AbstractAmazonSQSAsync {
+	/**
+	 * The prefix of URLs of queues created by name.
+	 */
+	public static final String QUEUE_URL_PREFIX = "http://sqs.in-memory/000000000000/";
+
+	private final Clock clock;
+	private final ConcurrentMap<String, InMemoryQueue> queues = new ConcurrentHashMap<>();
+	private final ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+		final Thread thread = new Thread(runnable, "in-memory-sqs");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	public InMemoryAmazonSqs() {
+		this(Clock.systemUTC());
+	}
+
+	/**
+	 * @param clock The clock that visibility timeouts and delays are based on.
+	 */
+	public InMemoryAmazonSqs(final Clock clock) {
+		this.clock = clock;
+	}
+
+	@Override
+	public SendMessageResult sendMessage(final SendMessageRequest request) {
+		return getQueue(request.getQueueUrl()).send(
+				request.getMessageBody(),
+				request.getMessageAttributes(),
+				request.getDelaySeconds(),
+				request.getMessageGroupId(),
+				request.getMessageDeduplicationId()
+		);
+	}
+
+	@Override
+	public SendMessageBatchResult sendMessageBatch(final SendMessageBatchRequest request) {
+		final InMemoryQueue queue = getQueue(request.getQueueUrl());
+		validateBatch(request.getEntries(), SendMessageBatchRequestEntry::getId);
+
+		final SendMessageBatchResult result = new SendMessageBatchResult();
+		for (final SendMessageBatchRequestEntry entry : request.getEntries()) {
+			try {
+				final SendMessageResult sent = queue.send(
+						entry.getMessageBody(),
+						entry.getMessageAttributes(),
+						entry.getDelaySeconds(),
+						entry.getMessageGroupId(),
+						entry.getMessageDeduplicationId()
+				);
+				result.withSuccessful(new SendMessageBatchResultEntry()
+						.withId(entry.getId())
+						.withMessageId(sent.getMessageId())
+						.withMD5OfMessageBody(sent.getMD5OfMessageBody())
+						.withSequenceNumber(sent.getSequenceNumber()));
+			}
+			catch (RuntimeException e) {
+				result.withFailed(toErrorEntry(entry.getId(), e));
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public ReceiveMessageResult receiveMessage(final ReceiveMessageRequest request) {
+		return new ReceiveMessageResult().withMessages(getQueue(request.getQueueUrl()).receive(request));
+	}
+
+	@Override
+	public DeleteMessageResult deleteMessage(final DeleteMessageRequest request) {
+		getQueue(request.getQueueUrl()).delete(request.getReceiptHandle());
+		return new DeleteMessageResult();
+	}
+
+	@Override
+	public DeleteMessageBatchResult deleteMessageBatch(final DeleteMessageBatchRequest request) {
+		final InMemoryQueue queue = getQueue(request.getQueueUrl());
+		validateBatch(request.getEntries(), DeleteMessageBatchRequestEntry::getId);
+
+		final DeleteMessageBatchResult result = new DeleteMessageBatchResult();
+		for (final DeleteMessageBatchRequestEntry entry : request.getEntries()) {
+			try {
+				queue.delete(entry.getReceiptHandle());
+				result.withSuccessful(new DeleteMessageBatchResultEntry().withId(entry.getId()));
+			}
+			catch (RuntimeException e) {
+				result.withFailed(toErrorEntry(entry.getId(), e));
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public ChangeMessageVisibilityResult changeMessageVisibility(final ChangeMessageVisibilityRequest request) {
+		getQueue(request.getQueueUrl()).changeVisibility(request.getReceiptHandle(), request.getVisibilityTimeout());
+		return new ChangeMessageVisibilityResult();
+	}
+
+	@Override
+	public ChangeMessageVisibilityBatchResult changeMessageVisibilityBatch(final ChangeMessageVisibilityBatchRequest request) {
+		final InMemoryQueue queue = getQueue(request.getQueueUrl());
+		validateBatch(request.getEntries(), ChangeMessageVisibilityBatchRequestEntry::getId);
+
+		final ChangeMessageVisibilityBatchResult result = new ChangeMessageVisibilityBatchResult();
+		for (final ChangeMessageVisibilityBatchRequestEntry entry : request.getEntries()) {
+			try {
+				queue.changeVisibility(entry.getReceiptHandle(), entry.getVisibilityTimeout());
+				result.withSuccessful(new ChangeMessageVisibilityBatchResultEntry().withId(entry.getId()));
+			}
+			catch (RuntimeException e) {
+				result.withFailed(toErrorEntry(entry.getId(), e));
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public CreateQueueResult createQueue(final CreateQueueRequest request) {
+		final String queueUrl = QUEUE_URL_PREFIX + request.getQueueName();
+		final InMemoryQueue queue = queues.computeIfAbsent(
+				queueUrl,
+				url -> new InMemoryQueue(url, request.getQueueName(), clock, request.getAttributes())
+		);
+		return new CreateQueueResult().withQueueUrl(queue.getUrl());
+	}
+
+	@Override
+	public GetQueueUrlResult getQueueUrl(final GetQueueUrlRequest request) {
+		return new GetQueueUrlResult().withQueueUrl(getQueue(QUEUE_URL_PREFIX + request.getQueueName()).getUrl());
+	}
+
+	@Override
+	public ListQueuesResult listQueues(final ListQueuesRequest request) {
+		final String prefix = Optional.ofNullable(request.getQueueNamePrefix()).orElse("");
+		return new ListQueuesResult().withQueueUrls(queues.values().stream()
+				.filter(queue -> queue.getName().startsWith(prefix))
+				.map(InMemoryQueue::getUrl)
+				.sorted()
+				.collect(Collectors.toList()));
+	}
+
+	@Override
+	public DeleteQueueResult deleteQueue(final DeleteQueueRequest request) {
+		if (queues.remove(request.getQueueUrl()) == null)
+			throw queueDoesNotExist();
+		return new DeleteQueueResult();
+	}
+
+	@Override
+	public PurgeQueueResult purgeQueue(final PurgeQueueRequest request) {
+		getQueue(request.getQueueUrl()).purge();
+		return new PurgeQueueResult();
+	}
+
+	@Override
+	public GetQueueAttributesResult getQueueAttributes(final GetQueueAttributesRequest request) {
+		return new GetQueueAttributesResult().withAttributes(getQueue(request.getQueueUrl()).getAttributes(request.getAttributeNames()));
+	}
+
+	@Override
+	public SetQueueAttributesResult setQueueAttributes(final SetQueueAttributesRequest request) {
+		getQueue(request.getQueueUrl()).setAttributes(request.getAttributes());
+		return new SetQueueAttributesResult();
+	}
+
+	@Override
+	public void shutdown() {
+		executor.shutdownNow();
+	}
+
+	@Override
+	public Future<SendMessageResult> sendMessageAsync(
+			final SendMessageRequest request,
+			final AsyncHandler<SendMessageRequest, SendMessageResult> asyncHandler
+	) {
+		return async(request, asyncHandler, this::sendMessage);
+	}
+
+	@Override
+	public Future<SendMessageBatchResult> sendMessageBatchAsync(
+			final SendMessageBatchRequest request,
+			final AsyncHandler<SendMessageBatchRequest, SendMessageBatchResult> asyncHandler
+	) {
+		return async(request, asyncHandler, this::sendMessageBatch);
+	}
+
+	@Override
+	public Future<ReceiveMessageResult> receiveMessageAsync(
+			final ReceiveMessageRequest request,
+			final AsyncHandler<ReceiveMessageRequest, ReceiveMessageResult> asyncHandler
+	) {
+		return async(request, asyncHandler, this::receiveMessage);
+	}
+
+	@Override
+	public Future<DeleteMessageResult> deleteMessageAsync(
+			final DeleteMessageRequest request,
+			final AsyncHandler<DeleteMessageRequest, DeleteMessageResult> asyncHandler
+	) {
+		return async(request, asyncHandler, this::deleteMessage);
+	}
+
+	@Override
+	public Future<DeleteMessageBatchResult> deleteMessageBatchAsync(
+			final DeleteMessageBatchRequest request,
+			final AsyncHandler<DeleteMessageBatchRequest, DeleteMessageBatchResult> asyncHandler
+	) {
+		return async(request, asyncHandler, this::deleteMessageBatch);
+	}
+
+	@Override
+	public Future<ChangeMessageVisibilityResult> changeMessageVisibilityAsync(
+			final ChangeMessageVisibilityRequest request,
+			final AsyncHandler<ChangeMessageVisibilityRequest, ChangeMessageVisibilityResult> asyncHandler
+	) {
+		return async(request, asyncHandler, this::changeMessageVisibility);
+	}
+
+	@Override
+	public Future<ChangeMessageVisibilityBatchResult> changeMessageVisibilityBatchAsync(
+			final ChangeMessageVisibilityBatchRequest request,
+			final AsyncHandler<ChangeMessageVisibilityBatchRequest, ChangeMessageVisibilityBatchResult> asyncHandler
+	) {
+		return async(request, asyncHandler, this::changeMessageVisibilityBatch);
+	}
+
+	@Override
+	public Future<CreateQueueResult> createQueueAsync(
+			final CreateQueueRequest request,
+			final AsyncHandler<CreateQueueRequest, CreateQueueResult> asyncHandler
+	) {
+		return async(request, asyncHandler, this::createQueue);
+	}
+
+	@Override
+	public Future<GetQueueUrlResult> getQueueUrlAsync(
+			final GetQueueUrlRequest request,
+			final AsyncHandler<GetQueueUrlRequest, GetQueueUrlResult> asyncHandler
+	) {
+		return async(request, asyncHandler, this::getQueueUrl);
+	}
+
+	@Override
+	public Future<ListQueuesResult> listQueuesAsync(
+			final ListQueuesRequest request,
+			final AsyncHandler<ListQueuesRequest, ListQueuesResult> asyncHandler
+	) {
+		return async(request, asyncHandler, this::listQueues);
+	}
+
+	@Override
+	public Future<DeleteQueueResult> deleteQueueAsync(
+			final DeleteQueueRequest request,
+			final AsyncHandler<DeleteQueueRequest, DeleteQueueResult> asyncHandler
+	) {
+		return async(request, asyncHandler, this::deleteQueue);
+	}
+
+	@Override
+	public Future<PurgeQueueResult> purgeQueueAsync(
+			final PurgeQueueRequest request,
+			final AsyncHandler<PurgeQueueRequest, PurgeQueueResult> asyncHandler
+	) {
+		return async(request, asyncHandler, this::purgeQueue);
+	}
+
+	@Override
+	public Future<GetQueueAttributesResult> getQueueAttributesAsync(
+			final GetQueueAttributesRequest request,
+			final AsyncHandler<GetQueueAttributesRequest, GetQueueAttributesResult> asyncHandler
+	) {
+		return async(request, asyncHandler, this::getQueueAttributes);
+	}
+
+	@Override
+	public Future<SetQueueAttributesResult> setQueueAttributesAsync(
+			final SetQueueAttributesRequest request,
+			final AsyncHandler<SetQueueAttributesRequest, SetQueueAttributesResult> asyncHandler
+	) {
+		return async(request, asyncHandler, this::setQueueAttributes);
+	}
+
+	private InMemoryQueue getQueue(final String queueUrl) {
+		if (queueUrl == null)
+			throw queueDoesNotExist();
+		return queues.computeIfAbsent(
+				queueUrl,
+				url -> new InMemoryQueue(url, url.substring(url.lastIndexOf('/') + 1), clock, Map.of())
+		);
+	}
+
+	private <Q extends AmazonWebServiceRequest, R> Future<R> async(
+			final Q request,
+			final AsyncHandler<Q, R> asyncHandler,
+			final Function<Q, R> operation
+	) {
+		return executor.submit(() -> {
+			final R result;
+			try {
+				result = operation.apply(request);
+			}
+			catch (RuntimeException e) {
+				if (asyncHandler != null)
+					asyncHandler.onError(e);
+				throw e;
+			}
+			if (asyncHandler != null)
+				asyncHandler.onSuccess(request, result);
+			return result;
+		});
+	}
+
+	private static <E> void validateBatch(final List<E> entries, final Function<E, String> id) {
+		if (entries == null || entries.isEmpty())
+			throw error(new EmptyBatchRequestException("There should be at least one entry in the request."), "AWS.SimpleQueueService.EmptyBatchRequest");
+		if (entries.size() > 10)
+			throw error(new TooManyEntriesInBatchRequestException("Maximum number of entries per request are 10."), "AWS.SimpleQueueService.TooManyEntriesInBatchRequest");
+		if (entries.stream().map(id).distinct().count() != entries.size())
+			throw error(new BatchEntryIdsNotDistinctException("Two or more batch entries in the request have the same Id."), "AWS.SimpleQueueService.BatchEntryIdsNotDistinct");
+	}
+
+	private static BatchResultErrorEntry toErrorEntry(final String id, final RuntimeException exception) {
+		final BatchResultErrorEntry entry = new BatchResultErrorEntry().withId(id).withSenderFault(true);
+		if (exception instanceof AmazonServiceException) {
+			final AmazonServiceException serviceException = (AmazonServiceException) exception;
+			return entry.withCode(serviceException.getErrorCode()).withMessage(serviceException.getErrorMessage());
+		}
+		return entry.withCode("InternalError").withMessage(exception.getMessage()).withSenderFault(false);
+	}
+
+	private static QueueDoesNotExistException queueDoesNotExist() {
+		return error(new QueueDoesNotExistException("The specified queue does not exist for this wsdl version."), "AWS.SimpleQueueService.NonExistentQueue");
+	}
+}
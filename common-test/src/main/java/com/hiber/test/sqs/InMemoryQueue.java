@@ -0,0 +1,371 @@
+package com.hiber.test.sqs;
+
+import com.amazonaws.AmazonServiceException.ErrorType;
+import com.amazonaws.services.sqs.model.AmazonSQSException;
+import com.amazonaws.services.sqs.model.Message;
+import com.amazonaws.services.sqs.model.MessageAttributeValue;
+import com.amazonaws.services.sqs.model.MessageNotInflightException;
+import com.amazonaws.services.sqs.model.ReceiptHandleIsInvalidException;
+import com.amazonaws.services.sqs.model.ReceiveMessageRequest;
+import com.amazonaws.services.sqs.model.SendMessageResult;
+import com.amazonaws.util.BinaryUtils;
+import com.amazonaws.util.Md5Utils;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+import lombok.Value;
+
+/**
+ * State of a single queue of {@link InMemoryAmazonSqs}.
+ * <p/>
+ * Messages are kept in order of sending. A message is visible when its visibility time (the end of the delay or of the
+ * visibility timeout) has passed. In a FIFO queue a message group is blocked as long as one of its messages is in flight.
+ */
+class InMemoryQueue {
+	/**
+	 * The max time between checks for messages becoming visible during a long poll.
+	 */
+	private static final long LONG_POLL_CHECK_MILLIS = 20;
+
+	/**
+	 * The deduplication interval of FIFO queues.
+	 */
+	private static final long DEDUPLICATION_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+	private static final String SENDER_ID = "000000000000";
+
+	private final String url;
+	private final String name;
+	private final boolean fifo;
+	private final Clock clock;
+	private final Map<String, String> attributes = new HashMap<>();
+	private final long createdTimestamp;
+
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Condition changed = lock.newCondition();
+	private final Map<String, StoredMessage> messages = new LinkedHashMap<>();
+	private final Map<String, StoredMessage> messagesByReceiptHandle = new HashMap<>();
+	private final Map<String, Deduplication> deduplications = new HashMap<>();
+	private long sequenceNumber;
+
+	InMemoryQueue(final String url, final String name, final Clock clock, final Map<String, String> attributes) {
+		this.url = url;
+		this.name = name;
+		this.fifo = name.endsWith(".fifo");
+		this.clock = clock;
+		this.createdTimestamp = clock.millis();
+
+		this.attributes.put("VisibilityTimeout", "30");
+		this.attributes.put("DelaySeconds", "0");
+		this.attributes.put("ReceiveMessageWaitTimeSeconds", "0");
+		this.attributes.put("MaximumMessageSize", "262144");
+		this.attributes.put("MessageRetentionPeriod", "345600");
+		if (fifo) {
+			this.attributes.put("FifoQueue", "true");
+			this.attributes.put("ContentBasedDeduplication", "false");
+		}
+		this.attributes.putAll(attributes);
+	}
+
+	String getUrl() {
+		return url;
+	}
+
+	String getName() {
+		return name;
+	}
+
+	SendMessageResult send(
+			final String body,
+			final Map<String, MessageAttributeValue> messageAttributes,
+			final Integer delaySeconds,
+			final String messageGroupId,
+			final String messageDeduplicationId
+	) {
+		if (body == null || body.isEmpty())
+			throw error(new AmazonSQSException("The request must contain the parameter MessageBody."), "MissingParameter");
+		if (fifo && messageGroupId == null)
+			throw error(new AmazonSQSException("The request must contain the parameter MessageGroupId."), "MissingParameter");
+
+		lock.lock();
+		try {
+			final long now = clock.millis();
+			final StoredMessage message = new StoredMessage(UUID.randomUUID().toString(), body, messageAttributes);
+			message.attributes.put("SenderId", SENDER_ID);
+			message.attributes.put("SentTimestamp", Long.toString(now));
+
+			if (fifo) {
+				final String deduplicationId = getDeduplicationId(body, messageDeduplicationId);
+				deduplications.values().removeIf(deduplication -> deduplication.getExpiresAt() <= now);
+				final Deduplication deduplication = deduplications.get(deduplicationId);
+				if (deduplication != null)
+					return deduplication.getResult();
+
+				message.attributes.put("MessageGroupId", messageGroupId);
+				message.attributes.put("MessageDeduplicationId", deduplicationId);
+				message.attributes.put("SequenceNumber", String.format("%020d", ++sequenceNumber));
+			}
+
+			final int delay = Optional.ofNullable(delaySeconds).orElseGet(() -> getIntAttribute("DelaySeconds"));
+			message.visibleAt = now + TimeUnit.SECONDS.toMillis(delay);
+			messages.put(message.messageId, message);
+			changed.signalAll();
+
+			final SendMessageResult result = new SendMessageResult()
+					.withMessageId(message.messageId)
+					.withMD5OfMessageBody(message.md5OfBody)
+					.withSequenceNumber(message.attributes.get("SequenceNumber"));
+			if (fifo)
+				deduplications.put(message.attributes.get("MessageDeduplicationId"), new Deduplication(result, now + DEDUPLICATION_INTERVAL_MILLIS));
+			return result;
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	List<Message> receive(final ReceiveMessageRequest request) {
+		final int maxNumberOfMessages = Optional.ofNullable(request.getMaxNumberOfMessages()).orElse(1);
+		if (maxNumberOfMessages < 1 || maxNumberOfMessages > 10)
+			throw error(new AmazonSQSException("Value for parameter MaxNumberOfMessages is invalid."), "InvalidParameterValue");
+		final int visibilityTimeout = Optional.ofNullable(request.getVisibilityTimeout())
+				.orElseGet(() -> getIntAttribute("VisibilityTimeout"));
+		final int waitTimeSeconds = Optional.ofNullable(request.getWaitTimeSeconds())
+				.orElseGet(() -> getIntAttribute("ReceiveMessageWaitTimeSeconds"));
+		final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(waitTimeSeconds);
+
+		lock.lock();
+		try {
+			while (true) {
+				final List<Message> received = receiveVisible(request, maxNumberOfMessages, visibilityTimeout);
+				final long remaining = deadline - System.nanoTime();
+				if (!received.isEmpty() || remaining <= 0)
+					return received;
+
+				// Visibility is based on the clock, so it has to be checked periodically and not only when the queue changes.
+				changed.await(Math.min(remaining, TimeUnit.MILLISECONDS.toNanos(LONG_POLL_CHECK_MILLIS)), TimeUnit.NANOSECONDS);
+			}
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return List.of();
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	void delete(final String receiptHandle) {
+		lock.lock();
+		try {
+			final StoredMessage message = getByReceiptHandle(receiptHandle);
+			messages.remove(message.messageId);
+			message.receiptHandles.forEach(messagesByReceiptHandle::remove);
+			changed.signalAll();
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	void changeVisibility(final String receiptHandle, final int visibilityTimeout) {
+		if (visibilityTimeout < 0 || visibilityTimeout > 43200)
+			throw error(new AmazonSQSException("Value for parameter VisibilityTimeout is invalid."), "InvalidParameterValue");
+
+		lock.lock();
+		try {
+			final StoredMessage message = getByReceiptHandle(receiptHandle);
+			final long now = clock.millis();
+			if (!receiptHandle.equals(message.receiptHandle) || message.visibleAt <= now)
+				throw error(new MessageNotInflightException("Message does not exist or is not available for visibility timeout change."), "AWS.SimpleQueueService.MessageNotInflight");
+
+			message.visibleAt = now + TimeUnit.SECONDS.toMillis(visibilityTimeout);
+			changed.signalAll();
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	void purge() {
+		lock.lock();
+		try {
+			messages.clear();
+			messagesByReceiptHandle.clear();
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	Map<String, String> getAttributes(final Collection<String> attributeNames) {
+		lock.lock();
+		try {
+			final long now = clock.millis();
+			final Map<String, String> all = new HashMap<>(attributes);
+			all.put("QueueArn", "arn:aws:sqs:in-memory:" + SENDER_ID + ":" + name);
+			all.put("CreatedTimestamp", Long.toString(TimeUnit.MILLISECONDS.toSeconds(createdTimestamp)));
+			all.put("ApproximateNumberOfMessages", Long.toString(count(m -> m.visibleAt <= now)));
+			all.put("ApproximateNumberOfMessagesNotVisible", Long.toString(count(m -> m.visibleAt > now && m.receiveCount > 0)));
+			all.put("ApproximateNumberOfMessagesDelayed", Long.toString(count(m -> m.visibleAt > now && m.receiveCount == 0)));
+
+			return filter(all, attributeNames);
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	void setAttributes(final Map<String, String> attributes) {
+		lock.lock();
+		try {
+			this.attributes.putAll(attributes);
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	private List<Message> receiveVisible(final ReceiveMessageRequest request, final int maxNumberOfMessages, final int visibilityTimeout) {
+		final long now = clock.millis();
+		final Set<String> blockedGroups = new HashSet<>();
+		final List<Message> received = new ArrayList<>(maxNumberOfMessages);
+
+		final Iterator<StoredMessage> iterator = messages.values().iterator();
+		while (iterator.hasNext() && received.size() < maxNumberOfMessages) {
+			final StoredMessage message = iterator.next();
+			final String group = message.attributes.get("MessageGroupId");
+			if (fifo && blockedGroups.contains(group))
+				continue;
+			if (message.visibleAt > now) {
+				// Messages of a FIFO group are delivered in order, so a message in flight blocks the rest of its group.
+				if (fifo)
+					blockedGroups.add(group);
+				continue;
+			}
+
+			if (message.receiveCount++ == 0)
+				message.attributes.put("ApproximateFirstReceiveTimestamp", Long.toString(now));
+			message.attributes.put("ApproximateReceiveCount", Integer.toString(message.receiveCount));
+			message.visibleAt = now + TimeUnit.SECONDS.toMillis(visibilityTimeout);
+			message.receiptHandle = UUID.randomUUID().toString();
+			message.receiptHandles.add(message.receiptHandle);
+			messagesByReceiptHandle.put(message.receiptHandle, message);
+
+			received.add(new Message()
+					.withMessageId(message.messageId)
+					.withReceiptHandle(message.receiptHandle)
+					.withBody(message.body)
+					.withMD5OfBody(message.md5OfBody)
+					.withAttributes(filter(message.attributes, request.getAttributeNames()))
+					.withMessageAttributes(filter(message.messageAttributes, request.getMessageAttributeNames())));
+		}
+		return received;
+	}
+
+	private StoredMessage getByReceiptHandle(final String receiptHandle) {
+		final StoredMessage message = messagesByReceiptHandle.get(receiptHandle);
+		if (message == null)
+			throw error(new ReceiptHandleIsInvalidException("The input receipt handle is invalid."), "ReceiptHandleIsInvalid");
+		return message;
+	}
+
+	private String getDeduplicationId(final String body, final String messageDeduplicationId) {
+		if (messageDeduplicationId != null)
+			return messageDeduplicationId;
+		if (!Boolean.parseBoolean(attributes.get("ContentBasedDeduplication")))
+			throw error(
+					new AmazonSQSException("The queue should either have ContentBasedDeduplication enabled or MessageDeduplicationId provided explicitly"),
+					"InvalidParameterValue"
+			);
+
+		try {
+			return BinaryUtils.toHex(MessageDigest.getInstance("SHA-256").digest(body.getBytes(StandardCharsets.UTF_8)));
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private int getIntAttribute(final String attributeName) {
+		return Integer.parseInt(attributes.get(attributeName));
+	}
+
+	private long count(final Predicate<StoredMessage> predicate) {
+		return messages.values().stream().filter(predicate).count();
+	}
+
+	/**
+	 * Selects entries by names as SQS does: <code>All</code> and <code>.*</code> select everything, a name ending with
+	 * <code>.*</code> selects all names with the prefix.
+	 */
+	private static <V> Map<String, V> filter(final Map<String, V> values, final Collection<String> names) {
+		final Map<String, V> filtered = new HashMap<>();
+		if (names == null)
+			return filtered;
+
+		for (final String name : names) {
+			if ("All".equals(name) || ".*".equals(name))
+				return new HashMap<>(values);
+			if (name.endsWith(".*")) {
+				final String prefix = name.substring(0, name.length() - 1);
+				values.forEach((key, value) -> {
+					if (key.startsWith(prefix))
+						filtered.put(key, value);
+				});
+			}
+			else if (values.containsKey(name))
+				filtered.put(name, values.get(name));
+		}
+		return filtered;
+	}
+
+	static <E extends AmazonSQSException> E error(final E exception, final String errorCode) {
+		exception.setErrorCode(errorCode);
+		exception.setErrorType(ErrorType.Client);
+		exception.setServiceName("AmazonSQS");
+		exception.setStatusCode(400);
+		return exception;
+	}
+
+	private static class StoredMessage {
+		private final String messageId;
+		private final String body;
+		private final String md5OfBody;
+		private final Map<String, String> attributes = new HashMap<>();
+		private final Map<String, MessageAttributeValue> messageAttributes;
+		private final List<String> receiptHandles = new ArrayList<>();
+		private String receiptHandle;
+		private int receiveCount;
+		private long visibleAt;
+
+		private StoredMessage(final String messageId, final String body, final Map<String, MessageAttributeValue> messageAttributes) {
+			this.messageId = messageId;
+			this.body = body;
+			this.md5OfBody = BinaryUtils.toHex(Md5Utils.computeMD5Hash(body.getBytes(StandardCharsets.UTF_8)));
+			this.messageAttributes = messageAttributes == null ? Map.of() : Map.copyOf(messageAttributes);
+		}
+	}
+
+	@Value
+	private static class Deduplication {
+		SendMessageResult result;
+		long expiresAt;
+	}
+}
@@ -0,0 +1,45 @@
+package com.hiber.test.sqs;
+
+import com.hiber.base.integration.aws.sqs.SqsPayloadStore;
+import com.hiber.base.queue.SqsBatchQueueConsumersAutoConfiguration;
+import com.hiber.base.queue.SqsQueueConsumersAutoConfiguration;
+import com.hiber.base.queue.SqsQueueProducersAutoConfiguration;
+import java.io.IOException;
+import java.nio.file.Files;
+import org.springframework.boot.autoconfigure.AutoConfigureBefore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+/**
+ * Replaces the SQS client of {@link com.hiber.base.queue.SqsClientConfiguration} with {@link InMemoryAmazonSqs} when
+ * <code>hiber.sqs.in-memory</code> is set to <code>true</code>, so queue consumers and producers of a test run without
+ * Localstack.
+ * <p/>
+ * Bodies of big messages are kept by {@link FileSystemSqsPayloadStore} in a temporary directory, deleted together with the
+ * context, unless the test defines its own {@link SqsPayloadStore}. The configuration is applied before the SQS
+ * auto-configurations, so the file system store also takes precedence over the S3 store of
+ * {@link com.hiber.base.queue.SqsPayloadStoreConfiguration}.
+ */
+@Configuration
+@AutoConfigureBefore({
+		SqsQueueConsumersAutoConfiguration.class,
+		SqsBatchQueueConsumersAutoConfiguration.class,
+		SqsQueueProducersAutoConfiguration.class
+})
+@ConditionalOnProperty(value = "hiber.sqs.in-memory", havingValue = "true")
+public class InMemorySqsConfiguration {
+	@Primary
+	@Bean(destroyMethod = "shutdown")
+	public InMemoryAmazonSqs inMemoryAmazonSqs() {
+		return new InMemoryAmazonSqs();
+	}
+
+	@ConditionalOnMissingBean(SqsPayloadStore.class)
+	@Bean(destroyMethod = "deleteDirectory")
+	public FileSystemSqsPayloadStore fileSystemSqsPayloadStore() throws IOException {
+		return new FileSystemSqsPayloadStore(Files.createTempDirectory("sqs-payloads"));
+	}
+}
@@ -0,0 +1,75 @@
+package com.hiber.test.sqs;
+
+import com.hiber.base.integration.aws.sqs.SqsPayloadStore;
+import com.hiber.base.queue.SqsQueueProducersAutoConfiguration;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.integration.IntegrationAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class FileSystemSqsPayloadStoreTest {
+	private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+			.withConfiguration(AutoConfigurations.of(
+					IntegrationAutoConfiguration.class,
+					JacksonAutoConfiguration.class,
+					SqsQueueProducersAutoConfiguration.class,
+					InMemorySqsConfiguration.class
+			))
+			.withPropertyValues("hiber.sqs.in-memory=true", "hiber.sqs.extended-payload-bucket=bucket");
+
+	@Test
+	void shouldOpenStoredBody() throws IOException {
+		final FileSystemSqsPayloadStore store = new FileSystemSqsPayloadStore(Files.createTempDirectory("sqs-payloads"));
+		try {
+			final String pointer = store.store("{\"value\":1}".getBytes(StandardCharsets.UTF_8));
+
+			try (InputStream body = store.open(pointer)) {
+				assertThat(new String(body.readAllBytes(), StandardCharsets.UTF_8), is("{\"value\":1}"));
+			}
+		}
+		finally {
+			store.deleteDirectory();
+		}
+	}
+
+	@Test
+	void shouldRejectPointerOutsideOfDirectory() throws IOException {
+		final Path directory = Files.createTempDirectory("sqs-payloads");
+		final FileSystemSqsPayloadStore store = new FileSystemSqsPayloadStore(directory);
+		try {
+			assertThrows(IOException.class, () -> store.open(directory.resolve("../other.json").toUri().toString()));
+		}
+		finally {
+			store.deleteDirectory();
+		}
+	}
+
+	@Test
+	void shouldPreferFileSystemStoreAndDeleteItsDirectoryWithContext() {
+		final Path[] directory = new Path[1];
+		contextRunner.run(context -> {
+			final SqsPayloadStore store = context.getBean(SqsPayloadStore.class);
+			assertThat(store, instanceOf(FileSystemSqsPayloadStore.class));
+			// The S3 store of the payload bucket backs off, it would need AWS credentials and a region.
+			assertThat(context.getBeanNamesForType(SqsPayloadStore.class).length, is(1));
+			assertThat(context.containsBean("sqsPayloadStore"), is(false));
+			assertThat(context.containsBean("sqsPayloadAmazonS3"), is(false));
+
+			directory[0] = Path.of(URI.create(store.store(new byte[] {1}))).getParent();
+			assertThat(Files.exists(directory[0]), is(true));
+		});
+		assertThat(Files.exists(directory[0]), is(false));
+	}
+}
@@ -0,0 +1,171 @@
+package com.hiber.test.sqs;
+
+import com.amazonaws.services.sqs.model.ChangeMessageVisibilityBatchRequestEntry;
+import com.amazonaws.services.sqs.model.CreateQueueRequest;
+import com.amazonaws.services.sqs.model.DeleteMessageBatchRequestEntry;
+import com.amazonaws.services.sqs.model.DeleteMessageBatchResult;
+import com.amazonaws.services.sqs.model.Message;
+import com.amazonaws.services.sqs.model.MessageNotInflightException;
+import com.amazonaws.services.sqs.model.ReceiveMessageRequest;
+import com.amazonaws.services.sqs.model.ReceiveMessageResult;
+import com.amazonaws.services.sqs.model.SendMessageBatchRequestEntry;
+import com.amazonaws.services.sqs.model.SendMessageRequest;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class InMemoryAmazonSqsTest {
+	private static final String QUEUE_URL = InMemoryAmazonSqs.QUEUE_URL_PREFIX + "test";
+	private static final String FIFO_QUEUE_URL = InMemoryAmazonSqs.QUEUE_URL_PREFIX + "test.fifo";
+
+	private final MutableClock clock = new MutableClock();
+	private final InMemoryAmazonSqs amazonSqs = new InMemoryAmazonSqs(clock);
+
+	@Test
+	void shouldRedeliverMessageAfterVisibilityTimeoutWithIncreasedReceiveCount() {
+		amazonSqs.sendMessage(QUEUE_URL, "body");
+
+		final Message first = receiveOne(QUEUE_URL, 10);
+		assertThat(first.getAttributes().get("ApproximateReceiveCount"), is("1"));
+		assertThat(receive(QUEUE_URL, 10, 10), hasSize(0));
+
+		clock.advance(Duration.ofSeconds(10));
+		final Message second = receiveOne(QUEUE_URL, 10);
+		assertThat(second.getMessageId(), is(first.getMessageId()));
+		assertThat(second.getAttributes().get("ApproximateReceiveCount"), is("2"));
+	}
+
+	@Test
+	void shouldDeleteMessagesInBatch() {
+		amazonSqs.sendMessage(QUEUE_URL, "first");
+		amazonSqs.sendMessage(QUEUE_URL, "second");
+		final List<Message> messages = receive(QUEUE_URL, 10, 0);
+
+		final DeleteMessageBatchResult result = amazonSqs.deleteMessageBatch(QUEUE_URL, List.of(
+				new DeleteMessageBatchRequestEntry("1", messages.get(0).getReceiptHandle()),
+				new DeleteMessageBatchRequestEntry("2", messages.get(1).getReceiptHandle()),
+				new DeleteMessageBatchRequestEntry("3", "invalid")
+		));
+
+		assertThat(result.getSuccessful(), hasSize(2));
+		assertThat(result.getFailed(), hasSize(1));
+		assertThat(result.getFailed().get(0).getId(), is("3"));
+		clock.advance(Duration.ofMinutes(1));
+		assertThat(receive(QUEUE_URL, 10, 0), hasSize(0));
+	}
+
+	@Test
+	void shouldChangeVisibilityOfMessagesInFlightOnly() {
+		amazonSqs.sendMessageBatch(QUEUE_URL, List.of(
+				new SendMessageBatchRequestEntry("1", "first"),
+				new SendMessageBatchRequestEntry("2", "second")
+		));
+		final List<Message> messages = receive(QUEUE_URL, 10, 30);
+
+		amazonSqs.changeMessageVisibilityBatch(QUEUE_URL, List.of(
+				new ChangeMessageVisibilityBatchRequestEntry("1", messages.get(0).getReceiptHandle()).withVisibilityTimeout(0)
+		));
+
+		assertThat(bodies(receive(QUEUE_URL, 10, 30)), contains("first"));
+		assertThrows(
+				MessageNotInflightException.class,
+				() -> amazonSqs.changeMessageVisibility(QUEUE_URL, messages.get(0).getReceiptHandle(), 10)
+		);
+	}
+
+	@Test
+	void shouldBlockFifoMessageGroupWhileMessageIsInFlight() {
+		send(FIFO_QUEUE_URL, "a1", "a");
+		send(FIFO_QUEUE_URL, "a2", "a");
+		send(FIFO_QUEUE_URL, "b1", "b");
+
+		final Message first = receiveOne(FIFO_QUEUE_URL, 30);
+		assertThat(first.getBody(), is("a1"));
+		assertThat(bodies(receive(FIFO_QUEUE_URL, 10, 30)), contains("b1"));
+
+		amazonSqs.deleteMessage(FIFO_QUEUE_URL, first.getReceiptHandle());
+		assertThat(bodies(receive(FIFO_QUEUE_URL, 10, 30)), contains("a2"));
+	}
+
+	@Test
+	void shouldDeduplicateFifoMessages() {
+		amazonSqs.createQueue(new CreateQueueRequest("deduplicated.fifo").withAttributes(Map.of("ContentBasedDeduplication", "true")));
+		final String queueUrl = amazonSqs.getQueueUrl("deduplicated.fifo").getQueueUrl();
+
+		send(queueUrl, "body", "group");
+		send(queueUrl, "body", "group");
+
+		assertThat(receive(queueUrl, 10, 30), hasSize(1));
+	}
+
+	@Test
+	void shouldReturnReceivedMessageWhenLongPolling() throws Exception {
+		final long start = System.nanoTime();
+		final Future<ReceiveMessageResult> receiving = amazonSqs.receiveMessageAsync(new ReceiveMessageRequest(QUEUE_URL).withWaitTimeSeconds(20));
+		amazonSqs.sendMessage(QUEUE_URL, "body");
+
+		assertThat(bodies(receiving.get().getMessages()), contains("body"));
+		assertThat(System.nanoTime() - start, lessThan(Duration.ofSeconds(5).toNanos()));
+	}
+
+	private void send(final String queueUrl, final String body, final String messageGroupId) {
+		amazonSqs.sendMessage(new SendMessageRequest(queueUrl, body)
+				.withMessageGroupId(messageGroupId)
+				.withMessageDeduplicationId(queueUrl.equals(FIFO_QUEUE_URL) ? body : null));
+	}
+
+	private Message receiveOne(final String queueUrl, final int visibilityTimeout) {
+		final List<Message> messages = amazonSqs.receiveMessage(new ReceiveMessageRequest(queueUrl)
+				.withVisibilityTimeout(visibilityTimeout)
+				.withAttributeNames("All")).getMessages();
+		assertThat(messages, hasSize(1));
+		return messages.get(0);
+	}
+
+	private List<Message> receive(final String queueUrl, final int maxNumberOfMessages, final int visibilityTimeout) {
+		return amazonSqs.receiveMessage(new ReceiveMessageRequest(queueUrl)
+				.withMaxNumberOfMessages(maxNumberOfMessages)
+				.withVisibilityTimeout(visibilityTimeout)).getMessages();
+	}
+
+	private static List<String> bodies(final List<Message> messages) {
+		return messages.stream().map(Message::getBody).collect(Collectors.toList());
+	}
+
+	private static class MutableClock extends Clock {
+		private volatile Instant now = Instant.now();
+
+		void advance(final Duration duration) {
+			now = now.plus(duration);
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone(final ZoneId zone) {
+			return this;
+		}
+
+		@Override
+		public Instant instant() {
+			return now;
+		}
+	}
+}
@@ -0,0 +1,197 @@
+package com.hiber.test.sqs;
+
+import com.amazonaws.services.sqs.model.DeleteMessageBatchRequest;
+import com.amazonaws.services.sqs.model.DeleteMessageBatchResult;
+import com.amazonaws.services.sqs.model.DeleteMessageRequest;
+import com.amazonaws.services.sqs.model.DeleteMessageResult;
+import com.hiber.base.domain.Support;
+import com.hiber.base.queue.SqsQueueConsumersAutoConfiguration;
+import com.hiber.base.queue.SqsQueueConsumersAutoConfiguration.QueueConsumer;
+import com.hiber.base.queue.SqsQueueConsumersAutoConfiguration.QueueConsumer.Concurrency;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.integration.IntegrationAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.integration.endpoint.MessageProducerSupport;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs consumers of {@link SqsQueueConsumersAutoConfiguration} against {@link InMemoryAmazonSqs}.
+ */
+class SqsQueueConsumersTest {
+	private static final String SLOW_QUEUE_URL = InMemoryAmazonSqs.QUEUE_URL_PREFIX + "slow";
+	private static final String FAST_QUEUE_URL = InMemoryAmazonSqs.QUEUE_URL_PREFIX + "fast";
+
+	private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+			.withConfiguration(AutoConfigurations.of(
+					IntegrationAutoConfiguration.class,
+					JacksonAutoConfiguration.class,
+					ValidationAutoConfiguration.class,
+					SqsQueueConsumersAutoConfiguration.class
+			))
+			.withPropertyValues("hiber.sqs.in-memory=true", "hiber.sqs.wait-time-out=1")
+			.withUserConfiguration(ConsumersConfiguration.class);
+
+	@Test
+	void shouldConsumeQueueWhileConsumerOfAnotherQueueIsBlocked() {
+		contextRunner.run(context -> {
+			final RecordingAmazonSqs amazonSqs = context.getBean(RecordingAmazonSqs.class);
+			final Consumers consumers = context.getBean(Consumers.class);
+			try {
+				for (int i = 0; i < 5; i++)
+					amazonSqs.sendMessage(SLOW_QUEUE_URL, "\"slow\"");
+				assertTrue(consumers.slowStarted.await(5, TimeUnit.SECONDS));
+
+				amazonSqs.sendMessage(FAST_QUEUE_URL, "\"fast\"");
+
+				assertThat(consumers.fast.poll(5, TimeUnit.SECONDS), is("fast"));
+			}
+			finally {
+				consumers.release.countDown();
+			}
+		});
+	}
+
+	@Test
+	void shouldDeleteConsumedMessagesAndKeepFailedOnes() {
+		contextRunner.run(context -> {
+			final RecordingAmazonSqs amazonSqs = context.getBean(RecordingAmazonSqs.class);
+			final Consumers consumers = context.getBean(Consumers.class);
+
+			amazonSqs.sendMessage(FAST_QUEUE_URL, "\"fast\"");
+			amazonSqs.sendMessage(FAST_QUEUE_URL, "\"fail\"");
+
+			assertThat(consumers.fast.poll(5, TimeUnit.SECONDS), is("fast"));
+			assertTrue(await(() -> count(amazonSqs, "ApproximateNumberOfMessages") == 0
+					&& count(amazonSqs, "ApproximateNumberOfMessagesNotVisible") == 1));
+			// Pollers never delete messages themselves, consumed messages are deleted in batches by the acknowledgements buffer.
+			assertThat(amazonSqs.singleDeletes.get(), is(0));
+			assertThat(amazonSqs.batchDeletes.get(), is(1));
+		});
+	}
+
+	@Test
+	void shouldStopAndStartAllPollersThroughProducerSupport() {
+		contextRunner.run(context -> {
+			final RecordingAmazonSqs amazonSqs = context.getBean(RecordingAmazonSqs.class);
+			final Consumers consumers = context.getBean(Consumers.class);
+			final MessageProducerSupport producerSupport =
+					context.getBean("sqsMessageProducerSupport", MessageProducerSupport.class);
+
+			producerSupport.stop();
+			amazonSqs.sendMessage(FAST_QUEUE_URL, "\"fast\"");
+
+			assertThat(consumers.fast.poll(1, TimeUnit.SECONDS), is(nullValue()));
+
+			producerSupport.start();
+
+			assertThat(consumers.fast.poll(5, TimeUnit.SECONDS), is("fast"));
+		});
+	}
+
+	private static int count(final InMemoryAmazonSqs amazonSqs, final String attribute) {
+		return Integer.parseInt(amazonSqs.getQueueAttributes(FAST_QUEUE_URL, List.of(attribute)).getAttributes().get(attribute));
+	}
+
+	private static boolean await(final BooleanSupplier condition) throws InterruptedException {
+		final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (!condition.getAsBoolean()) {
+			if (System.nanoTime() > deadline)
+				return false;
+			Thread.sleep(20);
+		}
+		return true;
+	}
+
+	/**
+	 * Counts delete requests.
+	 */
+	static class RecordingAmazonSqs extends InMemoryAmazonSqs {
+		private final AtomicInteger singleDeletes = new AtomicInteger();
+		private final AtomicInteger batchDeletes = new AtomicInteger();
+
+		@Override
+		public DeleteMessageResult deleteMessage(final DeleteMessageRequest request) {
+			singleDeletes.incrementAndGet();
+			return super.deleteMessage(request);
+		}
+
+		@Override
+		public DeleteMessageBatchResult deleteMessageBatch(final DeleteMessageBatchRequest request) {
+			batchDeletes.incrementAndGet();
+			return super.deleteMessageBatch(request);
+		}
+	}
+
+	static class Consumers {
+		private final CountDownLatch slowStarted = new CountDownLatch(1);
+		private final CountDownLatch release = new CountDownLatch(1);
+		private final BlockingQueue<String> fast = new LinkedBlockingQueue<>();
+
+		void consumeSlow(final String payload) {
+			slowStarted.countDown();
+			try {
+				release.await();
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+
+		void consumeFast(final String payload) {
+			if (payload.equals("fail"))
+				throw new IllegalStateException("Consuming failed");
+			fast.add(payload);
+		}
+	}
+
+	@Configuration
+	static class ConsumersConfiguration {
+		@Bean(destroyMethod = "shutdown")
+		public RecordingAmazonSqs amazonSqs() {
+			return new RecordingAmazonSqs();
+		}
+
+		@Bean
+		public Consumers consumers() {
+			return new Consumers();
+		}
+
+		@Bean
+		public Support support() {
+			return throwable -> {
+			};
+		}
+
+		@Bean
+		public QueueConsumer<String> slowConsumer(final Consumers consumers) {
+			return QueueConsumer.<String>builder()
+					.url(SLOW_QUEUE_URL)
+					.consumer(consumers::consumeSlow)
+					.clazz(String.class)
+					.name("slow")
+					.concurrency(new Concurrency(1, 2))
+					.build();
+		}
+
+		@Bean
+		public QueueConsumer<String> fastConsumer(final Consumers consumers) {
+			return new QueueConsumer<>(FAST_QUEUE_URL, consumers::consumeFast, String.class, "fast");
+		}
+	}
+}